@@ -16,6 +16,7 @@ public class UserResponseDTO {
     private Boolean hasPendingApprovals;
     private Long managerId;
     private String avatarUrl;
+    private Long changeVersion;
 
     public String getFullName() {
         return (this.firstName != null ? this.firstName : "") + " " + (this.lastName != null ? this.lastName : "");
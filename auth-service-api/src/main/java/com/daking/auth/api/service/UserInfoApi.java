@@ -1,11 +1,14 @@
 package com.daking.auth.api.service;
 
 import com.daking.auth.api.dto.DepartmentDTO;
+import com.daking.auth.api.dto.DirectoryChangesDTO;
+import com.daking.auth.api.dto.RequestContextDTO;
 import com.daking.auth.api.dto.UserResponseDTO;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import java.util.List;
 
 public interface UserInfoApi {
@@ -39,4 +42,11 @@ public interface UserInfoApi {
 
     @PostMapping("/api/auth/users/by-ids")
     List<UserResponseDTO> getUsersByIds(@RequestBody List<Long> userIds);
+
+    @GetMapping("/api/auth/users/changes")
+    DirectoryChangesDTO getDirectoryChanges(@RequestParam("sinceVersion") long sinceVersion,
+            @RequestParam("limit") int limit);
+
+    @GetMapping("/api/auth/users/context")
+    RequestContextDTO getRequestContext(@RequestParam("userIds") List<Long> userIds);
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.daking.auth.config;
 
+import com.daking.auth.service.DirectoryChangeService;
 import com.daking.auth.service.UserService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -17,6 +18,9 @@ public class StartupConfig implements CommandLineRunner {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private DirectoryChangeService directoryChangeService;
+
     @Override
     public void run(String... args) throws Exception {
         logger.info("Starting application initialization...");
@@ -45,6 +49,13 @@ public class StartupConfig implements CommandLineRunner {
             logger.error("Error syncing Google profile pictures during startup: {}", e.getMessage());
         }
 
+        // Stamp rows that predate the directory change feed
+        try {
+            directoryChangeService.assignMissingVersions();
+        } catch (Exception e) {
+            logger.error("Error assigning directory change versions during startup: {}", e.getMessage());
+        }
+
         logger.info("Application initialization completed");
     }
 }
\ No newline at end of file
@@ -7,6 +7,7 @@ import com.daking.auth.dto.LoginRequest;
 import com.daking.auth.service.UserService;
 import com.daking.auth.service.JWTService;
 import com.daking.auth.service.DepartmentService;
+import com.daking.auth.service.DirectoryChangeService;
 import com.daking.auth.exception.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -28,10 +29,13 @@ import com.daking.auth.repository.UserRepository;
 @Tag(name = "Authentication", description = "Authentication management APIs")
 public class AuthController {
 
+    private static final int MAX_CONTEXT_USERS = 50;
+
     private final UserService userService;
     private final JWTService jwtService;
     private final DepartmentService departmentService;
     private final UserRepository userRepository;
+    private final DirectoryChangeService directoryChangeService;
 
     @Operation(summary = "Register a new user", description = "Creates a new user account with STAFF role")
     @PostMapping("/register")
@@ -455,6 +459,25 @@ public class AuthController {
         return ResponseEntity.ok(dtos);
     }
 
+    @Operation(summary = "Directory change feed", description = "Returns users and departments changed after the given version")
+    @GetMapping("/users/changes")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<DirectoryChangesDTO> getDirectoryChanges(
+            @RequestParam(defaultValue = "0") long sinceVersion,
+            @RequestParam(defaultValue = "1000") int limit) {
+        return ResponseEntity.ok(directoryChangeService.getChangesSince(sinceVersion, limit));
+    }
+
+    @Operation(summary = "Request context", description = "Returns users with their departments, managed departments and department managers")
+    @GetMapping("/users/context")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<RequestContextDTO> getRequestContext(@RequestParam List<Long> userIds) {
+        if (userIds.size() > MAX_CONTEXT_USERS) {
+            throw new ValidationException("At most " + MAX_CONTEXT_USERS + " user ids are allowed");
+        }
+        return ResponseEntity.ok(directoryChangeService.getRequestContext(userIds));
+    }
+
     // Utility method to extract email from principal
     private String extractEmailFromPrincipal(Object principal) {
         if (principal instanceof org.springframework.security.core.userdetails.UserDetails) {
@@ -15,5 +15,6 @@ public class DepartmentDTO {
     private String managerName;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private Long changeVersion;
     private List<UserSummaryDTO> users;
 }
\ No newline at end of file
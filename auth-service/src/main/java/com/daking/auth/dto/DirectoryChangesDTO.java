@@ -0,0 +1,19 @@
+package com.daking.auth.dto;
+
+import lombok.Data;
+import java.util.List;
+
+/**
+ * One page of the user/department change feed. Departments are sent without
+ * their user lists; membership is carried by each user's departmentId.
+ */
+@Data
+public class DirectoryChangesDTO {
+    /** Highest change version contained in this page, to be passed as sinceVersion next time. */
+    private long version;
+    /** Latest change version known to auth-service when the page was built. */
+    private long currentVersion;
+    private boolean hasMore;
+    private List<UserResponseDTO> users;
+    private List<DepartmentDTO> departments;
+}
@@ -0,0 +1,30 @@
+package com.daking.auth.dto;
+
+import lombok.Data;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Everything needed to authorize and notify around a request made by or about
+ * a handful of users, in one round-trip. Departments are sent without their
+ * user lists.
+ */
+@Data
+public class RequestContextDTO {
+    /** Directory change version the context is at least as recent as. */
+    private long directoryVersion;
+    private List<UserResponseDTO> users;
+    /** Departments of the users and departments managed by them. */
+    private List<DepartmentDTO> departments;
+    /** Ids of the departments managed by each requested user. */
+    private Map<Long, List<Long>> managedDepartmentIds;
+    /** Users with the MANAGER role in each department of {@link #departments}. */
+    private Map<Long, List<UserResponseDTO>> departmentManagers;
+
+    public UserResponseDTO findUser(Long userId) {
+        if (users == null || userId == null) {
+            return null;
+        }
+        return users.stream().filter(user -> userId.equals(user.getId())).findFirst().orElse(null);
+    }
+}
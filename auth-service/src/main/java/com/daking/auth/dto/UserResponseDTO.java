@@ -16,5 +16,6 @@ public class UserResponseDTO {
     private Boolean hasPendingApprovals;
     private Long managerId;
     private String avatarUrl;
+    private Long changeVersion;
     private DepartmentDTO department;
 }
\ No newline at end of file
@@ -7,7 +7,9 @@ import java.util.List;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "departments")
+@Table(name = "departments", indexes = @Index(name = "idx_departments_change_version",
+        columnList = "change_version"))
+@EntityListeners(DirectoryChangeListener.class)
 @Data
 public class Department {
     @Id
@@ -36,6 +38,9 @@ public class Department {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    @Column(name = "change_version")
+    private Long changeVersion;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,24 @@
+package com.daking.auth.model;
+
+import com.daking.auth.service.DirectoryChangeService;
+import com.daking.auth.util.SpringContext;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+
+/**
+ * Stamps users and departments with a new directory change version whenever
+ * they are inserted or updated, so that the change feed can serve deltas.
+ */
+public class DirectoryChangeListener {
+
+    @PrePersist
+    @PreUpdate
+    public void stampChangeVersion(Object entity) {
+        long version = SpringContext.getBean(DirectoryChangeService.class).nextVersion();
+        if (entity instanceof User user) {
+            user.setChangeVersion(version);
+        } else if (entity instanceof Department department) {
+            department.setChangeVersion(version);
+        }
+    }
+}
@@ -18,7 +18,8 @@ import java.util.Collection;
 import java.util.List;
 
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = @Index(name = "idx_users_change_version", columnList = "change_version"))
+@EntityListeners(DirectoryChangeListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -91,6 +92,9 @@ public class User implements UserDetails {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    @Column(name = "change_version")
+    private Long changeVersion;
+
     private static final String DEFAULT_AVATAR_URL = "https://www.gravatar.com/avatar/00000000000000000000000000000000?d=mp&f=y";
 
     @PrePersist
@@ -56,4 +56,8 @@ public class UserPrincipal implements UserDetails {
     public Long getId() {
         return user.getId();
     }
+
+    public Long getDepartmentId() {
+        return user.getDepartmentId();
+    }
 }
@@ -1,11 +1,13 @@
 package com.daking.auth.repository;
 
 import com.daking.auth.model.Department;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -24,6 +26,17 @@ public interface DepartmentRepository extends JpaRepository<Department, Long> {
     @Query("SELECT d FROM Department d WHERE d.manager.id = :managerId")
     List<Department> findByManagerId(@Param("managerId") Long managerId);
 
+    @Query("SELECT d.id FROM Department d WHERE d.manager.id = :managerId ORDER BY d.id")
+    List<Long> findIdsByManagerId(@Param("managerId") Long managerId);
+
+    @Query("SELECT d FROM Department d WHERE d.manager.id IN :managerIds")
+    List<Department> findByManagerIdIn(@Param("managerIds") Collection<Long> managerIds);
+
     @Query("SELECT d FROM Department d LEFT JOIN FETCH d.users WHERE d.manager.id = :managerId")
     List<Department> findByManagerIdWithUsers(@Param("managerId") Long managerId);
+
+    List<Department> findByChangeVersionGreaterThanOrderByChangeVersionAsc(Long changeVersion, Pageable pageable);
+
+    @Query("SELECT MAX(d.changeVersion) FROM Department d")
+    Long findMaxChangeVersion();
 }
\ No newline at end of file
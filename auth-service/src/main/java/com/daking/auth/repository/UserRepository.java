@@ -3,11 +3,13 @@ package com.daking.auth.repository;
 import com.daking.auth.model.User;
 import com.daking.auth.model.Department;
 import com.daking.auth.model.Role;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -25,6 +27,8 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     List<User> findByDepartmentIdAndRole(Long departmentId, Role role);
 
+    List<User> findByDepartmentIdInAndRole(Collection<Long> departmentIds, Role role);
+
     List<User> findByOnLeaveTrue();
 
     List<User> findByPendingApprovalsTrue();
@@ -41,4 +45,9 @@ public interface UserRepository extends JpaRepository<User, Long> {
             "OR LOWER(u.firstName) LIKE LOWER(CONCAT('%', :query, '%')) " +
             "OR LOWER(u.lastName) LIKE LOWER(CONCAT('%', :query, '%'))")
     List<User> searchUsers(@Param("query") String query);
+
+    List<User> findByChangeVersionGreaterThanOrderByChangeVersionAsc(Long changeVersion, Pageable pageable);
+
+    @Query("SELECT MAX(u.changeVersion) FROM User u")
+    Long findMaxChangeVersion();
 }
\ No newline at end of file
@@ -100,6 +100,8 @@ public class DepartmentServiceImpl implements DepartmentService {
                 .orElseThrow(() -> new RuntimeException("Manager not found with id: " + managerId));
 
         department.setManager(manager);
+        // The update stamps a new change version, which is how leave-service
+        // learns to drop the cached scopes of the previous and new manager
         return departmentRepository.save(department);
     }
 
@@ -0,0 +1,33 @@
+package com.daking.auth.service;
+
+import com.daking.auth.dto.DirectoryChangesDTO;
+import com.daking.auth.dto.RequestContextDTO;
+
+import java.util.Collection;
+
+public interface DirectoryChangeService {
+
+    /**
+     * Allocates the next directory change version.
+     */
+    long nextVersion();
+
+    /**
+     * Returns users and departments changed after the given version, in version
+     * order, at most {@code limit} entries in total.
+     */
+    DirectoryChangesDTO getChangesSince(long sinceVersion, int limit);
+
+    /**
+     * Returns the given users together with their departments, the
+     * departments they manage and the managers of those departments. Unknown
+     * user ids are left out.
+     */
+    RequestContextDTO getRequestContext(Collection<Long> userIds);
+
+    /**
+     * Stamps rows written before change versions existed (or by plain SQL) so
+     * that they are picked up by the feed. Returns the number of rows updated.
+     */
+    int assignMissingVersions();
+}
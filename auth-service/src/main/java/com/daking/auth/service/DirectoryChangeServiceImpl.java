@@ -0,0 +1,182 @@
+package com.daking.auth.service;
+
+import com.daking.auth.dto.DepartmentDTO;
+import com.daking.auth.dto.DirectoryChangesDTO;
+import com.daking.auth.dto.RequestContextDTO;
+import com.daking.auth.dto.UserResponseDTO;
+import com.daking.auth.model.Department;
+import com.daking.auth.model.Role;
+import com.daking.auth.model.User;
+import com.daking.auth.repository.DepartmentRepository;
+import com.daking.auth.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+public class DirectoryChangeServiceImpl implements DirectoryChangeService {
+
+    private static final Logger log = LoggerFactory.getLogger(DirectoryChangeServiceImpl.class);
+    private static final String SEQUENCE = "directory_change_seq";
+    private static final int MAX_LIMIT = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+    private final DepartmentRepository departmentRepository;
+    private final UserService userService;
+
+    @PostConstruct
+    void createSequence() {
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + SEQUENCE);
+    }
+
+    @Override
+    public long nextVersion() {
+        Long version = jdbcTemplate.queryForObject("SELECT nextval('" + SEQUENCE + "')", Long.class);
+        if (version == null) {
+            throw new IllegalStateException("Could not allocate a directory change version");
+        }
+        return version;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public DirectoryChangesDTO getChangesSince(long sinceVersion, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        // One extra row per table tells whether anything is left after this page
+        Pageable firstRows = PageRequest.of(0, pageSize + 1);
+        List<User> users = userRepository.findByChangeVersionGreaterThanOrderByChangeVersionAsc(sinceVersion,
+                firstRows);
+        List<Department> departments = departmentRepository
+                .findByChangeVersionGreaterThanOrderByChangeVersionAsc(sinceVersion, firstRows);
+
+        // Merge both tables by version so the page ends on a single watermark
+        long version = sinceVersion;
+        int userCount = 0;
+        int departmentCount = 0;
+        while (userCount + departmentCount < pageSize
+                && (userCount < users.size() || departmentCount < departments.size())) {
+            boolean nextIsUser = departmentCount >= departments.size()
+                    || (userCount < users.size() && users.get(userCount).getChangeVersion() < departments
+                            .get(departmentCount).getChangeVersion());
+            if (nextIsUser) {
+                version = users.get(userCount++).getChangeVersion();
+            } else {
+                version = departments.get(departmentCount++).getChangeVersion();
+            }
+        }
+
+        DirectoryChangesDTO dto = new DirectoryChangesDTO();
+        dto.setVersion(version);
+        dto.setHasMore(userCount < users.size() || departmentCount < departments.size());
+        dto.setCurrentVersion(Math.max(version, currentVersion()));
+        dto.setUsers(users.subList(0, userCount).stream()
+                .map(userService::convertToDTO)
+                .collect(Collectors.toList()));
+        dto.setDepartments(departments.subList(0, departmentCount).stream()
+                .map(this::toChangeDTO)
+                .collect(Collectors.toList()));
+        return dto;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public RequestContextDTO getRequestContext(Collection<Long> userIds) {
+        RequestContextDTO dto = new RequestContextDTO();
+        // Read first: everything below is at least this recent
+        dto.setDirectoryVersion(currentVersion());
+
+        Set<Long> ids = userIds.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        List<User> users = ids.isEmpty() ? List.of() : userRepository.findAllById(ids);
+        List<Department> managed = ids.isEmpty() ? List.of() : departmentRepository.findByManagerIdIn(ids);
+
+        Map<Long, List<Long>> managedDepartmentIds = new LinkedHashMap<>();
+        for (User user : users) {
+            managedDepartmentIds.put(user.getId(), new ArrayList<>());
+        }
+        Map<Long, Department> departments = new LinkedHashMap<>();
+        for (Department department : managed) {
+            managedDepartmentIds.computeIfAbsent(department.getManager().getId(), id -> new ArrayList<>())
+                    .add(department.getId());
+            departments.put(department.getId(), department);
+        }
+        Set<Long> memberOf = users.stream()
+                .map(User::getDepartmentId)
+                .filter(id -> id != null && !departments.containsKey(id))
+                .collect(Collectors.toSet());
+        if (!memberOf.isEmpty()) {
+            for (Department department : departmentRepository.findAllById(memberOf)) {
+                departments.put(department.getId(), department);
+            }
+        }
+
+        Map<Long, List<UserResponseDTO>> departmentManagers = new LinkedHashMap<>();
+        departments.keySet().forEach(id -> departmentManagers.put(id, new ArrayList<>()));
+        if (!departments.isEmpty()) {
+            for (User manager : userRepository.findByDepartmentIdInAndRole(departments.keySet(), Role.MANAGER)) {
+                departmentManagers.get(manager.getDepartmentId()).add(userService.convertToDTO(manager));
+            }
+        }
+
+        dto.setUsers(users.stream().map(userService::convertToDTO).collect(Collectors.toList()));
+        dto.setDepartments(departments.values().stream().map(this::toChangeDTO).collect(Collectors.toList()));
+        dto.setManagedDepartmentIds(managedDepartmentIds);
+        dto.setDepartmentManagers(departmentManagers);
+        return dto;
+    }
+
+    @Override
+    @Transactional
+    public int assignMissingVersions() {
+        int users = jdbcTemplate.update(
+                "UPDATE users SET change_version = nextval('" + SEQUENCE + "') WHERE change_version IS NULL");
+        int departments = jdbcTemplate.update(
+                "UPDATE departments SET change_version = nextval('" + SEQUENCE + "') WHERE change_version IS NULL");
+        if (users + departments > 0) {
+            log.info("Assigned directory change versions to {} users and {} departments", users, departments);
+        }
+        return users + departments;
+    }
+
+    private long currentVersion() {
+        Long users = userRepository.findMaxChangeVersion();
+        Long departments = departmentRepository.findMaxChangeVersion();
+        return Math.max(users != null ? users : 0L, departments != null ? departments : 0L);
+    }
+
+    // Departments travel without their user lists; membership comes from the users
+    private DepartmentDTO toChangeDTO(Department department) {
+        DepartmentDTO dto = new DepartmentDTO();
+        dto.setId(department.getId());
+        dto.setName(department.getName());
+        dto.setDescription(department.getDescription());
+        dto.setActive(Boolean.TRUE.equals(department.getIsActive()));
+        if (department.getManager() != null) {
+            dto.setManagerId(department.getManager().getId());
+            dto.setManagerName(department.getManager().getFullName());
+        }
+        dto.setCreatedAt(department.getCreatedAt());
+        dto.setUpdatedAt(department.getUpdatedAt());
+        dto.setChangeVersion(department.getChangeVersion());
+        return dto;
+    }
+}
@@ -4,6 +4,7 @@ import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
@@ -11,6 +12,8 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import com.daking.auth.model.Role;
 import com.daking.auth.model.User;
+import com.daking.auth.repository.DepartmentRepository;
+import com.daking.auth.repository.UserRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -33,6 +36,12 @@ public class JWTService {
     @Value("${jwt.refresh-expiration:604800000}")
     private long refreshExpiration;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
@@ -46,22 +55,51 @@ public class JWTService {
         Map<String, Object> claims = new HashMap<>();
         String roleName = null;
         Long userId = null;
+        Long departmentId = null;
         if (userDetails instanceof com.daking.auth.model.UserPrincipal) {
             var up = (com.daking.auth.model.UserPrincipal) userDetails;
             roleName = up.getRole().name();
             userId = up.getId();
+            departmentId = up.getDepartmentId();
         } else if (userDetails instanceof User) {
             User user = (User) userDetails;
             roleName = user.getRole().name();
             userId = user.getId();
+            departmentId = user.getDepartmentId();
         }
         claims.put("role", roleName);
         claims.put("roles", List.of("ROLE_" + roleName));
         claims.put("userId", userId); // Numeric ID
-        // ... other claims as needed
+        claims.put("departmentId", departmentId);
+        // Directory version first: everything read below is at least this recent
+        claims.put("dv", currentDirectoryVersion());
+        claims.put("mdep", managedDepartmentIds(roleName, userId));
         return generateToken(claims, userDetails);
     }
 
+    /**
+     * Ids of the departments managed by the user, embedded as the compact
+     * {@code mdep} claim so that services can authorize approvals without a
+     * lookup. Only managers and admins can manage departments.
+     */
+    private List<Long> managedDepartmentIds(String roleName, Long userId) {
+        if (userId == null || !(Role.MANAGER.name().equals(roleName) || Role.ADMIN.name().equals(roleName))) {
+            return List.of();
+        }
+        return departmentRepository.findIdsByManagerId(userId);
+    }
+
+    /**
+     * Highest directory change version, embedded as the {@code dv} claim so
+     * that services can tell whether the directory data in the token has
+     * changed since it was issued.
+     */
+    private long currentDirectoryVersion() {
+        Long users = userRepository.findMaxChangeVersion();
+        Long departments = departmentRepository.findMaxChangeVersion();
+        return Math.max(users == null ? 0 : users, departments == null ? 0 : departments);
+    }
+
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
         return buildToken(extraClaims, userDetails, jwtExpiration);
     }
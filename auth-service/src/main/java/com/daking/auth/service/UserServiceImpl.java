@@ -138,6 +138,7 @@ public class UserServiceImpl implements UserService {
         dto.setIsActive(user.isActive());
         dto.setIsOnLeave(user.isOnLeave());
         dto.setHasPendingApprovals(user.hasPendingApprovals());
+        dto.setChangeVersion(user.getChangeVersion());
         dto.setManagerId(user.getManagerId());
         dto.setAvatarUrl(user.getAvatarUrl());
         if (user.getDepartmentId() != null) {
@@ -0,0 +1,15 @@
+#!/bin/bash
+# Lets postgres-replica stream from this server. Runs once, when the primary
+# data directory is first initialized.
+set -e
+
+if [ -z "$POSTGRES_REPLICATION_USER" ]; then
+    echo "POSTGRES_REPLICATION_USER not set, skipping replication setup"
+    exit 0
+fi
+
+psql -v ON_ERROR_STOP=1 --username "$POSTGRES_USER" --dbname "$POSTGRES_DB" <<-EOSQL
+    CREATE ROLE "$POSTGRES_REPLICATION_USER" WITH REPLICATION LOGIN PASSWORD '$POSTGRES_REPLICATION_PASSWORD';
+EOSQL
+
+echo "host replication $POSTGRES_REPLICATION_USER all scram-sha-256" >> "$PGDATA/pg_hba.conf"
@@ -13,6 +13,9 @@ END
 $$;
 
 -- Connect to auth_db (default database) for auth service tables
+-- Change version for the user/department change feed
+CREATE SEQUENCE IF NOT EXISTS directory_change_seq;
+
 -- Create users table
 CREATE TABLE IF NOT EXISTS users (
     id BIGSERIAL PRIMARY KEY,
@@ -32,7 +35,8 @@ CREATE TABLE IF NOT EXISTS users (
     locale VARCHAR(10),
     last_login TIMESTAMP,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    change_version BIGINT DEFAULT nextval('directory_change_seq')
 );
 
 -- Create departments table
@@ -44,6 +48,7 @@ CREATE TABLE IF NOT EXISTS departments (
     is_active BOOLEAN DEFAULT TRUE,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    change_version BIGINT DEFAULT nextval('directory_change_seq'),
     FOREIGN KEY (manager_id) REFERENCES users(id) ON DELETE SET NULL
 );
 
@@ -65,6 +70,8 @@ CREATE INDEX IF NOT EXISTS idx_users_email ON users(email);
 CREATE INDEX IF NOT EXISTS idx_users_department_id ON users(department_id);
 CREATE INDEX IF NOT EXISTS idx_users_manager_id ON users(manager_id);
 CREATE INDEX IF NOT EXISTS idx_users_google_id ON users(google_id);
+CREATE INDEX IF NOT EXISTS idx_users_change_version ON users(change_version);
+CREATE INDEX IF NOT EXISTS idx_departments_change_version ON departments(change_version);
 
 -- Insert sample data
 INSERT INTO departments (name, description, is_active) VALUES
@@ -0,0 +1,29 @@
+package com.daking.leave.batch;
+
+import java.time.Duration;
+
+/**
+ * Summary of one batch job run. {@code skipped} chunks had completed in an
+ * earlier run with the same job key, or were completed by another instance
+ * while this run was processing them.
+ */
+public record BatchJobResult(String jobName, String jobKey, int chunks, int skipped, int completed, int failed,
+        long items, Duration duration) {
+
+    /**
+     * Result of a run that found nothing to process.
+     */
+    public static BatchJobResult empty(String jobName, String jobKey) {
+        return new BatchJobResult(jobName, jobKey, 0, 0, 0, 0, 0, Duration.ZERO);
+    }
+
+    public boolean isSuccessful() {
+        return failed == 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s [%s]: %d items in %d ms, chunks %d completed, %d skipped, %d failed of %d",
+                jobName, jobKey, items, duration.toMillis(), completed, skipped, failed, chunks);
+    }
+}
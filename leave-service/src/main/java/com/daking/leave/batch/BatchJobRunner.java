@@ -0,0 +1,195 @@
+package com.daking.leave.batch;
+
+import com.daking.leave.model.BatchChunkExecution;
+import com.daking.leave.repository.BatchChunkExecutionRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Runs a batch job over a user-id range in chunks.
+ * <p>
+ * The range is cut into chunks of {@code app.batch.chunk-size} ids, aligned to
+ * multiples of the chunk size so that every run of a job key produces the
+ * same chunks. Each chunk runs in its own transaction, which also records the
+ * chunk in {@code batch_chunk_executions}: a failure rolls back that chunk
+ * only, and running the job again with the same key skips the chunks already
+ * completed. Chunks touch disjoint users and run in parallel on a bounded
+ * pool; when the pool is saturated the caller runs the chunk itself.
+ * <p>
+ * The pool is deliberately not a bean: an {@code Executor} bean would replace
+ * Spring Boot's application task executor.
+ * <p>
+ * Metrics: {@code batch.job} per job and {@code batch.chunks} per job and
+ * outcome.
+ */
+@Component
+@Slf4j
+public class BatchJobRunner {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final BatchChunkExecutionRepository chunkRepository;
+    private final TransactionTemplate chunkTransaction;
+    private final MeterRegistry meterRegistry;
+    private final long chunkSize;
+    private final ThreadPoolTaskExecutor executor;
+
+    public BatchJobRunner(BatchChunkExecutionRepository chunkRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.batch.chunk-size:500}") long chunkSize,
+            @Value("${app.batch.threads:4}") int threads,
+            @Value("${app.batch.queue-capacity:100}") int queueCapacity) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("app.batch.chunk-size must be positive");
+        }
+        this.chunkRepository = chunkRepository;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        this.chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.meterRegistry = meterRegistry;
+        this.chunkSize = chunkSize;
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(threads);
+        this.executor.setMaxPoolSize(threads);
+        this.executor.setQueueCapacity(queueCapacity);
+        this.executor.setThreadNamePrefix("balance-batch-");
+        this.executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * Runs {@code processor} over the user ids in [{@code firstUserId},
+     * {@code lastUserId}] and waits for every chunk to finish.
+     */
+    public BatchJobResult run(String jobName, String jobKey, long firstUserId, long lastUserId,
+            ChunkProcessor processor) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Set<Long> completedStarts = new HashSet<>(chunkRepository.findCompletedRangeStarts(jobName, jobKey));
+        List<CompletableFuture<ChunkOutcome>> chunks = new ArrayList<>();
+        int total = 0;
+        int skipped = 0;
+        for (long from = Math.floorDiv(firstUserId, chunkSize) * chunkSize; from <= lastUserId; from += chunkSize) {
+            total++;
+            if (completedStarts.contains(from)) {
+                skipped++;
+                continue;
+            }
+            long start = from;
+            long end = from + chunkSize;
+            chunks.add(CompletableFuture.supplyAsync(
+                    () -> runChunk(jobName, jobKey, start, end, processor), executor));
+        }
+
+        int completed = 0;
+        int failed = 0;
+        long items = 0;
+        for (CompletableFuture<ChunkOutcome> chunk : chunks) {
+            ChunkOutcome outcome = chunk.join();
+            switch (outcome.status()) {
+                case COMPLETED -> {
+                    completed++;
+                    items += outcome.items();
+                }
+                case SKIPPED -> skipped++;
+                case FAILED -> failed++;
+            }
+        }
+        long nanos = sample.stop(meterRegistry.timer("batch.job", "job", jobName));
+        meterRegistry.counter("batch.chunks", "job", jobName, "outcome", "completed").increment(completed);
+        meterRegistry.counter("batch.chunks", "job", jobName, "outcome", "skipped").increment(skipped);
+        meterRegistry.counter("batch.chunks", "job", jobName, "outcome", "failed").increment(failed);
+
+        BatchJobResult result = new BatchJobResult(jobName, jobKey, total, skipped, completed, failed, items,
+                Duration.ofNanos(nanos));
+        if (result.isSuccessful()) {
+            log.info("Batch job {}", result);
+        } else {
+            log.error("Batch job {}; run it again to retry the failed chunks", result);
+        }
+        return result;
+    }
+
+    private ChunkOutcome runChunk(String jobName, String jobKey, long from, long to, ChunkProcessor processor) {
+        BatchChunkExecution.Key key = new BatchChunkExecution.Key(jobName, jobKey, from);
+        try {
+            return chunkTransaction.execute(status -> {
+                int items = processor.process(from, to);
+                record(key, to, BatchChunkExecution.Status.COMPLETED, items, null);
+                return new ChunkOutcome(ChunkStatus.COMPLETED, items);
+            });
+        } catch (ChunkAlreadyCompletedException e) {
+            log.info("Batch job {} [{}] chunk [{}, {}) was completed by another run meanwhile", jobName, jobKey,
+                    from, to);
+            return new ChunkOutcome(ChunkStatus.SKIPPED, 0);
+        } catch (RuntimeException e) {
+            log.error("Batch job {} [{}] failed for user ids [{}, {}): {}", jobName, jobKey, from, to,
+                    e.getMessage(), e);
+            try {
+                chunkTransaction.executeWithoutResult(
+                        status -> record(key, to, BatchChunkExecution.Status.FAILED, 0, e.toString()));
+            } catch (RuntimeException recordFailure) {
+                log.warn("Could not record failed chunk {}: {}", key, recordFailure.getMessage());
+            }
+            return new ChunkOutcome(ChunkStatus.FAILED, 0);
+        }
+    }
+
+    private void record(BatchChunkExecution.Key key, long rangeEnd, BatchChunkExecution.Status status, int items,
+            String error) {
+        BatchChunkExecution execution = chunkRepository.findById(key).orElse(null);
+        if (execution == null) {
+            execution = new BatchChunkExecution(key, rangeEnd, status, 0, 0, null, null, null);
+        } else if (execution.getStatus() == BatchChunkExecution.Status.COMPLETED) {
+            // Completed by another instance meanwhile: roll back a second run of the chunk, keep the record
+            if (status == BatchChunkExecution.Status.COMPLETED) {
+                throw new ChunkAlreadyCompletedException(key);
+            }
+            return;
+        }
+        execution.setRangeEnd(rangeEnd);
+        execution.setStatus(status);
+        execution.setItems(items);
+        execution.setAttempts(execution.getAttempts() + 1);
+        execution.setError(error != null && error.length() > MAX_ERROR_LENGTH
+                ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        execution.setFinishedAt(LocalDateTime.now());
+        chunkRepository.saveAndFlush(execution);
+    }
+
+    private enum ChunkStatus {
+        COMPLETED, SKIPPED, FAILED
+    }
+
+    private record ChunkOutcome(ChunkStatus status, int items) {
+    }
+
+    // Thrown inside the chunk transaction so that the second run of the chunk is rolled back
+    private static final class ChunkAlreadyCompletedException extends RuntimeException {
+
+        ChunkAlreadyCompletedException(BatchChunkExecution.Key key) {
+            super("Chunk " + key + " was already completed");
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.daking.leave.batch;
+
+/**
+ * Work of one chunk of a batch job, run inside the chunk's own transaction.
+ */
+@FunctionalInterface
+public interface ChunkProcessor {
+
+    /**
+     * Processes the users with ids in [{@code fromUserId}, {@code toUserId}).
+     *
+     * @return the number of items changed
+     */
+    int process(long fromUserId, long toUserId);
+}
@@ -0,0 +1,4 @@
+/**
+ * Chunked, checkpointed execution of the leave balance batch jobs.
+ */
+package com.daking.leave.batch;
@@ -0,0 +1,30 @@
+package com.daking.leave.budget;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Upper bound on the SQL statements and remote {@code UserInfoClient} calls a
+ * single request to the annotated endpoint may make. Budgets assume a synced
+ * {@code UserDirectoryReplica} and hold with the near-caches and the
+ * second-level cache cold, which is how {@code QueryBudgetIntegrationTest}
+ * measures them. The test counts everything the request causes, including a
+ * streamed body and batch chunks run on other threads; at runtime only the
+ * request thread is tracked.
+ * <p>
+ * Every handler in leave-service carries a budget.
+ *
+ * @see QueryBudgetInterceptor
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface QueryBudget {
+
+    int statements();
+
+    int remoteCalls() default 0;
+}
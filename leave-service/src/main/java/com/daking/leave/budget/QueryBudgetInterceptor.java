@@ -0,0 +1,79 @@
+package com.daking.leave.budget;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Tracks requests to endpoints annotated with {@link QueryBudget}.
+ * <p>
+ * Every request records its usage; one over budget is logged and counted but
+ * never failed. The budgets themselves are asserted by the integration tests
+ * ({@code QueryBudgetIntegrationTest}).
+ * <p>
+ * For streamed responses only the request thread is tracked: usage is
+ * recorded when the handler returns and concurrent handling starts, and the
+ * async dispatch that completes the response is not tracked again.
+ * <p>
+ * Metrics: {@code queryBudget.statements}, {@code queryBudget.remoteCalls}
+ * and {@code queryBudget.exceeded} per endpoint.
+ */
+@Slf4j
+public class QueryBudgetInterceptor implements AsyncHandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    public QueryBudgetInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.ASYNC && handler instanceof HandlerMethod method
+                && method.hasMethodAnnotation(QueryBudget.class)) {
+            QueryBudgetTracker.start(endpoint(request), method.getMethodAnnotation(QueryBudget.class));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+            Object handler) {
+        record();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        record();
+    }
+
+    private void record() {
+        QueryBudgetTracker.Usage usage = QueryBudgetTracker.stop();
+        if (usage == null) {
+            return;
+        }
+        summary("queryBudget.statements", usage.endpoint).record(usage.statements);
+        summary("queryBudget.remoteCalls", usage.endpoint).record(usage.remoteCalls);
+        if (usage.statements > usage.budget.statements() || usage.remoteCalls > usage.budget.remoteCalls()) {
+            meterRegistry.counter("queryBudget.exceeded", "endpoint", usage.endpoint).increment();
+            log.warn("{} used {} SQL statements and {} remote calls, budget is {} and {}", usage.endpoint,
+                    usage.statements, usage.remoteCalls, usage.budget.statements(), usage.budget.remoteCalls());
+        }
+    }
+
+    private DistributionSummary summary(String name, String endpoint) {
+        return DistributionSummary.builder(name).tag("endpoint", endpoint).register(meterRegistry);
+    }
+
+    private static String endpoint(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return request.getMethod() + " " + (pattern != null ? pattern : request.getRequestURI());
+    }
+}
@@ -0,0 +1,16 @@
+package com.daking.leave.budget;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every statement Hibernate prepares, including native queries,
+ * against the budget of the current request. The SQL is left unchanged.
+ */
+public class QueryBudgetStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryBudgetTracker.statementExecuted();
+        return sql;
+    }
+}
@@ -0,0 +1,50 @@
+package com.daking.leave.budget;
+
+/**
+ * Counts SQL statements and remote calls made by the current thread while a
+ * budgeted request is being handled. Work handed to other threads is not
+ * counted.
+ */
+public final class QueryBudgetTracker {
+
+    private static final ThreadLocal<Usage> CURRENT = new ThreadLocal<>();
+
+    private QueryBudgetTracker() {
+    }
+
+    static void start(String endpoint, QueryBudget budget) {
+        CURRENT.set(new Usage(endpoint, budget));
+    }
+
+    static Usage stop() {
+        Usage usage = CURRENT.get();
+        CURRENT.remove();
+        return usage;
+    }
+
+    public static void statementExecuted() {
+        Usage usage = CURRENT.get();
+        if (usage != null) {
+            usage.statements++;
+        }
+    }
+
+    public static void remoteCallMade() {
+        Usage usage = CURRENT.get();
+        if (usage != null) {
+            usage.remoteCalls++;
+        }
+    }
+
+    static final class Usage {
+        final String endpoint;
+        final QueryBudget budget;
+        int statements;
+        int remoteCalls;
+
+        private Usage(String endpoint, QueryBudget budget) {
+            this.endpoint = endpoint;
+            this.budget = budget;
+        }
+    }
+}
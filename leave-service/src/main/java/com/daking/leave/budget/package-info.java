@@ -0,0 +1,5 @@
+/**
+ * Per-request SQL statement and remote call budgets for leave-service
+ * endpoints.
+ */
+package com.daking.leave.budget;
@@ -0,0 +1,132 @@
+package com.daking.leave.client;
+
+import com.daking.auth.api.dto.DepartmentDTO;
+import com.daking.auth.api.dto.UserResponseDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous facade over {@link UserInfoClient} for fanning out independent
+ * lookups.
+ * <p>
+ * Calls run on a bounded pool and go through the same coalescing and
+ * resilience layers as synchronous calls. The service-account Authorization
+ * header is added by the Feign interceptor on whichever thread sends the
+ * request, and the caller's security context is carried over to the worker.
+ * When the pool is saturated the caller runs the call itself, which throttles
+ * the fan-out instead of failing it. A fan-out of n calls therefore takes
+ * roughly as long as its slowest call.
+ * <p>
+ * The pool is deliberately not a bean: an {@code Executor} bean would replace
+ * Spring Boot's application task executor.
+ */
+@Component
+public class AsyncUserInfoClient {
+
+    private final UserInfoClient userInfoClient;
+    private final ThreadPoolTaskExecutor executor;
+
+    public AsyncUserInfoClient(UserInfoClient userInfoClient,
+            @Value("${app.user-info.async.core-pool-size:8}") int corePoolSize,
+            @Value("${app.user-info.async.max-pool-size:32}") int maxPoolSize,
+            @Value("${app.user-info.async.queue-capacity:200}") int queueCapacity) {
+        this.userInfoClient = userInfoClient;
+        this.executor = new ThreadPoolTaskExecutor();
+        this.executor.setCorePoolSize(corePoolSize);
+        this.executor.setMaxPoolSize(maxPoolSize);
+        this.executor.setQueueCapacity(queueCapacity);
+        this.executor.setThreadNamePrefix("user-info-");
+        this.executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        this.executor.setTaskDecorator(task -> {
+            SecurityContext context = SecurityContextHolder.getContext();
+            return () -> {
+                SecurityContext previous = SecurityContextHolder.getContext();
+                SecurityContextHolder.setContext(context);
+                try {
+                    task.run();
+                } finally {
+                    SecurityContextHolder.setContext(previous);
+                }
+            };
+        });
+        this.executor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    public CompletableFuture<UserResponseDTO> getUserById(Long userId) {
+        return supply(() -> userInfoClient.getUserById(userId));
+    }
+
+    public CompletableFuture<List<UserResponseDTO>> getTeamMembers(Long departmentId) {
+        return supply(() -> userInfoClient.getTeamMembers(departmentId));
+    }
+
+    public CompletableFuture<List<UserResponseDTO>> getManagers(Long departmentId) {
+        return supply(() -> userInfoClient.getManagers(departmentId));
+    }
+
+    public CompletableFuture<List<Long>> getDepartmentsManaged(Long managerId) {
+        return supply(() -> userInfoClient.getDepartmentsManaged(managerId));
+    }
+
+    public CompletableFuture<List<UserResponseDTO>> getUsersByRole(String role) {
+        return supply(() -> userInfoClient.getUsersByRole(role));
+    }
+
+    public CompletableFuture<List<DepartmentDTO>> getDepartments() {
+        return supply(userInfoClient::getDepartments);
+    }
+
+    public CompletableFuture<List<UserResponseDTO>> getUsersByIds(List<Long> userIds) {
+        return supply(() -> userInfoClient.getUsersByIds(userIds));
+    }
+
+    /**
+     * Issues one call per key concurrently and waits for all of them. The
+     * result keeps the iteration order of {@code keys}; the first failure is
+     * rethrown once every call has finished.
+     */
+    public <K, V> Map<K, V> fanOut(Collection<K> keys, Function<K, CompletableFuture<V>> call) {
+        List<K> ordered = new ArrayList<>(keys);
+        List<CompletableFuture<V>> futures = new ArrayList<>(ordered.size());
+        for (K key : ordered) {
+            futures.add(call.apply(key));
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+        Map<K, V> results = new LinkedHashMap<>(ordered.size() * 2);
+        for (int i = 0; i < ordered.size(); i++) {
+            results.put(ordered.get(i), futures.get(i).join());
+        }
+        return results;
+    }
+
+    private <T> CompletableFuture<T> supply(Supplier<T> call) {
+        return CompletableFuture.supplyAsync(call, executor);
+    }
+}
@@ -8,9 +8,11 @@ import org.springframework.web.bind.annotation.RequestBody;
 
 import java.util.Map;
 
-@FeignClient(name = "auth-service-internal", url = "${auth.service.url}")
+@FeignClient(name = AuthClient.NAME, url = "${auth.service.url}")
 public interface AuthClient {
 
+    String NAME = "auth-service-internal";
+
     @PostMapping("/api/auth/login")
     ResponseEntity<Map<String, Object>> login(@RequestBody LoginRequest loginRequest);
 
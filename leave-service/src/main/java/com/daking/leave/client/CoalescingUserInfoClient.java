@@ -0,0 +1,118 @@
+package com.daking.leave.client;
+
+import com.daking.auth.api.dto.DepartmentDTO;
+import com.daking.auth.api.dto.DirectoryChangesDTO;
+import com.daking.auth.api.dto.RequestContextDTO;
+import com.daking.auth.api.dto.UserResponseDTO;
+import com.daking.leave.budget.QueryBudgetTracker;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * {@link UserInfoClient} that lets concurrent identical read calls share one
+ * remote request. Every caller of a coalesced call receives the same result
+ * instance, which must not be modified. Only the leader of a coalesced call
+ * goes through {@link ResilientUserInfoClient}. Every call counts against the
+ * current request's {@link com.daking.leave.budget.QueryBudget}.
+ * <p>
+ * Metrics: {@code userInfoClient.calls} and {@code userInfoClient.coalesced}
+ * per method, and {@code userInfoClient.coalescing.ratio} overall.
+ */
+@Component
+@Primary
+public class CoalescingUserInfoClient implements UserInfoClient {
+
+    private final UserInfoClient remote;
+    private final MeterRegistry meterRegistry;
+    private final SingleFlight<CallKey, Object> singleFlight;
+
+    public CoalescingUserInfoClient(@Qualifier(UserInfoClient.RESILIENT) UserInfoClient remote,
+            MeterRegistry meterRegistry) {
+        this.remote = remote;
+        this.meterRegistry = meterRegistry;
+        this.singleFlight = new SingleFlight<>(
+                key -> meterRegistry.counter("userInfoClient.coalesced", "method", key.method()).increment());
+        Gauge.builder("userInfoClient.coalescing.ratio", singleFlight,
+                flight -> flight.getCalls() == 0 ? 0.0 : (double) flight.getCoalescedCalls() / flight.getCalls())
+                .description("Share of user info calls served by an in-flight identical call")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public UserResponseDTO getUserById(Long userId) {
+        return coalesce("getUserById", userId, () -> remote.getUserById(userId));
+    }
+
+    @Override
+    public UserResponseDTO getUserByEmail(String email) {
+        return coalesce("getUserByEmail", email, () -> remote.getUserByEmail(email));
+    }
+
+    @Override
+    public String getUserRole(Long userId) {
+        return coalesce("getUserRole", userId, () -> remote.getUserRole(userId));
+    }
+
+    @Override
+    public List<UserResponseDTO> getTeamMembers(Long departmentId) {
+        return coalesce("getTeamMembers", departmentId, () -> remote.getTeamMembers(departmentId));
+    }
+
+    @Override
+    public List<UserResponseDTO> getManagers(Long departmentId) {
+        return coalesce("getManagers", departmentId, () -> remote.getManagers(departmentId));
+    }
+
+    @Override
+    public UserResponseDTO getUserProfile() {
+        QueryBudgetTracker.remoteCallMade();
+        return remote.getUserProfile();
+    }
+
+    @Override
+    public List<Long> getDepartmentsManaged(Long managerId) {
+        return coalesce("getDepartmentsManaged", managerId, () -> remote.getDepartmentsManaged(managerId));
+    }
+
+    @Override
+    public List<UserResponseDTO> getUsersByRole(String role) {
+        return coalesce("getUsersByRole", role, () -> remote.getUsersByRole(role));
+    }
+
+    @Override
+    public List<DepartmentDTO> getDepartments() {
+        return coalesce("getDepartments", null, remote::getDepartments);
+    }
+
+    @Override
+    public List<UserResponseDTO> getUsersByIds(List<Long> userIds) {
+        return coalesce("getUsersByIds", List.copyOf(userIds), () -> remote.getUsersByIds(userIds));
+    }
+
+    @Override
+    public DirectoryChangesDTO getDirectoryChanges(long sinceVersion, int limit) {
+        return coalesce("getDirectoryChanges", List.of(sinceVersion, limit),
+                () -> remote.getDirectoryChanges(sinceVersion, limit));
+    }
+
+    @Override
+    public RequestContextDTO getRequestContext(List<Long> userIds) {
+        return coalesce("getRequestContext", List.copyOf(userIds), () -> remote.getRequestContext(userIds));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T coalesce(String method, Object argument, Supplier<T> call) {
+        meterRegistry.counter("userInfoClient.calls", "method", method).increment();
+        QueryBudgetTracker.remoteCallMade();
+        return (T) singleFlight.execute(new CallKey(method, argument), call::get);
+    }
+
+    private record CallKey(String method, Object argument) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.daking.leave.client;
+
+/**
+ * Published by {@link UserDirectoryReplica} when a department's manager
+ * changes, including when the department is created or removed.
+ */
+public record DepartmentManagerChangedEvent(Long departmentId, Long previousManagerId, Long managerId) {
+}
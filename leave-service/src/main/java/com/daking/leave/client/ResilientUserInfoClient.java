@@ -0,0 +1,295 @@
+package com.daking.leave.client;
+
+import com.daking.auth.api.dto.DepartmentDTO;
+import com.daking.auth.api.dto.DirectoryChangesDTO;
+import com.daking.auth.api.dto.RequestContextDTO;
+import com.daking.auth.api.dto.UserResponseDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * {@link UserInfoClient} that isolates leave-service from a slow or failing
+ * auth-service.
+ * <p>
+ * Every remote call goes through a per-method semaphore bulkhead and a shared
+ * circuit breaker. Idempotent GETs are hedged: if no answer has arrived after
+ * {@code hedge-delay}, a second identical request is sent and the first
+ * successful answer wins. When a read cannot be served (circuit open,
+ * bulkhead full, timeout or 5xx) the last value successfully read for the same
+ * arguments is returned instead, if there is one. Lookups that feed
+ * authorization decisions ({@code getDepartmentsManaged},
+ * {@code getRequestContext}) fail closed instead. 4xx responses are answers,
+ * not outages, and are passed through unchanged.
+ * <p>
+ * Metrics: resilience4j circuit breaker and bulkhead metrics, plus
+ * {@code userInfoClient.hedged} and {@code userInfoClient.fallback} per method.
+ */
+@Component
+@Qualifier(UserInfoClient.RESILIENT)
+@Slf4j
+public class ResilientUserInfoClient implements UserInfoClient {
+
+    private static final String CIRCUIT_BREAKER = "auth-service";
+
+    private final UserInfoClient remote;
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreaker circuitBreaker;
+    private final BulkheadRegistry bulkheads;
+    private final Cache<CallKey, Object> lastKnown;
+    private final ThreadPoolTaskExecutor hedgeExecutor;
+    private final Duration hedgeDelay;
+
+    public ResilientUserInfoClient(@Qualifier(UserInfoClient.REMOTE) UserInfoClient remote,
+            MeterRegistry meterRegistry,
+            @Value("${app.user-info.resilience.bulkhead.max-concurrent-calls:20}") int maxConcurrentCalls,
+            @Value("${app.user-info.resilience.bulkhead.max-wait:PT0.05S}") Duration maxWait,
+            @Value("${app.user-info.resilience.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+            @Value("${app.user-info.resilience.circuit-breaker.slow-call-duration:PT1S}") Duration slowCallDuration,
+            @Value("${app.user-info.resilience.circuit-breaker.sliding-window-size:50}") int slidingWindowSize,
+            @Value("${app.user-info.resilience.circuit-breaker.wait-in-open-state:PT10S}") Duration waitInOpenState,
+            @Value("${app.user-info.resilience.hedge-delay:PT0.3S}") Duration hedgeDelay,
+            @Value("${app.user-info.resilience.hedge-threads:16}") int hedgeThreads,
+            @Value("${app.user-info.resilience.last-known.maximum-size:10000}") long lastKnownMaximumSize,
+            @Value("${app.user-info.resilience.last-known.expire-after-write:PT1H}") Duration lastKnownExpiry) {
+        this.remote = remote;
+        this.meterRegistry = meterRegistry;
+        this.hedgeDelay = hedgeDelay;
+
+        CircuitBreakerRegistry circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(slowCallDuration)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(Math.min(10, slidingWindowSize))
+                .waitDurationInOpenState(waitInOpenState)
+                .permittedNumberOfCallsInHalfOpenState(3)
+                .ignoreExceptions(FeignException.FeignClientException.class, BulkheadFullException.class)
+                .build());
+        this.circuitBreaker = circuitBreakers.circuitBreaker(CIRCUIT_BREAKER);
+        this.circuitBreaker.getEventPublisher().onStateTransition(
+                event -> log.warn("auth-service circuit breaker: {}", event.getStateTransition()));
+        this.bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(maxWait)
+                .build());
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakers).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(meterRegistry);
+
+        this.lastKnown = Caffeine.newBuilder()
+                .maximumSize(lastKnownMaximumSize)
+                .expireAfterWrite(lastKnownExpiry)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, lastKnown, "userInfoClient.lastKnown");
+
+        this.hedgeExecutor = new ThreadPoolTaskExecutor();
+        this.hedgeExecutor.setCorePoolSize(hedgeThreads);
+        this.hedgeExecutor.setMaxPoolSize(hedgeThreads);
+        this.hedgeExecutor.setQueueCapacity(0);
+        this.hedgeExecutor.setThreadNamePrefix("user-info-hedge-");
+        this.hedgeExecutor.setDaemon(true);
+        this.hedgeExecutor.initialize();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hedgeExecutor.shutdown();
+    }
+
+    @Override
+    public UserResponseDTO getUserById(Long userId) {
+        return read("getUserById", userId, true, true, () -> remote.getUserById(userId));
+    }
+
+    @Override
+    public UserResponseDTO getUserByEmail(String email) {
+        return read("getUserByEmail", email, true, true, () -> remote.getUserByEmail(email));
+    }
+
+    @Override
+    public String getUserRole(Long userId) {
+        return read("getUserRole", userId, true, true, () -> remote.getUserRole(userId));
+    }
+
+    @Override
+    public List<UserResponseDTO> getTeamMembers(Long departmentId) {
+        return read("getTeamMembers", departmentId, true, true, () -> remote.getTeamMembers(departmentId));
+    }
+
+    @Override
+    public List<UserResponseDTO> getManagers(Long departmentId) {
+        return read("getManagers", departmentId, true, true, () -> remote.getManagers(departmentId));
+    }
+
+    // Answered for whoever the caller is, so no hedging and no stale fallback
+    @Override
+    public UserResponseDTO getUserProfile() {
+        return attempt("getUserProfile", remote::getUserProfile).get();
+    }
+
+    // Drives authorization, so a failure must not be answered with a revoked scope
+    @Override
+    public List<Long> getDepartmentsManaged(Long managerId) {
+        return read("getDepartmentsManaged", managerId, true, false, () -> remote.getDepartmentsManaged(managerId));
+    }
+
+    @Override
+    public List<UserResponseDTO> getUsersByRole(String role) {
+        return read("getUsersByRole", role, true, true, () -> remote.getUsersByRole(role));
+    }
+
+    @Override
+    public List<DepartmentDTO> getDepartments() {
+        return read("getDepartments", null, true, true, remote::getDepartments);
+    }
+
+    // POST, so not hedged
+    @Override
+    public List<UserResponseDTO> getUsersByIds(List<Long> userIds) {
+        return read("getUsersByIds", List.copyOf(userIds), false, true, () -> remote.getUsersByIds(userIds));
+    }
+
+    // A replayed change page would make the replica loop, so failures surface to the poller
+    @Override
+    public DirectoryChangesDTO getDirectoryChanges(long sinceVersion, int limit) {
+        return hedged("getDirectoryChanges", attempt("getDirectoryChanges",
+                () -> remote.getDirectoryChanges(sinceVersion, limit)));
+    }
+
+    // Same as getDepartmentsManaged: roles and managed departments decide access
+    @Override
+    public RequestContextDTO getRequestContext(List<Long> userIds) {
+        return read("getRequestContext", List.copyOf(userIds), true, false, () -> remote.getRequestContext(userIds));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T read(String method, Object argument, boolean hedge, boolean fallback, Supplier<T> call) {
+        CallKey key = new CallKey(method, argument);
+        Supplier<T> attempt = attempt(method, call);
+        try {
+            T value = hedge ? hedged(method, attempt) : attempt.get();
+            if (value != null && fallback) {
+                lastKnown.put(key, value);
+            }
+            return value;
+        } catch (FeignException.FeignClientException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            Object stale = fallback ? lastKnown.getIfPresent(key) : null;
+            if (stale == null) {
+                throw e;
+            }
+            meterRegistry.counter("userInfoClient.fallback", "method", method).increment();
+            log.debug("Serving last known {}({}) after failure: {}", method, argument, e.toString());
+            return (T) stale;
+        }
+    }
+
+    private <T> Supplier<T> attempt(String method, Supplier<T> call) {
+        Bulkhead bulkhead = bulkheads.bulkhead(method);
+        return CircuitBreaker.decorateSupplier(circuitBreaker, Bulkhead.decorateSupplier(bulkhead, call));
+    }
+
+    /**
+     * Runs the attempt and, if it has not completed within the hedge delay,
+     * races it against a second attempt. Hedging is skipped when the hedge
+     * pool is saturated.
+     */
+    private <T> T hedged(String method, Supplier<T> attempt) {
+        CompletableFuture<T> primary;
+        try {
+            primary = CompletableFuture.supplyAsync(attempt, hedgeExecutor);
+        } catch (RejectedExecutionException e) {
+            return attempt.get();
+        }
+        try {
+            return primary.get(hedgeDelay.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            // Slow answer: hedge below
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calling auth-service", e);
+        }
+        CompletableFuture<T> backup;
+        try {
+            backup = CompletableFuture.supplyAsync(attempt, hedgeExecutor);
+        } catch (RejectedExecutionException e) {
+            return await(primary);
+        }
+        meterRegistry.counter("userInfoClient.hedged", "method", method).increment();
+        return await(firstSuccessful(primary, backup));
+    }
+
+    private static <T> CompletableFuture<T> firstSuccessful(CompletableFuture<T> first, CompletableFuture<T> second) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        for (CompletableFuture<T> attempt : List.of(first, second)) {
+            attempt.whenComplete((value, error) -> {
+                if (error == null) {
+                    result.complete(value);
+                } else if (failures.incrementAndGet() == 2) {
+                    result.completeExceptionally(error);
+                }
+            });
+        }
+        return result;
+    }
+
+    private static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while calling auth-service", e);
+        }
+    }
+
+    private static RuntimeException unwrap(Throwable cause) {
+        while (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IllegalStateException("auth-service call failed", cause);
+    }
+
+    private record CallKey(String method, Object argument) {
+    }
+}
@@ -0,0 +1,174 @@
+package com.daking.leave.client;
+
+import com.daking.auth.api.dto.UserResponseDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Local near-cache of the auth-service user directory.
+ * <p>
+ * Users are cached by id in a bounded Caffeine cache with a TTL and
+ * refresh-ahead, so hot entries are reloaded in the background before they
+ * expire. Lookups by email only keep an email to id mapping and share the
+ * by-id entries. Misses for several ids at once are resolved with a single
+ * {@link UserInfoClient#getUsersByIds(List)} call.
+ */
+@Component
+@Slf4j
+public class UserDirectory {
+
+    private final UserInfoClient userInfoClient;
+    private final LoadingCache<Long, UserResponseDTO> usersById;
+    private final Cache<String, Long> userIdsByEmail;
+
+    public UserDirectory(UserInfoClient userInfoClient, MeterRegistry meterRegistry,
+            @Value("${app.user-directory.maximum-size:50000}") long maximumSize,
+            @Value("${app.user-directory.expire-after-write:PT30M}") Duration expireAfterWrite,
+            @Value("${app.user-directory.refresh-after-write:PT5M}") Duration refreshAfterWrite) {
+        this.userInfoClient = userInfoClient;
+        this.usersById = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .refreshAfterWrite(refreshAfterWrite)
+                .recordStats()
+                .build(new UserLoader());
+        this.userIdsByEmail = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, usersById, "userDirectory.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, userIdsByEmail, "userDirectory.byEmail");
+    }
+
+    /**
+     * Returns the user with the given id, loading it from auth-service on a
+     * miss. Remote failures are propagated to the caller.
+     */
+    public UserResponseDTO getUserById(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        return usersById.get(userId);
+    }
+
+    /**
+     * Returns the user with the given email, loading it from auth-service on a
+     * miss. Remote failures are propagated to the caller.
+     */
+    public UserResponseDTO getUserByEmail(String email) {
+        String key = normalize(email);
+        if (key == null) {
+            return null;
+        }
+        Long userId = userIdsByEmail.getIfPresent(key);
+        if (userId != null) {
+            UserResponseDTO cached = usersById.getIfPresent(userId);
+            if (cached != null && key.equals(normalize(cached.getEmail()))) {
+                return cached;
+            }
+        }
+        UserResponseDTO user = userInfoClient.getUserByEmail(email);
+        put(user);
+        return user;
+    }
+
+    /**
+     * Resolves several users at once. Ids that are already cached are served
+     * locally; the remaining ones are fetched with one bulk call. Ids unknown
+     * to auth-service are absent from the returned map.
+     */
+    public Map<Long, UserResponseDTO> getUsersByIds(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return Map.of();
+        }
+        Set<Long> ids = userIds.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        return usersById.getAll(ids);
+    }
+
+    /**
+     * Pre-loads the given users so later single lookups are served locally.
+     */
+    public void warmUp(Collection<Long> userIds) {
+        try {
+            Map<Long, UserResponseDTO> loaded = getUsersByIds(userIds);
+            log.debug("Warmed user directory with {} users", loaded.size());
+        } catch (Exception e) {
+            log.warn("Could not warm user directory: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Stores a user obtained from another auth-service call.
+     */
+    public void put(UserResponseDTO user) {
+        if (user == null || user.getId() == null) {
+            return;
+        }
+        usersById.put(user.getId(), user);
+        String key = normalize(user.getEmail());
+        if (key != null) {
+            userIdsByEmail.put(key, user.getId());
+        }
+    }
+
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            usersById.invalidate(userId);
+        }
+    }
+
+    public void invalidateAll() {
+        usersById.invalidateAll();
+        userIdsByEmail.invalidateAll();
+    }
+
+    private static String normalize(String email) {
+        return email == null || email.isBlank() ? null : email.trim().toLowerCase();
+    }
+
+    private class UserLoader implements CacheLoader<Long, UserResponseDTO> {
+
+        @Override
+        public UserResponseDTO load(Long userId) {
+            UserResponseDTO user = userInfoClient.getUserById(userId);
+            if (user != null && user.getEmail() != null) {
+                userIdsByEmail.put(normalize(user.getEmail()), userId);
+            }
+            return user;
+        }
+
+        @Override
+        public Map<Long, UserResponseDTO> loadAll(Set<? extends Long> userIds) {
+            List<UserResponseDTO> users = userInfoClient.getUsersByIds(List.copyOf(userIds));
+            Map<Long, UserResponseDTO> result = new HashMap<>();
+            if (users != null) {
+                for (UserResponseDTO user : users) {
+                    if (user != null && user.getId() != null) {
+                        result.put(user.getId(), user);
+                        if (user.getEmail() != null) {
+                            userIdsByEmail.put(normalize(user.getEmail()), user.getId());
+                        }
+                    }
+                }
+            }
+            return result;
+        }
+    }
+}
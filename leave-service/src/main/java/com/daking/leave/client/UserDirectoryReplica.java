@@ -0,0 +1,506 @@
+package com.daking.leave.client;
+
+import com.daking.auth.api.dto.DepartmentDTO;
+import com.daking.auth.api.dto.DirectoryChangesDTO;
+import com.daking.auth.api.dto.RequestContextDTO;
+import com.daking.auth.api.dto.UserResponseDTO;
+import com.daking.auth.api.dto.UserSummaryDTO;
+import com.daking.auth.api.model.Role;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Collectors;
+
+/**
+ * Full local replica of the auth-service users and departments, kept current
+ * by polling the versioned change feed.
+ * <p>
+ * A full resync runs on start-up and periodically afterwards so that hard
+ * deletes are eventually dropped. While the replica has not synced yet, or
+ * has not managed to poll for longer than {@code max-staleness}, the list
+ * lookups fall back to the remote {@link UserInfoClient}. Manager changes are
+ * published as {@link DepartmentManagerChangedEvent}s.
+ * <p>
+ * Versions are allocated before commit, so a change can become visible after
+ * a higher version was already read. Every version below the high-water mark
+ * that has not been seen is kept as a gap and polled again until it shows up
+ * or {@code gap-timeout} passes (rolled back or superseded changes never do).
+ * While a gap above a given version is open, {@link #isUnchangedSince} cannot
+ * vouch for that version.
+ * <p>
+ * For the same reason a token's directory version cannot prove that its
+ * claims are current: a change holding a lower version may commit after the
+ * token was issued. Every user and department is therefore stamped with the
+ * local time the replica first applied its current version, and
+ * {@link #isUnchangedSince} also rejects entries applied after the token was
+ * issued. Entries loaded by the initial sync are stamped with the sync time.
+ * This compares local time with auth-service's issue time, so it relies on
+ * the two clocks being in sync.
+ */
+@Component
+@Slf4j
+public class UserDirectoryReplica {
+
+    private final UserInfoClient userInfoClient;
+    private final AsyncUserInfoClient asyncUserInfoClient;
+    private final UserDirectory userDirectory;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final int pageSize;
+    private final Duration maxStaleness;
+    private final Duration gapTimeout;
+
+    private volatile Map<Long, UserResponseDTO> users = new ConcurrentHashMap<>();
+    private volatile Map<Long, DepartmentDTO> departments = new ConcurrentHashMap<>();
+    /** Local time, in millis, each user's and department's current version was applied. */
+    private volatile Map<Long, Long> userAppliedAt = new ConcurrentHashMap<>();
+    private volatile Map<Long, Long> departmentAppliedAt = new ConcurrentHashMap<>();
+    private volatile long version;
+    private volatile boolean synced;
+    private volatile long lastSyncMillis;
+    /** Unseen versions below the high-water mark, with the time each was first missed. */
+    private final ConcurrentSkipListMap<Long, Long> gaps = new ConcurrentSkipListMap<>();
+
+    public UserDirectoryReplica(UserInfoClient userInfoClient, AsyncUserInfoClient asyncUserInfoClient,
+            UserDirectory userDirectory,
+            ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+            @Value("${app.user-directory.replica.enabled:true}") boolean enabled,
+            @Value("${app.user-directory.replica.page-size:1000}") int pageSize,
+            @Value("${app.user-directory.replica.max-staleness:PT2M}") Duration maxStaleness,
+            @Value("${app.user-directory.replica.gap-timeout:PT1M}") Duration gapTimeout) {
+        this.userInfoClient = userInfoClient;
+        this.asyncUserInfoClient = asyncUserInfoClient;
+        this.userDirectory = userDirectory;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.pageSize = pageSize;
+        this.maxStaleness = maxStaleness;
+        this.gapTimeout = gapTimeout;
+        Gauge.builder("userDirectory.replica.users", this, replica -> replica.users.size())
+                .register(meterRegistry);
+        Gauge.builder("userDirectory.replica.version", this, replica -> replica.version)
+                .register(meterRegistry);
+        Gauge.builder("userDirectory.replica.gaps", gaps, Map::size)
+                .register(meterRegistry);
+        Gauge.builder("userDirectory.replica.staleness", this,
+                replica -> replica.lastSyncMillis == 0 ? Double.NaN
+                        : (System.currentTimeMillis() - replica.lastSyncMillis) / 1000.0)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Applies the changes made since the last poll, or performs the initial
+     * full sync.
+     */
+    @Scheduled(initialDelayString = "${app.user-directory.replica.initial-delay:PT5S}",
+            fixedDelayString = "${app.user-directory.replica.poll-interval:PT15S}")
+    public synchronized void poll() {
+        if (!enabled) {
+            return;
+        }
+        if (!synced) {
+            fullResync();
+            return;
+        }
+        try {
+            // Re-read from just below the oldest open gap so late commits are picked up
+            long since = gaps.isEmpty() ? version : Math.min(version, gaps.firstKey() - 1);
+            Set<Long> seen = new HashSet<>();
+            DirectoryChangesDTO page;
+            do {
+                page = userInfoClient.getDirectoryChanges(since, pageSize);
+                apply(page, users, userAppliedAt, departments, departmentAppliedAt)
+                        .forEach(eventPublisher::publishEvent);
+                collectVersions(page, seen);
+                since = page.getVersion();
+            } while (page.isHasMore());
+            long highWater = Math.max(version, since);
+            updateGaps(version, highWater, seen);
+            version = highWater;
+            lastSyncMillis = System.currentTimeMillis();
+        } catch (Exception e) {
+            log.warn("Could not poll directory changes since version {}: {}", version, e.getMessage());
+        }
+    }
+
+    /**
+     * Rebuilds the replica from scratch, dropping users and departments that no
+     * longer exist in auth-service.
+     */
+    @Scheduled(initialDelayString = "${app.user-directory.replica.full-resync-interval:PT1H}",
+            fixedDelayString = "${app.user-directory.replica.full-resync-interval:PT1H}")
+    public synchronized void fullResync() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Map<Long, UserResponseDTO> freshUsers = new ConcurrentHashMap<>();
+            Map<Long, DepartmentDTO> freshDepartments = new ConcurrentHashMap<>();
+            Map<Long, Long> freshUserAppliedAt = new ConcurrentHashMap<>();
+            Map<Long, Long> freshDepartmentAppliedAt = new ConcurrentHashMap<>();
+            List<DepartmentManagerChangedEvent> managerChanges = new ArrayList<>();
+            Set<Long> seen = new HashSet<>();
+            long since = 0;
+            DirectoryChangesDTO page;
+            do {
+                page = userInfoClient.getDirectoryChanges(since, pageSize);
+                managerChanges.addAll(apply(page, freshUsers, freshUserAppliedAt, freshDepartments,
+                        freshDepartmentAppliedAt));
+                collectVersions(page, seen);
+                since = page.getVersion();
+            } while (page.isHasMore());
+
+            for (Long removed : users.keySet()) {
+                if (!freshUsers.containsKey(removed)) {
+                    userDirectory.invalidate(removed);
+                }
+            }
+            for (DepartmentDTO removed : departments.values()) {
+                if (!freshDepartments.containsKey(removed.getId()) && removed.getManagerId() != null) {
+                    managerChanges.add(new DepartmentManagerChangedEvent(removed.getId(), removed.getManagerId(), null));
+                }
+            }
+            users = freshUsers;
+            departments = freshDepartments;
+            userAppliedAt = freshUserAppliedAt;
+            departmentAppliedAt = freshDepartmentAppliedAt;
+            if (synced) {
+                updateGaps(version, since, seen);
+            } else {
+                // Superseded versions make the initial history look full of gaps
+                gaps.clear();
+            }
+            version = since;
+            synced = true;
+            lastSyncMillis = System.currentTimeMillis();
+            // Published only after the swap, so listeners reloading from the replica see the new state
+            managerChanges.forEach(eventPublisher::publishEvent);
+            log.info("User directory replica synced: {} users, {} departments at version {}",
+                    freshUsers.size(), freshDepartments.size(), since);
+        } catch (Exception e) {
+            log.warn("Could not sync user directory replica: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Whether the replica is complete and recent enough to answer list lookups.
+     */
+    public boolean isSynced() {
+        return synced && System.currentTimeMillis() - lastSyncMillis <= maxStaleness.toMillis();
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Whether neither the user nor any of the given departments, nor any
+     * department the user manages, has changed after {@code version} or been
+     * applied here at or after {@code issuedAt}. Returns {@code false}
+     * whenever the replica cannot tell, including while a version above
+     * {@code version} is still unseen.
+     */
+    public boolean isUnchangedSince(Long userId, Collection<Long> departmentIds, long version, Instant issuedAt) {
+        if (!isSynced() || this.version < version || gaps.higherKey(version) != null) {
+            return false;
+        }
+        long issuedAtMillis = issuedAt.toEpochMilli();
+        UserResponseDTO user = users.get(userId);
+        if (user == null || user.getChangeVersion() == null || user.getChangeVersion() > version
+                || appliedSince(userAppliedAt, userId, issuedAtMillis)) {
+            return false;
+        }
+        for (Long departmentId : departmentIds) {
+            DepartmentDTO department = departments.get(departmentId);
+            if (department == null || isNewer(department, version, issuedAtMillis)) {
+                return false;
+            }
+        }
+        for (DepartmentDTO department : departments.values()) {
+            if (Objects.equals(department.getManagerId(), userId) && isNewer(department, version, issuedAtMillis)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public UserResponseDTO getUser(Long userId) {
+        return userId == null ? null : users.get(userId);
+    }
+
+    public List<UserResponseDTO> getUsersByRole(String role) {
+        if (!isSynced()) {
+            return userInfoClient.getUsersByRole(role);
+        }
+        Role wanted = Role.valueOf(role.toUpperCase());
+        return users.values().stream()
+                .filter(user -> user.getRole() == wanted)
+                .sorted(Comparator.comparing(UserResponseDTO::getId))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Users having any of the given roles, in role order. When answering
+     * remotely the roles are fetched concurrently.
+     */
+    public List<UserResponseDTO> getUsersByRoles(Collection<String> roles) {
+        List<UserResponseDTO> result = new ArrayList<>();
+        if (!isSynced()) {
+            asyncUserInfoClient.fanOut(new LinkedHashSet<>(roles), asyncUserInfoClient::getUsersByRole)
+                    .values().forEach(result::addAll);
+            return result;
+        }
+        for (String role : new LinkedHashSet<>(roles)) {
+            result.addAll(getUsersByRole(role));
+        }
+        return result;
+    }
+
+    /**
+     * Ids of the users whose first name, last name or full name contains
+     * {@code text}, ignoring case.
+     */
+    public List<Long> findUserIdsByName(String text) {
+        String needle = text.trim().toLowerCase();
+        Collection<UserResponseDTO> candidates = isSynced() ? users.values()
+                : getUsersByRoles(Arrays.stream(Role.values()).map(Role::name).toList());
+        return candidates.stream()
+                .filter(user -> (user.getFirstName() + " " + user.getLastName()).toLowerCase().contains(needle))
+                .map(UserResponseDTO::getId)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    public List<UserResponseDTO> getTeamMembers(Long departmentId) {
+        if (!isSynced()) {
+            return userInfoClient.getTeamMembers(departmentId);
+        }
+        return membersOf(departmentId);
+    }
+
+    /**
+     * Members of each of the given departments. When answering remotely the
+     * departments are fetched concurrently.
+     */
+    public Map<Long, List<UserResponseDTO>> getTeamMembers(Collection<Long> departmentIds) {
+        if (!isSynced()) {
+            return asyncUserInfoClient.fanOut(new LinkedHashSet<>(departmentIds), asyncUserInfoClient::getTeamMembers);
+        }
+        Map<Long, List<UserResponseDTO>> result = new LinkedHashMap<>();
+        for (Long departmentId : departmentIds) {
+            result.put(departmentId, membersOf(departmentId));
+        }
+        return result;
+    }
+
+    public List<UserResponseDTO> getManagers(Long departmentId) {
+        if (!isSynced()) {
+            return userInfoClient.getManagers(departmentId);
+        }
+        return membersOf(departmentId).stream()
+                .filter(user -> user.getRole() == Role.MANAGER)
+                .collect(Collectors.toList());
+    }
+
+    public List<Long> getDepartmentsManaged(Long managerId) {
+        if (!isSynced()) {
+            return userInfoClient.getDepartmentsManaged(managerId);
+        }
+        return departments.values().stream()
+                .filter(department -> Objects.equals(department.getManagerId(), managerId))
+                .map(DepartmentDTO::getId)
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    public List<DepartmentDTO> getDepartments() {
+        if (!isSynced()) {
+            return userInfoClient.getDepartments();
+        }
+        Map<Long, List<UserSummaryDTO>> members = users.values().stream()
+                .filter(user -> user.getDepartmentId() != null)
+                .collect(Collectors.groupingBy(UserResponseDTO::getDepartmentId,
+                        Collectors.mapping(UserDirectoryReplica::toSummary, Collectors.toList())));
+        List<DepartmentDTO> result = new ArrayList<>(departments.size());
+        for (DepartmentDTO department : departments.values()) {
+            DepartmentDTO copy = new DepartmentDTO();
+            copy.setId(department.getId());
+            copy.setName(department.getName());
+            copy.setDescription(department.getDescription());
+            copy.setActive(department.isActive());
+            copy.setParentDepartmentId(department.getParentDepartmentId());
+            copy.setManagerId(department.getManagerId());
+            copy.setManagerName(department.getManagerName());
+            copy.setCreatedAt(department.getCreatedAt());
+            copy.setUpdatedAt(department.getUpdatedAt());
+            copy.setUsers(members.getOrDefault(department.getId(), List.of()));
+            result.add(copy);
+        }
+        result.sort(Comparator.comparing(DepartmentDTO::getId));
+        return result;
+    }
+
+    /**
+     * Users with their departments, managed departments and department
+     * managers. Answered locally when every user is in the replica, otherwise
+     * with a single remote call whose users are also put in the near-cache.
+     */
+    public RequestContextDTO getRequestContext(Collection<Long> userIds) {
+        List<Long> ids = userIds.stream().filter(Objects::nonNull).distinct().collect(Collectors.toList());
+        if (!isSynced() || !users.keySet().containsAll(ids)) {
+            RequestContextDTO context = userInfoClient.getRequestContext(ids);
+            if (context.getUsers() != null) {
+                context.getUsers().forEach(userDirectory::put);
+            }
+            return context;
+        }
+        RequestContextDTO context = new RequestContextDTO();
+        context.setDirectoryVersion(version);
+        List<UserResponseDTO> contextUsers = new ArrayList<>();
+        Map<Long, List<Long>> managedDepartmentIds = new LinkedHashMap<>();
+        Map<Long, DepartmentDTO> contextDepartments = new LinkedHashMap<>();
+        for (Long id : ids) {
+            UserResponseDTO user = users.get(id);
+            contextUsers.add(user);
+            List<Long> managed = getDepartmentsManaged(id);
+            managedDepartmentIds.put(id, managed);
+            for (Long departmentId : managed) {
+                contextDepartments.putIfAbsent(departmentId, departments.get(departmentId));
+            }
+            if (user.getDepartmentId() != null && departments.containsKey(user.getDepartmentId())) {
+                contextDepartments.putIfAbsent(user.getDepartmentId(), departments.get(user.getDepartmentId()));
+            }
+        }
+        Map<Long, List<UserResponseDTO>> departmentManagers = new LinkedHashMap<>();
+        for (Long departmentId : contextDepartments.keySet()) {
+            departmentManagers.put(departmentId, getManagers(departmentId));
+        }
+        context.setUsers(contextUsers);
+        context.setDepartments(new ArrayList<>(contextDepartments.values()));
+        context.setManagedDepartmentIds(managedDepartmentIds);
+        context.setDepartmentManagers(departmentManagers);
+        return context;
+    }
+
+    /**
+     * Closes the gaps filled by {@code seen}, opens one for every unseen
+     * version in {@code (previousVersion, highWater]} and drops the gaps that
+     * have been open for longer than {@code gap-timeout}.
+     */
+    private void updateGaps(long previousVersion, long highWater, Set<Long> seen) {
+        long now = System.currentTimeMillis();
+        seen.forEach(gaps::remove);
+        for (long v = previousVersion + 1; v <= highWater; v++) {
+            if (!seen.contains(v)) {
+                gaps.putIfAbsent(v, now);
+            }
+        }
+        int before = gaps.size();
+        gaps.values().removeIf(missedAt -> now - missedAt > gapTimeout.toMillis());
+        if (gaps.size() < before) {
+            log.debug("Gave up on {} directory versions that never became visible", before - gaps.size());
+        }
+    }
+
+    private static void collectVersions(DirectoryChangesDTO page, Set<Long> seen) {
+        if (page.getUsers() != null) {
+            for (UserResponseDTO user : page.getUsers()) {
+                if (user.getChangeVersion() != null) {
+                    seen.add(user.getChangeVersion());
+                }
+            }
+        }
+        if (page.getDepartments() != null) {
+            for (DepartmentDTO department : page.getDepartments()) {
+                if (department.getChangeVersion() != null) {
+                    seen.add(department.getChangeVersion());
+                }
+            }
+        }
+    }
+
+    private boolean isNewer(DepartmentDTO department, long version, long issuedAtMillis) {
+        return department.getChangeVersion() == null || department.getChangeVersion() > version
+                || appliedSince(departmentAppliedAt, department.getId(), issuedAtMillis);
+    }
+
+    private static boolean appliedSince(Map<Long, Long> appliedAt, Long id, long millis) {
+        Long applied = appliedAt.get(id);
+        return applied == null || applied >= millis;
+    }
+
+    private List<UserResponseDTO> membersOf(Long departmentId) {
+        return users.values().stream()
+                .filter(user -> Objects.equals(user.getDepartmentId(), departmentId))
+                .sorted(Comparator.comparing(UserResponseDTO::getId))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Stores the page into the target maps, stamping each entry with the time
+     * its version was first applied, and returns the manager changes relative
+     * to the current departments, for the caller to publish once the new state
+     * is visible.
+     */
+    private List<DepartmentManagerChangedEvent> apply(DirectoryChangesDTO page,
+            Map<Long, UserResponseDTO> targetUsers, Map<Long, Long> targetUserAppliedAt,
+            Map<Long, DepartmentDTO> targetDepartments, Map<Long, Long> targetDepartmentAppliedAt) {
+        long now = System.currentTimeMillis();
+        List<DepartmentManagerChangedEvent> managerChanges = new ArrayList<>();
+        if (page.getUsers() != null) {
+            for (UserResponseDTO user : page.getUsers()) {
+                UserResponseDTO previous = users.get(user.getId());
+                targetUserAppliedAt.put(user.getId(), previous != null
+                        && Objects.equals(previous.getChangeVersion(), user.getChangeVersion())
+                        ? userAppliedAt.getOrDefault(user.getId(), now) : now);
+                targetUsers.put(user.getId(), user);
+                userDirectory.put(user);
+            }
+        }
+        if (page.getDepartments() != null) {
+            for (DepartmentDTO department : page.getDepartments()) {
+                DepartmentDTO previous = departments.get(department.getId());
+                Long previousManagerId = previous != null ? previous.getManagerId() : null;
+                targetDepartmentAppliedAt.put(department.getId(), previous != null
+                        && Objects.equals(previous.getChangeVersion(), department.getChangeVersion())
+                        ? departmentAppliedAt.getOrDefault(department.getId(), now) : now);
+                targetDepartments.put(department.getId(), department);
+                if (!Objects.equals(previousManagerId, department.getManagerId())) {
+                    managerChanges.add(new DepartmentManagerChangedEvent(department.getId(),
+                            previousManagerId, department.getManagerId()));
+                }
+            }
+        }
+        return managerChanges;
+    }
+
+    private static UserSummaryDTO toSummary(UserResponseDTO user) {
+        UserSummaryDTO summary = new UserSummaryDTO();
+        summary.setId(user.getId());
+        summary.setFirstName(user.getFirstName());
+        summary.setLastName(user.getLastName());
+        summary.setEmail(user.getEmail());
+        return summary;
+    }
+}
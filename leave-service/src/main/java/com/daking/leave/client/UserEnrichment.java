@@ -0,0 +1,98 @@
+package com.daking.leave.client;
+
+import com.daking.auth.api.dto.UserResponseDTO;
+import com.daking.leave.repository.IdBatches;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * Batch enrichment stage for result lists that carry user ids.
+ * <p>
+ * The distinct user ids of all rows are resolved up front through the
+ * {@link UserDirectory}, one bulk lookup per chunk of
+ * {@code app.lookup.batch-size} ids (see {@link IdBatches}), and rows are then mapped against
+ * the resulting map. A list therefore costs a constant number of remote calls
+ * however many rows it has.
+ */
+@Component
+@Slf4j
+public class UserEnrichment {
+
+    private final UserDirectory userDirectory;
+    private final IdBatches idBatches;
+
+    public UserEnrichment(UserDirectory userDirectory, IdBatches idBatches) {
+        this.userDirectory = userDirectory;
+        this.idBatches = idBatches;
+    }
+
+    /**
+     * Resolves the users referenced by the given rows. Users that could not be
+     * resolved are absent from the returned map.
+     */
+    public <T> Map<Long, UserResponseDTO> resolve(Collection<? extends T> rows,
+            Function<? super T, Long> userIdOf) {
+        if (rows == null || rows.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> userIds = new ArrayList<>(rows.size());
+        for (T row : rows) {
+            userIds.add(userIdOf.apply(row));
+        }
+        return resolveIds(userIds);
+    }
+
+    /**
+     * Resolves the given user ids, chunked into bulk lookups. A failing chunk
+     * is logged and skipped so that the rows can still be returned without
+     * names.
+     */
+    public Map<Long, UserResponseDTO> resolveIds(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return Map.of();
+        }
+        Set<Long> distinct = new LinkedHashSet<>();
+        for (Long userId : userIds) {
+            if (userId != null) {
+                distinct.add(userId);
+            }
+        }
+        List<Long> ids = new ArrayList<>(distinct);
+        Map<Long, UserResponseDTO> users = new HashMap<>(ids.size() * 2);
+        for (List<Long> chunk : idBatches.chunks(ids)) {
+            try {
+                users.putAll(userDirectory.getUsersByIds(chunk));
+            } catch (Exception e) {
+                log.warn("Could not resolve {} users for enrichment: {}", chunk.size(), e.getMessage());
+            }
+        }
+        return users;
+    }
+
+    /**
+     * Maps each row together with its resolved user, or {@code null} when the
+     * user is unknown.
+     */
+    public <T, R> List<R> enrich(List<? extends T> rows, Function<? super T, Long> userIdOf,
+            BiFunction<? super T, UserResponseDTO, ? extends R> mapper) {
+        Map<Long, UserResponseDTO> users = resolve(rows, userIdOf);
+        List<R> result = new ArrayList<>(rows == null ? 0 : rows.size());
+        if (rows != null) {
+            for (T row : rows) {
+                Long userId = userIdOf.apply(row);
+                result.add(mapper.apply(row, userId == null ? null : users.get(userId)));
+            }
+        }
+        return result;
+    }
+}
@@ -3,11 +3,18 @@ package com.daking.leave.client;
 import com.daking.auth.api.service.UserInfoApi;
 import org.springframework.cloud.openfeign.FeignClient;
 
-@FeignClient(name = "auth-service", configuration = UserInfoFeignConfig.class)
+@FeignClient(name = "auth-service", configuration = UserInfoFeignConfig.class, primary = false,
+        qualifiers = UserInfoClient.REMOTE)
 public interface UserInfoClient extends UserInfoApi {
         // This interface intentionally left blank.
         // It inherits all endpoint definitions from UserInfoApi.
         // The Feign client will automatically create implementations for them.
         // The Authorization header is handled by the RequestInterceptor in
-        // UserInfoFeignConfig.
-}
\ No newline at end of file
+        // UserInfoFeignConfig. Callers get CoalescingUserInfoClient, which is
+        // primary and wraps ResilientUserInfoClient (RESILIENT), which in turn
+        // wraps the Feign client registered under REMOTE.
+
+        String REMOTE = "remoteUserInfoClient";
+
+        String RESILIENT = "resilientUserInfoClient";
+}
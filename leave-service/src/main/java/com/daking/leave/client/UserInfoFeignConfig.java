@@ -18,6 +18,10 @@ public class UserInfoFeignConfig {
         return new RequestInterceptor() {
             @Override
             public void apply(RequestTemplate template) {
+                // The interceptor is global; the login call itself must not ask for a token
+                if (template.feignTarget() != null && AuthClient.NAME.equals(template.feignTarget().name())) {
+                    return;
+                }
                 String token = serviceAccountTokenProvider.getToken();
                 if (token != null) {
                     template.header("Authorization", "Bearer " + token);
@@ -0,0 +1,27 @@
+package com.daking.leave.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+/**
+ * {@link RestTemplate} for calls to external HTTP APIs, such as the public
+ * holiday import. Calls to other services go through Feign clients.
+ */
+@Configuration
+public class RestTemplateConfig {
+
+    @Bean
+    public RestTemplate restTemplate(RestTemplateBuilder builder,
+            @Value("${app.http.connect-timeout:PT2S}") Duration connectTimeout,
+            @Value("${app.http.read-timeout:PT10S}") Duration readTimeout) {
+        return builder
+                .setConnectTimeout(connectTimeout)
+                .setReadTimeout(readTimeout)
+                .build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.daking.leave.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+
+/**
+ * Hit ratios of the Hibernate second-level cache, next to the hit and miss
+ * counters Spring Boot publishes under {@code hibernate.second.level.cache.*}
+ * and {@code hibernate.query.cache.*}.
+ * <p>
+ * Metrics: {@code hibernate.second.level.cache.hit.ratio} per region and
+ * {@code hibernate.query.cache.hit.ratio}. Both stay at 0 unless
+ * {@code hibernate.generate_statistics} is on.
+ */
+@Component
+public class SecondLevelCacheMetrics {
+
+    public SecondLevelCacheMetrics(EntityManagerFactory entityManagerFactory, MeterRegistry meterRegistry) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            Gauge.builder("hibernate.second.level.cache.hit.ratio", statistics,
+                    stats -> regionHitRatio(stats.getCacheRegionStatistics(region)))
+                    .description("Share of second-level cache lookups served from the region")
+                    .tag("region", region)
+                    .register(meterRegistry);
+        }
+        Gauge.builder("hibernate.query.cache.hit.ratio", statistics,
+                stats -> ratio(stats.getQueryCacheHitCount(), stats.getQueryCacheMissCount()))
+                .description("Share of cacheable query executions served from the query cache")
+                .register(meterRegistry);
+    }
+
+    private static double regionHitRatio(CacheRegionStatistics region) {
+        return region == null ? 0.0 : ratio(region.getHitCount(), region.getMissCount());
+    }
+
+    private static double ratio(long hits, long misses) {
+        return hits + misses == 0 ? 0.0 : (double) hits / (hits + misses);
+    }
+}
@@ -2,11 +2,12 @@ package com.daking.leave.controller;
 
 import com.daking.auth.api.dto.DepartmentDTO;
 import com.daking.auth.api.dto.UserResponseDTO;
-import com.daking.leave.client.UserInfoClient;
+import com.daking.leave.budget.QueryBudget;
+import com.daking.leave.client.UserDirectoryReplica;
 import com.daking.leave.exception.DashboardStatsException;
 import com.daking.leave.model.Leave;
-import com.daking.leave.repository.LeaveRepository;
 import com.daking.leave.repository.LeaveTypeRepository;
+import com.daking.leave.repository.LeaveUsageRollupRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -24,9 +25,9 @@ import java.util.Map;
 @RequiredArgsConstructor
 @Slf4j
 public class DashboardController {
-    private final UserInfoClient userInfoClient;
+    private final UserDirectoryReplica userDirectoryReplica;
     private final LeaveTypeRepository leaveTypeRepository;
-    private final LeaveRepository leaveRepository;
+    private final LeaveUsageRollupRepository leaveUsageRollupRepository;
 
     /**
      * Get dashboard statistics for admin users
@@ -36,16 +37,17 @@ public class DashboardController {
      */
     @GetMapping("/dashboard-stats")
     @PreAuthorize("hasRole('ADMIN')")
+    @QueryBudget(statements = 2)
     public ResponseEntity<Map<String, Object>> getDashboardStats() {
         log.info("Fetching dashboard statistics for admin");
 
         try {
             // Get users by role (no token needed - handled by Feign client)
-            List<UserResponseDTO> users = userInfoClient.getUsersByRole("STAFF");
+            List<UserResponseDTO> users = userDirectoryReplica.getUsersByRole("STAFF");
             log.debug("Retrieved {} staff users", users.size());
 
             // Get departments (no token needed - handled by Feign client)
-            List<DepartmentDTO> departments = userInfoClient.getDepartments();
+            List<DepartmentDTO> departments = userDirectoryReplica.getDepartments();
             log.debug("Retrieved {} departments", departments.size());
 
             // Get leave type count
@@ -53,7 +55,7 @@ public class DashboardController {
             log.debug("Retrieved {} leave types", leaveTypeCount);
 
             // Get active leave requests count
-            long activeLeaveRequests = leaveRepository.countByStatus(Leave.LeaveStatus.PENDING);
+            long activeLeaveRequests = leaveUsageRollupRepository.sumRequestsByStatus(Leave.LeaveStatus.PENDING);
             log.debug("Retrieved {} active leave requests", activeLeaveRequests);
 
             // Build response
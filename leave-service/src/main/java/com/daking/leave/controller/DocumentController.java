@@ -1,13 +1,14 @@
 package com.daking.leave.controller;
 
+import com.daking.leave.budget.QueryBudget;
 import com.daking.leave.dto.response.DocumentResponse;
 import com.daking.leave.service.interfaces.DocumentService;
-import com.daking.auth.api.dto.UserResponseDTO;
-import com.daking.leave.client.UserInfoClient;
 import com.daking.leave.model.Document;
+import com.daking.leave.security.JwtPrincipal;
 import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
 import org.springframework.http.HttpHeaders;
@@ -29,32 +30,32 @@ import java.util.List;
 @Slf4j
 public class DocumentController {
     private final DocumentService documentService;
-    private final UserInfoClient userInfoClient;
+
+    @Value("${app.document.upload.dir:./uploads/documents}")
+    private String uploadDir;
 
     /**
      * Upload a document for the current user
      */
     @PostMapping("/upload")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<DocumentResponse> uploadDocument(@AuthenticationPrincipal String userEmail,
+    @QueryBudget(statements = 2, remoteCalls = 1)
+    public ResponseEntity<DocumentResponse> uploadDocument(
+            @AuthenticationPrincipal JwtPrincipal principal,
             @RequestParam("file") @NotNull MultipartFile file) {
-        log.info("Received upload request: userEmail={}, fileName={}, size={}", userEmail,
-                file != null ? file.getOriginalFilename() : null, file != null ? file.getSize() : null);
-        if (userEmail == null) {
+        if (principal == null) {
             return ResponseEntity.status(401).build();
         }
+        Long userId = principal.getUserId();
+        log.info("Received upload request: userId={}, fileName={}, size={}", userId,
+                file != null ? file.getOriginalFilename() : null, file != null ? file.getSize() : null);
         try {
-            // Lookup user by email (no token needed)
-            UserResponseDTO user = userInfoClient.getUserByEmail(userEmail);
-            if (user == null) {
-                log.warn("User not found for email: {}", userEmail);
-                return ResponseEntity.status(404).build();
-            }
-            DocumentResponse response = documentService.uploadDocument(user.getId(), file);
-            log.info("Document uploaded successfully for user {}", user.getId());
+            // The principal is the user id; no directory lookup is needed
+            DocumentResponse response = documentService.uploadDocument(userId, file);
+            log.info("Document uploaded successfully for user {}", userId);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
-            log.error("Failed to upload document for user {}: {}", userEmail, e.getMessage(), e);
+            log.error("Failed to upload document for user {}: {}", userId, e.getMessage(), e);
             return ResponseEntity.status(500).build();
         }
     }
@@ -63,7 +64,8 @@ public class DocumentController {
      * Get a document by its ID
      */
     @GetMapping("/{id}")
-    @PreAuthorize("hasAnyRole('MANAGER','ADMIN') or @documentSecurity.isOwner(#id, principal)")
+    @PreAuthorize("hasAnyRole('MANAGER','ADMIN') or @documentSecurity.isOwner(#id, principal.username)")
+    @QueryBudget(statements = 2, remoteCalls = 1)
     public ResponseEntity<DocumentResponse> getDocumentById(@PathVariable Long id) {
         try {
             DocumentResponse response = documentService.getDocumentById(id);
@@ -78,7 +80,8 @@ public class DocumentController {
      * Get all documents for a user
      */
     @GetMapping("/user/{userId}")
-    @PreAuthorize("hasAnyRole('MANAGER','ADMIN') or #userId == principal")
+    @PreAuthorize("hasAnyRole('MANAGER','ADMIN') or #userId == principal.username")
+    @QueryBudget(statements = 2, remoteCalls = 1)
     public ResponseEntity<List<DocumentResponse>> getDocumentsByUser(@PathVariable Long userId) {
         try {
             List<DocumentResponse> docs = documentService.getDocumentsByUser(userId);
@@ -93,10 +96,11 @@ public class DocumentController {
      * Download a document file by filename
      */
     @GetMapping("/download/{filename}")
-    @PreAuthorize("hasAnyRole('MANAGER','ADMIN') or @documentSecurity.canAccessFile(#filename, principal)")
+    @PreAuthorize("hasAnyRole('MANAGER','ADMIN') or @documentSecurity.canAccessFile(#filename, principal.username)")
+    @QueryBudget(statements = 2, remoteCalls = 1)
     public ResponseEntity<Resource> downloadDocument(@PathVariable String filename) {
         try {
-            Path filePath = Paths.get("./uploads/documents").resolve(filename).normalize();
+            Path filePath = Paths.get(uploadDir).resolve(filename).normalize();
             Resource resource = new UrlResource(filePath.toUri());
             if (!resource.exists()) {
                 log.warn("File not found: {}", filename);
@@ -131,6 +135,7 @@ public class DocumentController {
      */
     @PostMapping("/{id}/approve")
     @PreAuthorize("hasAnyRole('MANAGER','ADMIN')")
+    @QueryBudget(statements = 3, remoteCalls = 1)
     public ResponseEntity<DocumentResponse> approveDocument(@PathVariable Long id) {
         try {
             DocumentResponse doc = documentService.updateDocumentStatus(id, "APPROVED");
@@ -146,6 +151,7 @@ public class DocumentController {
      */
     @PostMapping("/{id}/reject")
     @PreAuthorize("hasAnyRole('MANAGER','ADMIN')")
+    @QueryBudget(statements = 3, remoteCalls = 1)
     public ResponseEntity<DocumentResponse> rejectDocument(@PathVariable Long id) {
         try {
             DocumentResponse doc = documentService.updateDocumentStatus(id, "REJECTED");
@@ -161,6 +167,7 @@ public class DocumentController {
      */
     @GetMapping("/my-documents")
     @PreAuthorize("hasAnyRole('MANAGER','ADMIN')")
+    @QueryBudget(statements = 2, remoteCalls = 1)
     public ResponseEntity<List<DocumentResponse>> getMyDocuments(@RequestParam Long userId) {
         try {
             List<DocumentResponse> docs = documentService.getDocumentsByUserId(userId);
@@ -175,7 +182,8 @@ public class DocumentController {
      * Legacy support: /api/documents/leave/{id} -> /api/documents/{id}
      */
     @GetMapping("/leave/{id}")
-    @PreAuthorize("hasAnyRole('MANAGER','ADMIN') or @documentSecurity.isOwner(#id, principal)")
+    @PreAuthorize("hasAnyRole('MANAGER','ADMIN') or @documentSecurity.isOwner(#id, principal.username)")
+    @QueryBudget(statements = 2, remoteCalls = 1)
     public ResponseEntity<DocumentResponse> getDocumentByIdLegacy(@PathVariable Long id) {
         return getDocumentById(id);
     }
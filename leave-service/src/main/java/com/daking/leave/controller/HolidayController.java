@@ -1,5 +1,6 @@
 package com.daking.leave.controller;
 
+import com.daking.leave.budget.QueryBudget;
 import com.daking.leave.dto.response.HolidayResponse;
 import com.daking.leave.service.interfaces.HolidayService;
 import lombok.RequiredArgsConstructor;
@@ -21,11 +22,13 @@ public class HolidayController {
     private static final Logger logger = LoggerFactory.getLogger(HolidayController.class);
 
     @GetMapping
+    @QueryBudget(statements = 1)
     public ResponseEntity<List<HolidayResponse>> getAllHolidays() {
         return ResponseEntity.ok(holidayService.getAllHolidays());
     }
 
     @GetMapping("/range")
+    @QueryBudget(statements = 1)
     public ResponseEntity<List<HolidayResponse>> getHolidaysInRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate start,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate end) {
@@ -34,12 +37,14 @@ public class HolidayController {
 
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
+    @QueryBudget(statements = 3)
     public ResponseEntity<HolidayResponse> addHoliday(@RequestBody HolidayResponse holiday) {
         return ResponseEntity.ok(holidayService.addHoliday(holiday));
     }
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
+    @QueryBudget(statements = 3)
     public ResponseEntity<Void> deleteHoliday(@PathVariable Long id) {
         holidayService.deleteHoliday(id);
         return ResponseEntity.noContent().build();
@@ -47,6 +52,7 @@ public class HolidayController {
 
     @PostMapping("/import-public-holidays")
     @PreAuthorize("hasRole('ADMIN')")
+    @QueryBudget(statements = 3)
     public ResponseEntity<?> importUSPublicHolidays(@RequestParam int year) {
         logger.info("Received request to import US public holidays for year {}", year);
         holidayService.importUSPublicHolidays(year);
@@ -1,158 +1,72 @@
 package com.daking.leave.controller;
 
-import com.daking.leave.repository.LeaveRepository;
-import com.daking.leave.repository.LeaveBalanceRepository;
-import com.daking.leave.client.UserInfoClient;
+import com.daking.leave.budget.QueryBudget;
+import com.daking.leave.service.LeaveUsageRollupService;
+import com.daking.leave.service.interfaces.AnalyticsService;
+import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.http.ResponseEntity;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.ArrayList;
-import java.util.stream.Collectors;
-import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api/leave-analytics")
+@RequiredArgsConstructor
 public class LeaveAnalyticsController {
-    private final LeaveRepository leaveRepository;
-    private final LeaveBalanceRepository leaveBalanceRepository;
-    private final UserInfoClient userInfoClient;
-
-    public LeaveAnalyticsController(LeaveRepository leaveRepository, LeaveBalanceRepository leaveBalanceRepository,
-            UserInfoClient userInfoClient) {
-        this.leaveRepository = leaveRepository;
-        this.leaveBalanceRepository = leaveBalanceRepository;
-        this.userInfoClient = userInfoClient;
-    }
+    private final AnalyticsService analyticsService;
+    private final LeaveUsageRollupService leaveUsageRollupService;
 
     @GetMapping("/department-distribution")
     @PreAuthorize("hasAnyRole('ADMIN','MANAGER')")
+    @QueryBudget(statements = 3)
     public ResponseEntity<Map<String, Object>> getDepartmentDistribution(@RequestParam(required = false) Integer year,
             @RequestParam(required = false) Long departmentId) {
-        List<com.daking.auth.api.dto.UserResponseDTO> users = userInfoClient.getUsersByRole("STAFF");
-        Map<String, Object> result = new HashMap<>();
-        if (users == null || users.isEmpty())
-            return ResponseEntity.ok(result);
-        for (com.daking.auth.api.dto.UserResponseDTO user : users) {
-            if (departmentId != null
-                    && (user.getDepartmentId() == null || !user.getDepartmentId().equals(departmentId)))
-                continue;
-            String deptName = (user.getDepartmentId() != null) ? ("Department " + user.getDepartmentId()) : "Unknown";
-            List<com.daking.leave.model.LeaveBalance> balances = leaveBalanceRepository.findByUserId(user.getId());
-            double total = 0, used = 0, remaining = 0;
-            for (com.daking.leave.model.LeaveBalance b : balances) {
-                if (year == null || b.getYear() == year) {
-                    total += b.getTotalDays();
-                    used += b.getUsedDays();
-                    remaining += b.getRemainingDays();
-                }
-            }
-            Object statsObj = result.getOrDefault(deptName, new HashMap<String, Object>());
-            @SuppressWarnings("unchecked")
-            Map<String, Object> stats = (statsObj instanceof Map) ? (Map<String, Object>) statsObj : new HashMap<>();
-            stats.put("usedDays", ((double) stats.getOrDefault("usedDays", 0.0)) + used);
-            stats.put("totalDays", ((double) stats.getOrDefault("totalDays", 0.0)) + total);
-            stats.put("remainingDays", ((double) stats.getOrDefault("remainingDays", 0.0)) + remaining);
-            result.put(deptName, stats);
-        }
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(analyticsService.getDepartmentDistribution(year, departmentId));
     }
 
     @GetMapping("/usage-trends")
     @PreAuthorize("hasAnyRole('ADMIN','MANAGER')")
+    @QueryBudget(statements = 1)
     public ResponseEntity<Map<String, Object>> getUsageTrends(@RequestParam Integer year,
             @RequestParam String interval) {
-        Map<String, Object> result = new HashMap<>();
-        List<com.daking.leave.model.Leave> leaves = leaveRepository.findAllWithType();
-        if ("MONTHLY".equalsIgnoreCase(interval)) {
-            for (int m = 1; m <= 12; m++) {
-                int month = m;
-                double sum = leaves.stream()
-                        .filter(l -> l.getStartDate().getYear() == year && l.getStartDate().getMonthValue() == month)
-                        .mapToDouble(com.daking.leave.model.Leave::getTotalDays).sum();
-                result.put(java.time.Month.of(month).name().substring(0, 3), sum);
-            }
-        } else if ("QUARTERLY".equalsIgnoreCase(interval)) {
-            for (int q = 1; q <= 4; q++) {
-                int startMonth = (q - 1) * 3 + 1;
-                int endMonth = startMonth + 2;
-                double sum = leaves.stream()
-                        .filter(l -> l.getStartDate().getYear() == year &&
-                                l.getStartDate().getMonthValue() >= startMonth &&
-                                l.getStartDate().getMonthValue() <= endMonth)
-                        .mapToDouble(com.daking.leave.model.Leave::getTotalDays).sum();
-                result.put("Q" + q, sum);
-            }
-        }
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(analyticsService.getUsageTrends(year, interval));
     }
 
     @GetMapping("/balance-alerts")
     @PreAuthorize("hasAnyRole('ADMIN','MANAGER')")
+    @QueryBudget(statements = 1, remoteCalls = 1)
     public ResponseEntity<List<Map<String, Object>>> getBalanceAlerts(
             @RequestParam(required = false) Long departmentId) {
-        List<Map<String, Object>> alerts = new ArrayList<>();
-        List<com.daking.leave.model.LeaveBalance> balances = leaveBalanceRepository.findAllWithType();
-        List<Long> userIds = balances.stream().map(com.daking.leave.model.LeaveBalance::getUserId).distinct()
-                .collect(Collectors.toList());
-        Map<Long, com.daking.auth.api.dto.UserResponseDTO> userMap = userInfoClient.getUsersByIds(userIds).stream()
-                .collect(Collectors.toMap(com.daking.auth.api.dto.UserResponseDTO::getId, Function.identity()));
-
-        for (com.daking.leave.model.LeaveBalance b : balances) {
-            if (b.getRemainingDays() < 3) {
-                com.daking.auth.api.dto.UserResponseDTO user = userMap.get(b.getUserId());
-                if (departmentId != null && (user == null || user.getDepartmentId() == null
-                        || !user.getDepartmentId().equals(departmentId)))
-                    continue;
-                Map<String, Object> alert = new HashMap<>();
-                alert.put("userName", user != null ? user.getFullName() : "Unknown");
-                alert.put("department",
-                        user != null && user.getDepartmentId() != null ? ("Department " + user.getDepartmentId())
-                                : "Unknown");
-                alert.put("leaveType", b.getLeaveType().getName());
-                alert.put("remainingDays", b.getRemainingDays());
-                alerts.add(alert);
-            }
-        }
-        return ResponseEntity.ok(alerts);
+        return ResponseEntity.ok(analyticsService.getBalanceAlerts(departmentId));
     }
 
     @GetMapping("/ytd-consumption")
     @PreAuthorize("hasAnyRole('ADMIN','MANAGER')")
+    @QueryBudget(statements = 1)
     public ResponseEntity<Map<String, Object>> getYtdConsumption(@RequestParam Integer year) {
-        Map<String, Object> result = new HashMap<>();
-        List<com.daking.leave.model.Leave> leaves = leaveRepository.findAllWithType();
-        leaves.stream()
-                .filter(l -> l.getStartDate().getYear() == year)
-                .collect(Collectors.groupingBy(l -> l.getLeaveType().getName(),
-                        Collectors.summingDouble(com.daking.leave.model.Leave::getTotalDays)))
-                .forEach(result::put);
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(analyticsService.getYtdConsumption(year));
     }
 
     @GetMapping("/carryover-stats")
     @PreAuthorize("hasAnyRole('ADMIN','MANAGER')")
+    @QueryBudget(statements = 1, remoteCalls = 1)
     public ResponseEntity<Map<String, Object>> getCarryoverStats(@RequestParam Integer year) {
-        Map<String, Object> result = new HashMap<>();
-        List<com.daking.leave.model.LeaveBalance> balances = leaveBalanceRepository.findAllWithType();
-        List<Long> userIds = balances.stream().map(com.daking.leave.model.LeaveBalance::getUserId).distinct()
-                .collect(Collectors.toList());
-        Map<Long, com.daking.auth.api.dto.UserResponseDTO> userMap = userInfoClient.getUsersByIds(userIds).stream()
-                .collect(Collectors.toMap(com.daking.auth.api.dto.UserResponseDTO::getId, Function.identity()));
-        for (com.daking.leave.model.LeaveBalance b : balances) {
-            if (b.getYear() != year)
-                continue;
-            com.daking.auth.api.dto.UserResponseDTO user = userMap.get(b.getUserId());
-            String dept = user != null && user.getDepartmentId() != null ? ("Department " + user.getDepartmentId())
-                    : "Unknown";
-            double carry = b.getCarriedOverDays();
-            result.put(dept, ((double) result.getOrDefault(dept, 0.0)) + carry);
-        }
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(analyticsService.getCarryoverStats(year));
+    }
+
+    /**
+     * Recomputes the leave usage rollup behind the analytics endpoints from
+     * the leaves table.
+     */
+    @PostMapping("/rollup/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    @QueryBudget(statements = 3)
+    public ResponseEntity<Map<String, Object>> rebuildUsageRollup() {
+        return ResponseEntity.ok(Map.of("buckets", leaveUsageRollupService.rebuild()));
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,7 @@
 package com.daking.leave.controller;
 
+import com.daking.leave.batch.BatchJobResult;
+import com.daking.leave.budget.QueryBudget;
 import com.daking.leave.dto.request.LeaveBalanceAdjustmentRequest;
 import com.daking.leave.dto.request.BulkAdjustRequest;
 import com.daking.leave.dto.response.LeaveBalanceResponse;
@@ -25,6 +27,7 @@ public class LeaveBalanceController {
     // Get leave balances for user
     @GetMapping("/user/{userId}")
     @PreAuthorize("hasAnyRole('MANAGER','ADMIN') or #userId == principal.username")
+    @QueryBudget(statements = 1, remoteCalls = 1)
     public ResponseEntity<List<LeaveBalanceResponse>> getLeaveBalancesByUser(@PathVariable Long userId) {
         return ResponseEntity.ok(leaveBalanceService.getLeaveBalancesByUser(userId));
     }
@@ -32,8 +35,9 @@ public class LeaveBalanceController {
     // Get my leave balances
     @GetMapping("/me")
     @PreAuthorize("isAuthenticated()")
+    @QueryBudget(statements = 1, remoteCalls = 1)
     public ResponseEntity<List<LeaveBalanceResponse>> getMyLeaveBalances(
-            @AuthenticationPrincipal String userIdStr) {
+            @AuthenticationPrincipal(expression = "username") String userIdStr) {
         // userIdStr is userId as string (see JwtAuthenticationFilter)
         if (userIdStr == null) {
             return ResponseEntity.status(401).build();
@@ -50,6 +54,7 @@ public class LeaveBalanceController {
     // Adjust leave balance (admin only)
     @PostMapping("/adjust")
     @PreAuthorize("hasAnyRole('ADMIN','MANAGER')")
+    @QueryBudget(statements = 4, remoteCalls = 1)
     public ResponseEntity<LeaveBalanceResponse> adjustLeaveBalance(
             @Valid @RequestBody LeaveBalanceAdjustmentRequest request) {
         return ResponseEntity.ok(leaveBalanceService.adjustLeaveBalance(request));
@@ -58,6 +63,7 @@ public class LeaveBalanceController {
     // Get leave balance for user/type/year
     @GetMapping("/user/{userId}/type/{leaveTypeId}/year/{year}")
     @PreAuthorize("hasAnyRole('MANAGER','ADMIN') or #userId == principal.username")
+    @QueryBudget(statements = 2)
     public ResponseEntity<LeaveBalanceResponse> getLeaveBalance(@PathVariable Long userId,
             @PathVariable Long leaveTypeId,
             @PathVariable Integer year) {
@@ -66,6 +72,7 @@ public class LeaveBalanceController {
 
     @PostMapping("/bulk-adjust")
     @PreAuthorize("hasRole('ADMIN')")
+    @QueryBudget(statements = 5)
     public ResponseEntity<Void> bulkAdjustLeaveBalances(@RequestBody BulkAdjustRequest request) {
         leaveBalanceService.bulkAdjustLeaveBalances(request.getUserIds(), request.getLeaveTypeId(),
                 request.getAdjustmentDays(), request.getReason());
@@ -74,6 +81,7 @@ public class LeaveBalanceController {
 
     @GetMapping("/bulk")
     @PreAuthorize("hasAnyRole('MANAGER','ADMIN')")
+    @QueryBudget(statements = 1)
     public ResponseEntity<Map<Long, List<LeaveBalanceResponse>>> getBulkLeaveBalances(
             @RequestParam("userIds") String userIds) {
         List<Long> ids = java.util.Arrays.stream(userIds.split(","))
@@ -81,17 +89,32 @@ public class LeaveBalanceController {
                 .filter(s -> !s.isEmpty())
                 .map(Long::parseLong)
                 .toList();
-        Map<Long, List<LeaveBalanceResponse>> result = new java.util.HashMap<>();
-        for (Long id : ids) {
-            result.put(id, leaveBalanceService.getLeaveBalancesByUser(id));
-        }
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok(leaveBalanceService.getBulkLeaveBalances(ids));
     }
 
     @PostMapping("/initialize")
     @PreAuthorize("hasRole('ADMIN')")
+    @QueryBudget(statements = 1)
     public ResponseEntity<String> initializeMissingLeaveBalances() {
         int created = leaveBalanceService.initializeMissingLeaveBalances();
         return ResponseEntity.ok("Initialized " + created + " missing leave balances for the current year.");
     }
-}
\ No newline at end of file
+
+    // Runs the monthly accrual now, or resumes a run that did not complete.
+    // The budget holds for one chunk of users; each further chunk adds four statements.
+    @PostMapping("/jobs/monthly-accrual")
+    @PreAuthorize("hasRole('ADMIN')")
+    @QueryBudget(statements = 12)
+    public ResponseEntity<BatchJobResult> runMonthlyAccrual() {
+        return ResponseEntity.ok(leaveBalanceService.runMonthlyAccrual());
+    }
+
+    // Runs the annual carry-over now, or resumes a run that did not complete.
+    // The budget holds for one chunk of users; each further chunk adds six statements.
+    @PostMapping("/jobs/carry-over")
+    @PreAuthorize("hasRole('ADMIN')")
+    @QueryBudget(statements = 14)
+    public ResponseEntity<BatchJobResult> runCarryOver() {
+        return ResponseEntity.ok(leaveBalanceService.runCarryOver());
+    }
+}
@@ -1,15 +1,29 @@
 package com.daking.leave.controller;
 
+import com.daking.leave.budget.QueryBudget;
 import com.daking.leave.dto.request.LeaveApplicationRequest;
 import com.daking.leave.dto.request.LeaveApprovalRequest;
+import com.daking.leave.dto.request.LeaveQueryRequest;
+import com.daking.leave.dto.response.LeavePageResponse;
 import com.daking.leave.dto.response.LeaveResponse;
+import com.daking.leave.security.JwtPrincipal;
 import com.daking.leave.service.interfaces.LeaveService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.HashMap;
 import java.util.Map;
@@ -18,72 +32,87 @@ import java.util.Map;
 @RequestMapping("/api/leaves")
 @RequiredArgsConstructor
 public class LeaveController {
+    private static final String NDJSON = "application/x-ndjson";
+
     private final LeaveService leaveService;
+    private final ObjectMapper objectMapper;
 
     // Apply for leave
     @PostMapping
     @PreAuthorize("hasAnyRole('STAFF','EMPLOYEE')")
-    public ResponseEntity<LeaveResponse> applyForLeave(@AuthenticationPrincipal String userIdStr,
+    @QueryBudget(statements = 10, remoteCalls = 1)
+    public ResponseEntity<LeaveResponse> applyForLeave(@AuthenticationPrincipal JwtPrincipal principal,
             @Valid @RequestBody LeaveApplicationRequest request) {
-        if (userIdStr == null) {
+        if (principal == null) {
             return ResponseEntity.status(401).build();
         }
-        return ResponseEntity.ok(leaveService.applyForLeave(userIdStr, request));
+        return ResponseEntity.ok(leaveService.applyForLeave(principal, request));
     }
 
     // Approve leave
     @PostMapping("/{leaveId}/approve")
     @PreAuthorize("hasAnyRole('MANAGER','ADMIN')")
+    @QueryBudget(statements = 9, remoteCalls = 1)
     public ResponseEntity<LeaveResponse> approveLeave(@PathVariable Long leaveId,
-            @AuthenticationPrincipal String approverEmail,
+            @AuthenticationPrincipal JwtPrincipal approver,
             @Valid @RequestBody LeaveApprovalRequest request) {
-        if (approverEmail == null) {
+        if (approver == null) {
             return ResponseEntity.status(401).build();
         }
-        return ResponseEntity.ok(leaveService.approveLeave(leaveId, approverEmail, request));
+        return ResponseEntity.ok(leaveService.approveLeave(leaveId, approver, request));
     }
 
     // Reject leave
     @PostMapping("/{leaveId}/reject")
     @PreAuthorize("hasAnyRole('MANAGER','ADMIN')")
+    @QueryBudget(statements = 10, remoteCalls = 1)
     public ResponseEntity<LeaveResponse> rejectLeave(@PathVariable Long leaveId,
-            @AuthenticationPrincipal String approverEmail,
+            @AuthenticationPrincipal JwtPrincipal approver,
             @Valid @RequestBody LeaveApprovalRequest request) {
-        if (approverEmail == null) {
+        if (approver == null) {
             return ResponseEntity.status(401).build();
         }
-        return ResponseEntity.ok(leaveService.rejectLeave(leaveId, approverEmail, request));
+        return ResponseEntity.ok(leaveService.rejectLeave(leaveId, approver, request));
     }
 
     // Cancel leave
     @PostMapping("/{leaveId}/cancel")
     @PreAuthorize("isAuthenticated()")
+    @QueryBudget(statements = 8, remoteCalls = 1)
     public ResponseEntity<LeaveResponse> cancelLeave(@PathVariable Long leaveId,
-            @AuthenticationPrincipal String userEmail) {
-        if (userEmail == null) {
+            @AuthenticationPrincipal JwtPrincipal principal) {
+        if (principal == null) {
             return ResponseEntity.status(401).build();
         }
-        return ResponseEntity.ok(leaveService.cancelLeave(leaveId, userEmail));
+        return ResponseEntity.ok(leaveService.cancelLeave(leaveId, principal));
     }
 
     // Get leave by ID
     @GetMapping("/{leaveId}")
     @PreAuthorize("isAuthenticated()")
+    @QueryBudget(statements = 3, remoteCalls = 1)
     public ResponseEntity<LeaveResponse> getLeaveById(@PathVariable Long leaveId) {
         return ResponseEntity.ok(leaveService.getLeaveById(leaveId));
     }
 
     // Get leaves by user
     @GetMapping("/user/email/{userEmail}")
-    @PreAuthorize("hasAnyRole('MANAGER','ADMIN') or #userEmail == principal.username")
-    public ResponseEntity<List<LeaveResponse>> getLeavesByUser(@PathVariable String userEmail) {
-        return ResponseEntity.ok(leaveService.getLeavesByUser(userEmail));
+    @PreAuthorize("isAuthenticated()")
+    @QueryBudget(statements = 2, remoteCalls = 1)
+    public ResponseEntity<List<LeaveResponse>> getLeavesByUser(@AuthenticationPrincipal JwtPrincipal principal,
+            @PathVariable String userEmail) {
+        if (principal == null) {
+            return ResponseEntity.status(401).build();
+        }
+        return ResponseEntity.ok(leaveService.getLeavesByUser(principal, userEmail));
     }
 
     // Get my leaves
     @GetMapping("/me")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<List<LeaveResponse>> getMyLeaves(@AuthenticationPrincipal String userIdStr) {
+    @QueryBudget(statements = 2, remoteCalls = 1)
+    public ResponseEntity<List<LeaveResponse>> getMyLeaves(
+            @AuthenticationPrincipal(expression = "username") String userIdStr) {
         // userIdStr is userId as string (see JwtAuthenticationFilter)
         if (userIdStr == null) {
             return ResponseEntity.status(401).build();
@@ -100,16 +129,18 @@ public class LeaveController {
     // Get pending leaves for manager
     @GetMapping("/pending")
     @PreAuthorize("hasAnyAuthority('ROLE_ADMIN','ROLE_MANAGER')")
-    public ResponseEntity<List<LeaveResponse>> getPendingLeaves(@AuthenticationPrincipal String userEmail) {
-        if (userEmail == null) {
+    @QueryBudget(statements = 2, remoteCalls = 1)
+    public ResponseEntity<List<LeaveResponse>> getPendingLeaves(@AuthenticationPrincipal JwtPrincipal principal) {
+        if (principal == null) {
             return ResponseEntity.status(401).build();
         }
-        return ResponseEntity.ok(leaveService.getPendingLeaves(userEmail));
+        return ResponseEntity.ok(leaveService.getPendingLeaves(principal));
     }
 
     // Get team calendar by department
     @GetMapping("/team-calendar/{departmentId}")
     @PreAuthorize("hasAnyRole('MANAGER','ADMIN')")
+    @QueryBudget(statements = 2, remoteCalls = 1)
     public ResponseEntity<List<LeaveResponse>> getTeamCalendar(@PathVariable Long departmentId,
             @RequestParam(required = false) String month) {
         return ResponseEntity.ok(leaveService.getTeamCalendar(departmentId, month));
@@ -118,30 +149,44 @@ public class LeaveController {
     // Get unified team calendar for manager
     @GetMapping("/team-calendar")
     @PreAuthorize("hasAnyRole('MANAGER','ADMIN')")
+    @QueryBudget(statements = 2, remoteCalls = 1)
     public ResponseEntity<List<LeaveResponse>> getTeamCalendarForManager(
-            @AuthenticationPrincipal String userEmail,
+            @AuthenticationPrincipal JwtPrincipal principal,
             @RequestParam(required = false) String month) {
-        if (userEmail == null) {
+        if (principal == null) {
             return ResponseEntity.status(401).build();
         }
-        return ResponseEntity.ok(leaveService.getTeamCalendarForManager(userEmail, month));
+        return ResponseEntity.ok(leaveService.getTeamCalendarForManager(principal, month));
     }
 
     // Search leaves
     @GetMapping("/search")
     @PreAuthorize("hasAnyRole('MANAGER','ADMIN')")
+    @QueryBudget(statements = 2, remoteCalls = 1)
     public ResponseEntity<List<LeaveResponse>> searchLeaves(@RequestParam String query) {
         return ResponseEntity.ok(leaveService.searchLeaves(query));
     }
 
+    // Filtered, sorted and paged leave listing, limited to the caller's departments
+    @GetMapping("/query")
+    @PreAuthorize("hasAnyRole('MANAGER','ADMIN')")
+    @QueryBudget(statements = 3, remoteCalls = 1)
+    public ResponseEntity<Page<LeaveResponse>> queryLeaves(@AuthenticationPrincipal JwtPrincipal principal,
+            @ModelAttribute LeaveQueryRequest filter,
+            @PageableDefault(size = 50, sort = "createdAt", direction = Sort.Direction.DESC) Pageable pageable) {
+        return ResponseEntity.ok(leaveService.queryLeaves(principal, filter, pageable));
+    }
+
     @GetMapping("/recent")
     @PreAuthorize("hasRole('ADMIN')")
+    @QueryBudget(statements = 2, remoteCalls = 1)
     public ResponseEntity<List<LeaveResponse>> getRecentLeaves() {
         return ResponseEntity.ok(leaveService.getRecentLeaves());
     }
 
     @GetMapping("/system-stats")
     @PreAuthorize("hasRole('ADMIN')")
+    @QueryBudget(statements = 4)
     public ResponseEntity<Map<String, Object>> getSystemStats() {
         Map<String, Object> stats = new HashMap<>();
         stats.put("totalLeaves", leaveService.countAllLeaves());
@@ -151,35 +196,77 @@ public class LeaveController {
         return ResponseEntity.ok(stats);
     }
 
+    // Leaves of one user or of several users
     @GetMapping
+    @QueryBudget(statements = 2, remoteCalls = 1)
     public ResponseEntity<List<LeaveResponse>> getLeaves(
             @RequestParam(required = false) Long userId,
             @RequestParam(required = false) List<Long> userIds) {
         if (userIds != null && !userIds.isEmpty()) {
             return ResponseEntity.ok(leaveService.getLeavesByUserIds(userIds));
-        } else if (userId != null) {
-            return ResponseEntity.ok(leaveService.getLeavesByUserId(userId));
-        } else {
-            return ResponseEntity.ok(leaveService.getAllLeaves());
         }
+        return ResponseEntity.ok(leaveService.getLeavesByUserId(userId));
+    }
+
+    // Without a user filter, the first keyset page of all leaves, like /page
+    @GetMapping(params = { "!userId", "!userIds" })
+    @PreAuthorize("hasAnyRole('MANAGER','ADMIN')")
+    @QueryBudget(statements = 2, remoteCalls = 1)
+    public ResponseEntity<LeavePageResponse> getFirstLeavesPage(
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(leaveService.getLeavesPage(null, limit));
+    }
+
+    // Without a user filter and asking for NDJSON, every leave streamed like /stream
+    @GetMapping(params = { "!userId", "!userIds" }, produces = NDJSON)
+    @PreAuthorize("hasAnyRole('MANAGER','ADMIN')")
+    @QueryBudget(statements = 2, remoteCalls = 1)
+    public ResponseEntity<StreamingResponseBody> streamAllLeaves() {
+        return streamLeaves();
+    }
+
+    // Keyset-paginated listing of all leaves, newest first
+    @GetMapping("/page")
+    @PreAuthorize("hasAnyRole('MANAGER','ADMIN')")
+    @QueryBudget(statements = 2, remoteCalls = 1)
+    public ResponseEntity<LeavePageResponse> getLeavesPage(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(leaveService.getLeavesPage(cursor, limit));
+    }
+
+    // All leaves as newline-delimited JSON, written while they are read.
+    // The budget holds for one chunk of leaves; each further chunk adds a statement and a remote call.
+    @GetMapping(value = "/stream", produces = NDJSON)
+    @PreAuthorize("hasAnyRole('MANAGER','ADMIN')")
+    @QueryBudget(statements = 2, remoteCalls = 1)
+    public ResponseEntity<StreamingResponseBody> streamLeaves() {
+        StreamingResponseBody body = out -> {
+            JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+            generator.setRootValueSeparator(null);
+            leaveService.streamAllLeaves(leave -> {
+                try {
+                    objectMapper.writeValue(generator, leave);
+                    generator.writeRaw('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            generator.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
     }
 
     // Get team calendar for staff (their department only)
     @GetMapping("/team-calendar/staff")
     @PreAuthorize("hasRole('STAFF')")
+    @QueryBudget(statements = 2, remoteCalls = 1)
     public ResponseEntity<List<LeaveResponse>> getStaffTeamCalendar(
-            @AuthenticationPrincipal String userIdStr,
+            @AuthenticationPrincipal JwtPrincipal principal,
             @RequestParam(required = false) String month) {
-        // userIdStr is userId as string (see JwtAuthenticationFilter)
-        if (userIdStr == null) {
-            return ResponseEntity.status(401).build();
-        }
-        Long userId;
-        try {
-            userId = Long.parseLong(userIdStr);
-        } catch (Exception e) {
+        if (principal == null) {
             return ResponseEntity.status(401).build();
         }
-        return ResponseEntity.ok(leaveService.getStaffTeamCalendar(userId, month));
+        return ResponseEntity.ok(leaveService.getStaffTeamCalendar(principal, month));
     }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package com.daking.leave.controller;
 
+import com.daking.leave.budget.QueryBudget;
 import com.daking.leave.dto.request.LeaveTypeRequest;
 import com.daking.leave.dto.response.LeaveTypeResponse;
 import com.daking.leave.service.interfaces.LeaveTypeService;
@@ -22,6 +23,7 @@ public class LeaveTypeController {
     // Create leave type
     @PostMapping
     @PreAuthorize("hasRole('ADMIN')")
+    @QueryBudget(statements = 2)
     public ResponseEntity<LeaveTypeResponse> createLeaveType(@Valid @RequestBody LeaveTypeRequest request) {
         return ResponseEntity.ok(leaveTypeService.createLeaveType(request));
     }
@@ -29,6 +31,7 @@ public class LeaveTypeController {
     // Update leave type
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
+    @QueryBudget(statements = 2)
     public ResponseEntity<LeaveTypeResponse> updateLeaveType(@PathVariable Long id,
             @Valid @RequestBody LeaveTypeRequest request) {
         return ResponseEntity.ok(leaveTypeService.updateLeaveType(id, request));
@@ -37,6 +40,7 @@ public class LeaveTypeController {
     // Delete leave type
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
+    @QueryBudget(statements = 4)
     public ResponseEntity<Void> deleteLeaveType(@PathVariable Long id) {
         leaveTypeService.deleteLeaveType(id);
         return ResponseEntity.noContent().build();
@@ -45,6 +49,7 @@ public class LeaveTypeController {
     // Get all leave types
     @GetMapping
     @PreAuthorize("isAuthenticated()")
+    @QueryBudget(statements = 1)
     public List<LeaveType> getAllLeaveTypes() {
         return leaveTypeRepository.findAll();
     }
@@ -52,6 +57,7 @@ public class LeaveTypeController {
     // Get active leave types
     @GetMapping("/active")
     @PreAuthorize("isAuthenticated()")
+    @QueryBudget(statements = 1)
     public ResponseEntity<List<LeaveTypeResponse>> getActiveLeaveTypes() {
         return ResponseEntity.ok(leaveTypeService.getActiveLeaveTypes());
     }
@@ -59,6 +65,7 @@ public class LeaveTypeController {
     // Get leave type by ID
     @GetMapping("/{id}")
     @PreAuthorize("isAuthenticated()")
+    @QueryBudget(statements = 1)
     public ResponseEntity<LeaveTypeResponse> getLeaveTypeById(@PathVariable Long id) {
         return ResponseEntity.ok(leaveTypeService.getLeaveTypeById(id));
     }
@@ -1,5 +1,6 @@
 package com.daking.leave.controller;
 
+import com.daking.leave.budget.QueryBudget;
 import com.daking.leave.dto.response.NotificationResponse;
 import com.daking.leave.service.interfaces.InAppNotificationService;
 // import com.daking.leave.client.UserInfoClient;
@@ -17,35 +18,40 @@ public class NotificationController {
     // private final UserInfoClient userInfoClient;
 
     @GetMapping
+    @QueryBudget(statements = 1)
     public ResponseEntity<List<NotificationResponse>> getMyNotifications(
-            @AuthenticationPrincipal String userIdStr) {
+            @AuthenticationPrincipal(expression = "username") String userIdStr) {
         Long userId = getUserIdFromPrincipal(userIdStr);
         return ResponseEntity.ok(notificationService.getNotifications(userId));
     }
 
     @GetMapping("/unread-count")
-    public ResponseEntity<Integer> getUnreadCount(@AuthenticationPrincipal String userIdStr) {
+    @QueryBudget(statements = 1)
+    public ResponseEntity<Integer> getUnreadCount(@AuthenticationPrincipal(expression = "username") String userIdStr) {
         Long userId = getUserIdFromPrincipal(userIdStr);
         int count = notificationService.getNotifications(userId).stream().filter(n -> !n.isRead()).toArray().length;
         return ResponseEntity.ok(count);
     }
 
     @GetMapping("/recent")
+    @QueryBudget(statements = 1)
     public ResponseEntity<List<NotificationResponse>> getRecentNotifications(
-            @AuthenticationPrincipal String userIdStr) {
+            @AuthenticationPrincipal(expression = "username") String userIdStr) {
         Long userId = getUserIdFromPrincipal(userIdStr);
         List<NotificationResponse> all = notificationService.getNotifications(userId);
         return ResponseEntity.ok(all.stream().limit(10).toList());
     }
 
     @PostMapping("/mark-all-read")
-    public ResponseEntity<Void> markAllAsRead(@AuthenticationPrincipal String userIdStr) {
+    @QueryBudget(statements = 1)
+    public ResponseEntity<Void> markAllAsRead(@AuthenticationPrincipal(expression = "username") String userIdStr) {
         Long userId = getUserIdFromPrincipal(userIdStr);
-        notificationService.getNotifications(userId).forEach(n -> notificationService.markAsRead(n.getId()));
+        notificationService.markAllAsRead(userId);
         return ResponseEntity.noContent().build();
     }
 
     @PutMapping("/mark-read/{id}")
+    @QueryBudget(statements = 2)
     public ResponseEntity<Void> markAsReadPut(@PathVariable Long id) {
         notificationService.markAsRead(id);
         return ResponseEntity.noContent().build();
@@ -1,5 +1,6 @@
 package com.daking.leave.controller;
 
+import com.daking.leave.budget.QueryBudget;
 import com.daking.leave.dto.response.ReportResponse;
 import com.daking.leave.service.interfaces.ReportService;
 import lombok.RequiredArgsConstructor;
@@ -26,6 +27,7 @@ public class ReportController {
     private final ReportService reportService;
 
     @GetMapping("/date-range")
+    @QueryBudget(statements = 1)
     public ResponseEntity<List<ReportResponse>> getReportsByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
@@ -36,6 +38,7 @@ public class ReportController {
 
     @PostMapping("/employee/{userId}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    @QueryBudget(statements = 2)
     public ResponseEntity<ReportResponse> generateEmployeeReport(
             @PathVariable Long userId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
@@ -55,6 +58,7 @@ public class ReportController {
 
     @PostMapping("/department/{departmentId}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    @QueryBudget(statements = 2)
     public ResponseEntity<ReportResponse> generateDepartmentReport(
             @PathVariable Long departmentId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
@@ -75,6 +79,7 @@ public class ReportController {
 
     @PostMapping("/leave-type/{leaveTypeId}")
     @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER')")
+    @QueryBudget(statements = 2)
     public ResponseEntity<ReportResponse> generateLeaveTypeReport(
             @PathVariable Long leaveTypeId,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
@@ -95,11 +100,12 @@ public class ReportController {
 
     @PostMapping("/manager/team-leave")
     @PreAuthorize("hasRole('MANAGER')")
+    @QueryBudget(statements = 2, remoteCalls = 1)
     public ResponseEntity<ReportResponse> generateTeamLeaveReport(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
             @RequestParam String fileType,
-            @AuthenticationPrincipal String userId) {
+            @AuthenticationPrincipal(expression = "username") String userId) {
         if (userId == null) {
             return ResponseEntity.status(401).body(new ReportResponse("User not authenticated"));
         }
@@ -118,11 +124,12 @@ public class ReportController {
 
     @PostMapping("/manager/approval-stats")
     @PreAuthorize("hasRole('MANAGER')")
+    @QueryBudget(statements = 2, remoteCalls = 1)
     public ResponseEntity<ReportResponse> generateApprovalStats(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
             @RequestParam String fileType,
-            @AuthenticationPrincipal String userId) {
+            @AuthenticationPrincipal(expression = "username") String userId) {
         if (userId == null) {
             return ResponseEntity.status(401).body(new ReportResponse("User not authenticated"));
         }
@@ -140,11 +147,12 @@ public class ReportController {
 
     @PostMapping("/manager/team-coverage")
     @PreAuthorize("hasRole('MANAGER')")
+    @QueryBudget(statements = 2)
     public ResponseEntity<ReportResponse> generateTeamCoverageReport(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
             @RequestParam String fileType,
-            @AuthenticationPrincipal String userId) {
+            @AuthenticationPrincipal(expression = "username") String userId) {
         if (userId == null) {
             return ResponseEntity.status(401).body(new ReportResponse("User not authenticated"));
         }
@@ -162,6 +170,7 @@ public class ReportController {
     }
 
     @GetMapping("/{reportId}/download")
+    @QueryBudget(statements = 2)
     public ResponseEntity<byte[]> downloadReport(@PathVariable Long reportId) {
         byte[] file = reportService.downloadReport(reportId);
         var reportOpt = reportService.getReportById(reportId);
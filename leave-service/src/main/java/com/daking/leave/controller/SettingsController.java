@@ -1,5 +1,6 @@
 package com.daking.leave.controller;
 
+import com.daking.leave.budget.QueryBudget;
 import com.daking.leave.model.Settings;
 import com.daking.leave.service.SettingsService;
 import jakarta.validation.Valid;
@@ -22,6 +23,7 @@ public class SettingsController {
      * @return Settings object
      */
     @GetMapping
+    @QueryBudget(statements = 3)
     public ResponseEntity<Settings> getSettings() {
         log.info("Fetching application settings");
         try {
@@ -42,6 +44,7 @@ public class SettingsController {
      */
     @PutMapping
     @PreAuthorize("hasRole('ADMIN')")
+    @QueryBudget(statements = 6)
     public ResponseEntity<Settings> updateSettings(@Valid @RequestBody Settings settings) {
         log.info("Updating application settings");
         try {
@@ -1,7 +1,8 @@
 package com.daking.leave.controller;
 
 import com.daking.auth.api.dto.UserResponseDTO;
-import com.daking.leave.client.UserInfoClient;
+import com.daking.leave.budget.QueryBudget;
+import com.daking.leave.client.UserDirectory;
 import com.daking.leave.exception.UserNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -17,7 +18,7 @@ import org.springframework.web.bind.annotation.RestController;
 @RequiredArgsConstructor
 @Slf4j
 public class UserController {
-    private final UserInfoClient userInfoClient;
+    private final UserDirectory userDirectory;
 
     /**
      * Get the current user's profile
@@ -26,7 +27,9 @@ public class UserController {
      */
     @GetMapping("/profile")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<UserResponseDTO> getProfile(@AuthenticationPrincipal String userIdStr) {
+    @QueryBudget(statements = 0, remoteCalls = 1)
+    public ResponseEntity<UserResponseDTO> getProfile(
+            @AuthenticationPrincipal(expression = "username") String userIdStr) {
         log.debug("Fetching profile for user: {}", userIdStr);
 
         if (userIdStr == null) {
@@ -38,7 +41,7 @@ public class UserController {
             Long userId = Long.parseLong(userIdStr);
 
             // Get user profile (no token needed - handled by Feign client)
-            UserResponseDTO user = userInfoClient.getUserById(userId);
+            UserResponseDTO user = userDirectory.getUserById(userId);
 
             if (user == null) {
                 log.warn("User profile not found for user ID: {}", userId);
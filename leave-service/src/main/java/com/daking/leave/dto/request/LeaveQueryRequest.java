@@ -0,0 +1,33 @@
+package com.daking.leave.dto.request;
+
+import com.daking.leave.model.Leave;
+import lombok.Data;
+import org.springframework.format.annotation.DateTimeFormat;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Filters for {@code GET /api/leaves/query}, bound from query parameters.
+ * Every filter is optional; the ones given are combined with AND.
+ * {@code from}/{@code to} select leaves overlapping that date range.
+ */
+@Data
+public class LeaveQueryRequest {
+    private List<Leave.LeaveStatus> status;
+
+    private Long userId;
+
+    private List<Long> departmentIds;
+
+    private Long leaveTypeId;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime createdAfter;
+}
@@ -0,0 +1,20 @@
+package com.daking.leave.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+/**
+ * One keyset page of leaves, newest first. {@code nextCursor} is passed back
+ * as {@code cursor} to fetch the following page and is {@code null} on the
+ * last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeavePageResponse {
+    private List<LeaveResponse> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
@@ -0,0 +1,64 @@
+package com.daking.leave.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Outcome of one user-id range of a batch job run, identified by job name,
+ * job key (the period the run is for) and range start.
+ */
+@Entity
+@Table(name = "batch_chunk_executions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchChunkExecution {
+    @EmbeddedId
+    private Key id;
+
+    @Column(nullable = false)
+    private Long rangeEnd;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private Status status;
+
+    @Column(nullable = false)
+    private Integer items;
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(length = 1000)
+    private String error;
+
+    @Column(nullable = false)
+    private LocalDateTime finishedAt;
+
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
+    public enum Status {
+        COMPLETED, FAILED
+    }
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        @Column(nullable = false, length = 100)
+        private String jobName;
+
+        @Column(nullable = false, length = 100)
+        private String jobKey;
+
+        @Column(nullable = false)
+        private Long rangeStart;
+    }
+}
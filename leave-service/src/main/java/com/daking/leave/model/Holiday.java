@@ -1,6 +1,8 @@
 package com.daking.leave.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
@@ -8,12 +10,15 @@ import java.time.LocalDate;
 
 @Entity
 @Table(name = "holidays")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "holidays")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Holiday {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "holidays_seq")
+    @SequenceGenerator(name = "holidays_seq", sequenceName = "holidays_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -15,7 +15,8 @@ import java.util.List;
 @AllArgsConstructor
 public class Leave {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "leaves_seq")
+    @SequenceGenerator(name = "leaves_seq", sequenceName = "leaves_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
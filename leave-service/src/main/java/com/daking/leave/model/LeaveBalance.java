@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class LeaveBalance {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "leave_balances_seq")
+    @SequenceGenerator(name = "leave_balances_seq", sequenceName = "leave_balances_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -38,6 +39,10 @@ public class LeaveBalance {
     @Column(nullable = false)
     private Double carriedOverDays;
 
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     @Column(nullable = false, updatable = false)
     private LocalDateTime createdAt = LocalDateTime.now();
 
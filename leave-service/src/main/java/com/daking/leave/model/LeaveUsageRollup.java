@@ -0,0 +1,50 @@
+package com.daking.leave.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import java.io.Serializable;
+
+/**
+ * Leave days and request counts of one (year, month, department, leave type,
+ * status) bucket. Written only through the upserts in
+ * {@code LeaveUsageRollupRepository}.
+ */
+@Entity
+@Table(name = "leave_usage_rollup")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LeaveUsageRollup {
+    @EmbeddedId
+    private Key id;
+
+    @Column(nullable = false)
+    private Double days;
+
+    @Column(nullable = false)
+    private Long requests;
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        @Column(nullable = false)
+        private Integer year;
+
+        @Column(nullable = false)
+        private Integer month;
+
+        @Column(nullable = false)
+        private Long departmentId;
+
+        @Column(nullable = false)
+        private Long leaveTypeId;
+
+        @Enumerated(EnumType.STRING)
+        @Column(nullable = false, length = 20)
+        private Leave.LeaveStatus status;
+    }
+}
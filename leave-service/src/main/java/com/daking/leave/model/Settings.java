@@ -1,12 +1,16 @@
 package com.daking.leave.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import lombok.*;
 import java.time.LocalDate;
 import java.util.Set;
 
 @Entity
 @Table(name = "settings")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "settings")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -21,9 +25,11 @@ public class Settings {
     private LocalDate carryoverExpiryDate; // e.g. 2024-01-31
 
     @ManyToMany(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "settingsDocumentRequiredFor")
     @JoinTable(name = "settings_document_required_leavetypes", joinColumns = @JoinColumn(name = "settings_id"), inverseJoinColumns = @JoinColumn(name = "leavetype_id"))
     private Set<LeaveType> documentRequiredFor;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "settingsNotificationPreferences")
     @ElementCollection(targetClass = NotificationType.class, fetch = FetchType.EAGER)
     @CollectionTable(name = "settings_notification_preferences", joinColumns = @JoinColumn(name = "settings_id"))
     @Enumerated(EnumType.STRING)
@@ -0,0 +1,8 @@
+package com.daking.leave.repository;
+
+/**
+ * A balance running low, as returned by
+ * {@link LeaveBalanceRepository#findLowBalances}.
+ */
+public record BalanceAlertRow(Long userId, String leaveTypeName, Double remainingDays) {
+}
@@ -0,0 +1,18 @@
+package com.daking.leave.repository;
+
+import com.daking.leave.model.BatchChunkExecution;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface BatchChunkExecutionRepository
+        extends JpaRepository<BatchChunkExecution, BatchChunkExecution.Key> {
+
+    @Query("SELECT c.id.rangeStart FROM BatchChunkExecution c WHERE c.id.jobName = :jobName "
+            + "AND c.id.jobKey = :jobKey AND c.status = com.daking.leave.model.BatchChunkExecution.Status.COMPLETED")
+    List<Long> findCompletedRangeStarts(@Param("jobName") String jobName, @Param("jobKey") String jobKey);
+}
@@ -0,0 +1,8 @@
+package com.daking.leave.repository;
+
+/**
+ * Name of the leave type of a leave a document is attached to, as returned by
+ * {@link LeaveRepository#findLeaveTypeNamesByDocumentIds}.
+ */
+public record DocumentLeaveTypeRow(Long documentId, String leaveTypeName) {
+}
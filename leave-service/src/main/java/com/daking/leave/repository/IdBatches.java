@@ -0,0 +1,49 @@
+package com.daking.leave.repository;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Splits id lists for bulk lookups, whether an {@code IN} query or a bulk
+ * call to auth-service, into chunks of {@code app.lookup.batch-size} ids.
+ * This keeps each lookup well below the database bind-parameter limit and
+ * the request size auth-service accepts.
+ */
+@Component
+public class IdBatches {
+
+    private final int batchSize;
+
+    public IdBatches(@Value("${app.lookup.batch-size:500}") int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("app.lookup.batch-size must be positive");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Consecutive views of at most {@code batch-size} ids each, in order.
+     */
+    public <T> List<List<T>> chunks(List<T> ids) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            chunks.add(ids.subList(from, Math.min(from + batchSize, ids.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Runs the lookup once per chunk and concatenates the results.
+     */
+    public <T, R> List<R> query(List<T> ids, Function<List<T>, List<R>> lookup) {
+        List<R> result = new ArrayList<>();
+        for (List<T> chunk : chunks(ids)) {
+            result.addAll(lookup.apply(chunk));
+        }
+        return result;
+    }
+}
@@ -2,11 +2,17 @@ package com.daking.leave.repository;
 
 import com.daking.leave.model.LeaveBalance;
 import com.daking.leave.model.LeaveType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -23,6 +29,119 @@ public interface LeaveBalanceRepository extends JpaRepository<LeaveBalance, Long
     @Query("SELECT b FROM LeaveBalance b JOIN FETCH b.leaveType WHERE b.userId = :userId")
     List<LeaveBalance> findByUserIdWithType(@Param("userId") Long userId);
 
-    @Query("SELECT b FROM LeaveBalance b JOIN FETCH b.leaveType")
-    List<LeaveBalance> findAllWithType();
+    @Query("SELECT b FROM LeaveBalance b JOIN FETCH b.leaveType WHERE b.userId IN :userIds")
+    List<LeaveBalance> findByUserIdInWithType(@Param("userIds") Collection<Long> userIds);
+
+    List<LeaveBalance> findByUserIdInAndLeaveTypeAndYear(Collection<Long> userIds, LeaveType leaveType, Integer year);
+
+    boolean existsByUserIdAndLeaveTypeIdAndYear(Long userId, Long leaveTypeId, Integer year);
+
+    long countByLeaveTypeId(Long leaveTypeId);
+
+    /**
+     * Takes {@code days} from a balance in one statement, only if at least
+     * that many days remain. Concurrent deductions serialize on the row lock,
+     * so none is lost and the balance never goes negative.
+     *
+     * @return 1 if deducted, 0 if the balance is missing or too low
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE LeaveBalance b SET b.remainingDays = b.remainingDays - :days, b.version = b.version + 1, "
+            + "b.updatedAt = LOCAL DATETIME WHERE b.userId = :userId AND b.leaveType.id = :leaveTypeId "
+            + "AND b.year = :year AND b.remainingDays >= :days")
+    int deduct(@Param("userId") Long userId, @Param("leaveTypeId") Long leaveTypeId, @Param("year") Integer year,
+            @Param("days") Double days);
+
+    /**
+     * Gives {@code days} back to a balance in one statement.
+     *
+     * @return 1 if refunded, 0 if the balance is missing
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE LeaveBalance b SET b.remainingDays = b.remainingDays + :days, b.version = b.version + 1, "
+            + "b.updatedAt = LOCAL DATETIME WHERE b.userId = :userId AND b.leaveType.id = :leaveTypeId "
+            + "AND b.year = :year")
+    int refund(@Param("userId") Long userId, @Param("leaveTypeId") Long leaveTypeId, @Param("year") Integer year,
+            @Param("days") Double days);
+
+    @Query("SELECT new com.daking.leave.repository.UserIdRangeRow(MIN(b.userId), MAX(b.userId)) "
+            + "FROM LeaveBalance b WHERE b.year = :year")
+    UserIdRangeRow findUserIdRange(@Param("year") Integer year);
+
+    @Query("SELECT b FROM LeaveBalance b WHERE b.year = :year AND b.userId >= :fromUserId AND b.userId < :toUserId")
+    List<LeaveBalance> findByYearAndUserIdRange(@Param("year") Integer year, @Param("fromUserId") Long fromUserId,
+            @Param("toUserId") Long toUserId);
+
+    /**
+     * Adds {@code days} to the total and remaining days of the {@code year}
+     * balances of users in [{@code fromUserId}, {@code toUserId}) in one
+     * statement.
+     *
+     * @return the number of balances updated
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE LeaveBalance b SET b.totalDays = b.totalDays + :days, b.remainingDays = b.remainingDays + :days, "
+            + "b.version = b.version + 1, b.updatedAt = LOCAL DATETIME "
+            + "WHERE b.year = :year AND b.userId >= :fromUserId AND b.userId < :toUserId")
+    int accrue(@Param("year") Integer year, @Param("days") Double days, @Param("fromUserId") Long fromUserId,
+            @Param("toUserId") Long toUserId);
+
+    /**
+     * Same as {@link #accrue(Integer, Double, Long, Long)}, skipping the
+     * balances of {@code excludedUserIds}, which must not be empty.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE LeaveBalance b SET b.totalDays = b.totalDays + :days, b.remainingDays = b.remainingDays + :days, "
+            + "b.version = b.version + 1, b.updatedAt = LOCAL DATETIME "
+            + "WHERE b.year = :year AND b.userId >= :fromUserId AND b.userId < :toUserId "
+            + "AND b.userId NOT IN :excludedUserIds")
+    int accrue(@Param("year") Integer year, @Param("days") Double days, @Param("fromUserId") Long fromUserId,
+            @Param("toUserId") Long toUserId, @Param("excludedUserIds") Collection<Long> excludedUserIds);
+
+    /**
+     * Creates the missing {@code year} balances of the given users for every
+     * active leave type, starting from the type's default days, in one
+     * anti-join insert. Balances inserted concurrently by another run are
+     * skipped through the unique (user, type, year) index.
+     *
+     * @return the number of balances created
+     */
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "leave_balances"))
+    @Query(value = "INSERT INTO leave_balances (user_id, leave_type_id, year, total_days, used_days, remaining_days, "
+            + "carried_over_days, created_at, updated_at, version) "
+            + "SELECT u.user_id, t.id, :year, t.default_days, 0, t.default_days, 0, LOCALTIMESTAMP, LOCALTIMESTAMP, 0 "
+            + "FROM unnest(CAST(:userIds AS BIGINT[])) AS u(user_id) CROSS JOIN leave_types t "
+            + "WHERE t.is_active = true AND NOT EXISTS (SELECT 1 FROM leave_balances b "
+            + "WHERE b.user_id = u.user_id AND b.leave_type_id = t.id AND b.year = :year) "
+            + "ON CONFLICT (user_id, leave_type_id, year) DO NOTHING", nativeQuery = true)
+    int insertMissing(@Param("userIds") Long[] userIds, @Param("year") Integer year);
+
+    String SELECT_USER_TOTALS = "SELECT new com.daking.leave.repository.UserBalanceTotalsRow(b.userId, "
+            + "SUM(b.totalDays), SUM(b.usedDays), SUM(b.remainingDays), SUM(b.carriedOverDays)) "
+            + "FROM LeaveBalance b ";
+
+    @Query(SELECT_USER_TOTALS + "WHERE b.year = :year GROUP BY b.userId")
+    List<UserBalanceTotalsRow> sumByUserForYear(@Param("year") Integer year);
+
+    @Query(SELECT_USER_TOTALS + "WHERE b.userId IN :userIds AND b.year = :year GROUP BY b.userId")
+    List<UserBalanceTotalsRow> sumByUserForYear(@Param("userIds") Collection<Long> userIds,
+            @Param("year") Integer year);
+
+    @Query(SELECT_USER_TOTALS + "WHERE b.userId IN :userIds GROUP BY b.userId")
+    List<UserBalanceTotalsRow> sumByUser(@Param("userIds") Collection<Long> userIds);
+
+    @Query("SELECT new com.daking.leave.repository.BalanceAlertRow(b.userId, t.name, b.remainingDays) "
+            + "FROM LeaveBalance b JOIN b.leaveType t WHERE b.remainingDays < :threshold")
+    List<BalanceAlertRow> findLowBalances(@Param("threshold") Double threshold);
+
+    @Query("SELECT new com.daking.leave.repository.BalanceAlertRow(b.userId, t.name, b.remainingDays) "
+            + "FROM LeaveBalance b JOIN b.leaveType t WHERE b.remainingDays < :threshold AND b.userId IN :userIds")
+    List<BalanceAlertRow> findLowBalances(@Param("threshold") Double threshold,
+            @Param("userIds") Collection<Long> userIds);
 }
\ No newline at end of file
@@ -0,0 +1,10 @@
+package com.daking.leave.repository;
+
+import com.daking.leave.model.Document;
+
+/**
+ * A document attached to a leave, as returned by
+ * {@link LeaveRepository#findDocumentsByLeaveIds}.
+ */
+public record LeaveDocumentRow(Long leaveId, Document document) {
+}
@@ -1,81 +1,156 @@
 package com.daking.leave.repository;
 
 import com.daking.leave.model.Leave;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface LeaveRepository extends JpaRepository<Leave, Long> {
-        List<Leave> findByUserId(Long userId);
-
-        List<Leave> findByStatus(Leave.LeaveStatus status);
-
-        List<Leave> findByApproverId(Long approverId);
-
-        List<Leave> findByApproverIdAndStartDateGreaterThanEqualAndEndDateLessThanEqual(Long approverId,
-                        LocalDate start, LocalDate end);
+@Transactional(readOnly = true)
+public interface LeaveRepository extends JpaRepository<Leave, Long>, JpaSpecificationExecutor<Leave> {
+        String SELECT_ROW = "SELECT new com.daking.leave.repository.LeaveRow(l.id, l.userId, t.id, t.name, "
+                        + "l.startDate, l.endDate, l.totalDays, l.status, l.reason, l.comments, l.approverId, "
+                        + "l.createdAt, l.updatedAt) FROM Leave l JOIN l.leaveType t ";
+        String ROW_ORDER = " ORDER BY l.createdAt DESC, l.id DESC";
 
-        List<Leave> findByUserIdAndStatus(Long userId, Leave.LeaveStatus status);
+        /**
+         * Filtered page built from {@link LeaveSpecifications}, with the leave
+         * type fetched in the same query.
+         */
+        @Override
+        @EntityGraph(attributePaths = "leaveType")
+        Page<Leave> findAll(Specification<Leave> spec, Pageable pageable);
 
-        List<Leave> findByUserIdAndStartDateGreaterThanEqualAndEndDateLessThanEqual(Long userId, LocalDate start,
-                        LocalDate end);
+        @Override
+        @EntityGraph(attributePaths = "leaveType")
+        List<Leave> findAll(Specification<Leave> spec, Sort sort);
 
-        List<Leave> findByDepartmentIdAndStartDateGreaterThanEqualAndEndDateLessThanEqual(Long departmentId,
-                        LocalDate start, LocalDate end);
+        /**
+         * Loads a leave with its row locked until the end of the transaction,
+         * so a status transition checked on it cannot race another one.
+         * The leave type is not fetched, so that only the leave row is locked.
+         */
+        @Transactional
+        @Lock(LockModeType.PESSIMISTIC_WRITE)
+        @Query("SELECT l FROM Leave l WHERE l.id = :id")
+        Optional<Leave> findByIdForUpdate(@Param("id") Long id);
 
-        List<Leave> findByLeaveTypeIdAndStartDateGreaterThanEqualAndEndDateLessThanEqual(Long leaveTypeId,
-                        LocalDate start,
-                        LocalDate end);
+        List<Leave> findByUserId(Long userId);
 
-        long countByStatus(Leave.LeaveStatus status);
+        long countByLeaveTypeId(Long leaveTypeId);
 
         @Query("SELECT l FROM Leave l JOIN FETCH l.leaveType WHERE l.userId = :userId ORDER BY l.createdAt DESC")
         List<Leave> findByUserIdWithType(@Param("userId") Long userId);
 
-        @Query("SELECT l FROM Leave l JOIN FETCH l.leaveType WHERE l.userId IN :userIds")
-        List<Leave> findByUserIdsWithType(@Param("userIds") List<Long> userIds);
-
-        @Query("SELECT l FROM Leave l JOIN FETCH l.leaveType WHERE l.status = :status")
-        List<Leave> findByStatusWithType(@Param("status") Leave.LeaveStatus status);
-
-        @Query("SELECT l FROM Leave l JOIN FETCH l.leaveType")
-        List<Leave> findAllWithType();
+        /**
+         * First keyset page, newest first. The page size comes from the pageable;
+         * its page number must be 0.
+         */
+        @Query("SELECT l FROM Leave l JOIN FETCH l.leaveType ORDER BY l.createdAt DESC, l.id DESC")
+        List<Leave> findLatestWithType(Pageable page);
 
-        @Query("SELECT l FROM Leave l JOIN FETCH l.leaveType WHERE l.userId = :userId AND l.startDate >= :start AND l.endDate <= :end")
-        List<Leave> findByUserIdAndStartDateGreaterThanEqualAndEndDateLessThanEqualWithType(
-                        @Param("userId") Long userId,
-                        @Param("start") java.time.LocalDate start,
-                        @Param("end") java.time.LocalDate end);
+        /**
+         * Keyset page of the leaves strictly older than the given (createdAt, id)
+         * position, newest first.
+         */
+        @Query("SELECT l FROM Leave l JOIN FETCH l.leaveType WHERE l.createdAt < :createdAt "
+                        + "OR (l.createdAt = :createdAt AND l.id < :id) ORDER BY l.createdAt DESC, l.id DESC")
+        List<Leave> findOlderThanWithType(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                        Pageable page);
 
         /**
-         * Finds all leaves that are associated with a specific document.
-         * This is an efficient query that joins through the leave_documents table.
-         *
-         * @param documentId The ID of the document to search for.
-         * @return A list of leaves associated with the document.
+         * Streams every leave, newest first, reading from a server-side cursor.
+         * Must be consumed inside a transaction and closed afterwards.
          */
-        @Query("SELECT l FROM Leave l JOIN FETCH l.leaveType JOIN l.documents d WHERE d.id = :documentId")
-        List<Leave> findByDocumentId(@Param("documentId") Long documentId);
+        @QueryHints({
+                        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+                        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+        })
+        @Query("SELECT l FROM Leave l JOIN FETCH l.leaveType ORDER BY l.createdAt DESC, l.id DESC")
+        Stream<Leave> streamAllWithType();
+
+        @Query(SELECT_ROW + "WHERE l.userId = :userId" + ROW_ORDER)
+        List<LeaveRow> findRowsByUserId(@Param("userId") Long userId);
+
+        @Query(SELECT_ROW + "WHERE l.userId IN :userIds" + ROW_ORDER)
+        List<LeaveRow> findRowsByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+        @Query(SELECT_ROW + "WHERE l.status = :status" + ROW_ORDER)
+        List<LeaveRow> findRowsByStatus(@Param("status") Leave.LeaveStatus status);
+
+        @Query(SELECT_ROW + "WHERE l.departmentId IN :departmentIds AND l.status = :status" + ROW_ORDER)
+        List<LeaveRow> findRowsByDepartmentIdInAndStatus(@Param("departmentIds") Collection<Long> departmentIds,
+                        @Param("status") Leave.LeaveStatus status);
+
+        // Overlap queries below can use the daterange GiST indexes (see LeaveSqlFunctions)
+        @Query(SELECT_ROW + "WHERE l.departmentId = :departmentId "
+                        + "AND date_overlaps(l.startDate, l.endDate, :start, :end) = true" + ROW_ORDER)
+        List<LeaveRow> findRowsByDepartmentIdOverlapping(@Param("departmentId") Long departmentId,
+                        @Param("start") LocalDate start, @Param("end") LocalDate end);
+
+        @Query(SELECT_ROW + "WHERE l.departmentId IN :departmentIds "
+                        + "AND date_overlaps(l.startDate, l.endDate, :start, :end) = true" + ROW_ORDER)
+        List<LeaveRow> findRowsByDepartmentIdInOverlapping(@Param("departmentIds") Collection<Long> departmentIds,
+                        @Param("start") LocalDate start, @Param("end") LocalDate end);
+
+        @Query(SELECT_ROW + "WHERE date_overlaps(l.startDate, l.endDate, :start, :end) = true" + ROW_ORDER)
+        List<LeaveRow> findRowsOverlapping(@Param("start") LocalDate start, @Param("end") LocalDate end);
+
+        @Query("SELECT l FROM Leave l JOIN FETCH l.leaveType WHERE l.userId IN :userIds "
+                        + "AND date_overlaps(l.startDate, l.endDate, :start, :end) = true")
+        List<Leave> findByUserIdInOverlappingWithType(@Param("userIds") Collection<Long> userIds,
+                        @Param("start") LocalDate start, @Param("end") LocalDate end);
 
-        @Query("SELECT l FROM Leave l JOIN FETCH l.leaveType WHERE l.departmentId = :departmentId AND l.startDate >= :start AND l.endDate <= :end")
-        List<Leave> findByDepartmentIdAndStartDateGreaterThanEqualAndEndDateLessThanEqualWithType(
-                        @Param("departmentId") Long departmentId,
-                        @Param("start") java.time.LocalDate start,
-                        @Param("end") java.time.LocalDate end);
+        @Query("SELECT l FROM Leave l JOIN FETCH l.leaveType WHERE l.departmentId IN :departmentIds "
+                        + "AND date_overlaps(l.startDate, l.endDate, :start, :end) = true")
+        List<Leave> findByDepartmentIdInOverlappingWithType(@Param("departmentIds") Collection<Long> departmentIds,
+                        @Param("start") LocalDate start, @Param("end") LocalDate end);
 
-        @Query("SELECT l FROM Leave l JOIN FETCH l.leaveType WHERE l.startDate >= :start AND l.endDate <= :end")
-        List<Leave> findByStartDateGreaterThanEqualAndEndDateLessThanEqualWithType(
+        @Query("SELECT l FROM Leave l JOIN FETCH l.leaveType t WHERE t.id = :leaveTypeId "
+                        + "AND date_overlaps(l.startDate, l.endDate, :start, :end) = true")
+        List<Leave> findByLeaveTypeIdOverlappingWithType(@Param("leaveTypeId") Long leaveTypeId,
                         @Param("start") LocalDate start, @Param("end") LocalDate end);
 
-        @Query("SELECT l FROM Leave l JOIN FETCH l.leaveType WHERE l.departmentId IN :departmentIds AND l.startDate >= :start AND l.endDate <= :end")
-        List<Leave> findByDepartmentIdInAndStartDateGreaterThanEqualAndEndDateLessThanEqualWithType(
-                        @Param("departmentIds") List<Long> departmentIds, @Param("start") LocalDate start,
-                        @Param("end") LocalDate end);
+        @Query("SELECT l FROM Leave l JOIN FETCH l.leaveType WHERE l.approverId = :approverId "
+                        + "AND date_overlaps(l.startDate, l.endDate, :start, :end) = true")
+        List<Leave> findByApproverIdOverlappingWithType(@Param("approverId") Long approverId,
+                        @Param("start") LocalDate start, @Param("end") LocalDate end);
 
-        List<Leave> findByDepartmentIdInAndStatus(List<Long> departmentIds, Leave.LeaveStatus status);
-}
\ No newline at end of file
+        /**
+         * Documents of all the given leaves in one query, ordered by leave and
+         * document id.
+         */
+        @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+        @Query("SELECT new com.daking.leave.repository.LeaveDocumentRow(l.id, d) FROM Leave l JOIN l.documents d "
+                        + "WHERE l.id IN :leaveIds ORDER BY l.id, d.id")
+        List<LeaveDocumentRow> findDocumentsByLeaveIds(@Param("leaveIds") Collection<Long> leaveIds);
+
+        /**
+         * Leave type names of the given documents in one query, ordered by
+         * leave id, so the first row per document belongs to its earliest leave.
+         */
+        @Query("SELECT new com.daking.leave.repository.DocumentLeaveTypeRow(d.id, t.name) "
+                        + "FROM Leave l JOIN l.leaveType t JOIN l.documents d WHERE d.id IN :documentIds ORDER BY l.id")
+        List<DocumentLeaveTypeRow> findLeaveTypeNamesByDocumentIds(
+                        @Param("documentIds") Collection<Long> documentIds);
+}
@@ -0,0 +1,37 @@
+package com.daking.leave.repository;
+
+import com.daking.leave.model.Leave;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Read-only projection of the {@code leaves} columns that make up a
+ * {@code LeaveResponse}, together with the leave type name. Selected with a
+ * constructor expression, so no entity is hydrated or tracked.
+ */
+public record LeaveRow(
+        Long id,
+        Long userId,
+        Long leaveTypeId,
+        String leaveTypeName,
+        LocalDate startDate,
+        LocalDate endDate,
+        Double totalDays,
+        Leave.LeaveStatus status,
+        String reason,
+        String comments,
+        Long approverId,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+
+    /**
+     * Row of an already loaded leave; its leave type must be initialized.
+     */
+    public static LeaveRow of(Leave leave) {
+        return new LeaveRow(leave.getId(), leave.getUserId(), leave.getLeaveType().getId(),
+                leave.getLeaveType().getName(), leave.getStartDate(), leave.getEndDate(), leave.getTotalDays(),
+                leave.getStatus(), leave.getReason(), leave.getComments(), leave.getApproverId(),
+                leave.getCreatedAt(), leave.getUpdatedAt());
+    }
+}
@@ -0,0 +1,115 @@
+package com.daking.leave.repository;
+
+import com.daking.leave.model.Leave;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Composable filters for {@link LeaveRepository#findAll(Specification,
+ * org.springframework.data.domain.Pageable)}. Each factory returns
+ * {@code null} when its argument is absent, which
+ * {@link Specification#where(Specification)} and {@code and} treat as "no
+ * restriction", so callers can chain them unconditionally.
+ */
+public final class LeaveSpecifications {
+
+    private LeaveSpecifications() {
+    }
+
+    public static Specification<Leave> hasStatusIn(Collection<Leave.LeaveStatus> statuses) {
+        if (statuses == null || statuses.isEmpty()) {
+            return null;
+        }
+        return (root, query, cb) -> root.get("status").in(statuses);
+    }
+
+    public static Specification<Leave> hasUser(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("userId"), userId);
+    }
+
+    public static Specification<Leave> hasUserIn(Collection<Long> userIds) {
+        if (userIds == null) {
+            return null;
+        }
+        if (userIds.isEmpty()) {
+            return (root, query, cb) -> cb.disjunction();
+        }
+        return (root, query, cb) -> root.get("userId").in(userIds);
+    }
+
+    /**
+     * Restricts to the given departments. An empty collection matches
+     * nothing, unlike {@code null}, which does not restrict.
+     */
+    public static Specification<Leave> inDepartments(Collection<Long> departmentIds) {
+        if (departmentIds == null) {
+            return null;
+        }
+        if (departmentIds.isEmpty()) {
+            return (root, query, cb) -> cb.disjunction();
+        }
+        return (root, query, cb) -> root.get("departmentId").in(departmentIds);
+    }
+
+    public static Specification<Leave> hasLeaveType(Long leaveTypeId) {
+        if (leaveTypeId == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.equal(root.get("leaveType").get("id"), leaveTypeId);
+    }
+
+    /**
+     * Leaves overlapping {@code [from, to]}; either end may be open.
+     */
+    public static Specification<Leave> overlaps(LocalDate from, LocalDate to) {
+        if (from == null && to == null) {
+            return null;
+        }
+        return (root, query, cb) -> {
+            if (from == null) {
+                return cb.lessThanOrEqualTo(root.get("startDate"), to);
+            }
+            if (to == null) {
+                return cb.greaterThanOrEqualTo(root.get("endDate"), from);
+            }
+            return cb.isTrue(cb.function(LeaveSqlFunctions.DATE_OVERLAPS, Boolean.class,
+                    root.get("startDate"), root.get("endDate"), cb.literal(from), cb.literal(to)));
+        };
+    }
+
+    public static Specification<Leave> createdAfter(LocalDateTime createdAfter) {
+        if (createdAfter == null) {
+            return null;
+        }
+        return (root, query, cb) -> cb.greaterThan(root.get("createdAt"), createdAfter);
+    }
+
+    /**
+     * Case-insensitive match of {@code text} in the reason or leave type name,
+     * or a leave of one of {@code userIds} (users whose name matched).
+     */
+    public static Specification<Leave> matchesText(String text, Collection<Long> userIds) {
+        if (text == null || text.isBlank()) {
+            return null;
+        }
+        String pattern = "%" + escapeLike(text.trim().toLowerCase()) + "%";
+        return (root, query, cb) -> {
+            var reason = cb.like(cb.lower(root.get("reason")), pattern, '\\');
+            var typeName = cb.like(cb.lower(root.get("leaveType").get("name")), pattern, '\\');
+            if (userIds == null || userIds.isEmpty()) {
+                return cb.or(reason, typeName);
+            }
+            return cb.or(reason, typeName, root.get("userId").in(userIds));
+        };
+    }
+
+    private static String escapeLike(String text) {
+        return text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
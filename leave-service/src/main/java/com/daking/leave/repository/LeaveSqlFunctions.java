@@ -0,0 +1,32 @@
+package com.daking.leave.repository;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * PostgreSQL-specific HQL functions used by the leave queries, registered
+ * through {@code META-INF/services/org.hibernate.boot.model.FunctionContributor}.
+ * <p>
+ * {@code date_overlaps(start, end, from, to)} is true when the inclusive
+ * ranges {@code [start, end]} and {@code [from, to]} share a day. It renders
+ * to the same {@code daterange} expression as the GiST indexes created in
+ * {@code V2__leave_query_indexes.sql}, so overlap queries can use them.
+ */
+public class LeaveSqlFunctions implements FunctionContributor {
+
+    public static final String DATE_OVERLAPS = "date_overlaps";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        BasicType<Boolean> booleanType = functionContributions.getTypeConfiguration()
+                .getBasicTypeRegistry()
+                .resolve(StandardBasicTypes.BOOLEAN);
+        functionContributions.getFunctionRegistry()
+                .patternDescriptorBuilder(DATE_OVERLAPS, "(daterange(?1, ?2, '[]') && daterange(?3, ?4, '[]'))")
+                .setInvariantType(booleanType)
+                .setExactArgumentCount(4)
+                .register();
+    }
+}
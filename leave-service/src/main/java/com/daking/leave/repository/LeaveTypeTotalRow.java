@@ -0,0 +1,8 @@
+package com.daking.leave.repository;
+
+/**
+ * Sum of leave days for one leave type, as returned by
+ * {@link LeaveUsageRollupRepository#sumDaysByLeaveType}.
+ */
+public record LeaveTypeTotalRow(String leaveTypeName, Double totalDays) {
+}
@@ -0,0 +1,84 @@
+package com.daking.leave.repository;
+
+import com.daking.leave.model.Leave;
+import com.daking.leave.model.LeaveUsageRollup;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface LeaveUsageRollupRepository extends JpaRepository<LeaveUsageRollup, LeaveUsageRollup.Key> {
+
+    // The native statements below name the only table they write, so that
+    // Hibernate invalidates just that table's cached query results instead
+    // of the whole second-level cache.
+    String QUERY_SPACE = "leave_usage_rollup";
+
+    /**
+     * Adds {@code days} and {@code requests} (either may be negative) to a
+     * bucket, creating it when missing.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = QUERY_SPACE))
+    @Query(value = "INSERT INTO leave_usage_rollup (year, month, department_id, leave_type_id, status, days, requests) "
+            + "VALUES (:year, :month, :departmentId, :leaveTypeId, :status, :days, :requests) "
+            + "ON CONFLICT (year, month, department_id, leave_type_id, status) DO UPDATE "
+            + "SET days = leave_usage_rollup.days + EXCLUDED.days, "
+            + "requests = leave_usage_rollup.requests + EXCLUDED.requests", nativeQuery = true)
+    void addToBucket(@Param("year") int year, @Param("month") int month, @Param("departmentId") Long departmentId,
+            @Param("leaveTypeId") Long leaveTypeId, @Param("status") String status, @Param("days") double days,
+            @Param("requests") long requests);
+
+    /**
+     * Blocks bucket updates of concurrent transactions until the current
+     * transaction ends, and waits for those already running to finish.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = QUERY_SPACE))
+    @Query(value = "LOCK TABLE leave_usage_rollup IN EXCLUSIVE MODE", nativeQuery = true)
+    void lockForRebuild();
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = QUERY_SPACE))
+    @Query(value = "DELETE FROM leave_usage_rollup", nativeQuery = true)
+    int deleteAllBuckets();
+
+    /**
+     * Recomputes every bucket from {@code leaves}, splitting days across months
+     * the same way as {@code LeaveUsageRollupService}.
+     */
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = QUERY_SPACE))
+    @Query(value = "INSERT INTO leave_usage_rollup (year, month, department_id, leave_type_id, status, days, requests) "
+            + "SELECT EXTRACT(YEAR FROM m)::int, EXTRACT(MONTH FROM m)::int, l.department_id, l.leave_type_id, "
+            + "l.status, "
+            + "SUM(l.total_days * (LEAST(l.end_date, (m + INTERVAL '1 month - 1 day')::date) "
+            + "- GREATEST(l.start_date, m::date) + 1) / (l.end_date - l.start_date + 1)), "
+            + "SUM(CASE WHEN m = date_trunc('month', l.start_date::timestamp) THEN 1 ELSE 0 END) "
+            + "FROM leaves l CROSS JOIN LATERAL generate_series(date_trunc('month', l.start_date::timestamp), "
+            + "date_trunc('month', l.end_date::timestamp), INTERVAL '1 month') AS m "
+            + "GROUP BY 1, 2, 3, 4, 5", nativeQuery = true)
+    int insertBucketsFromLeaves();
+
+    @Query("SELECT new com.daking.leave.repository.PeriodTotalRow(r.id.month, SUM(r.days)) "
+            + "FROM LeaveUsageRollup r WHERE r.id.year = :year GROUP BY r.id.month")
+    List<PeriodTotalRow> sumDaysByMonth(@Param("year") int year);
+
+    @Query("SELECT new com.daking.leave.repository.LeaveTypeTotalRow(t.name, SUM(r.days)) "
+            + "FROM LeaveUsageRollup r, LeaveType t WHERE t.id = r.id.leaveTypeId AND r.id.year = :year "
+            + "GROUP BY t.name")
+    List<LeaveTypeTotalRow> sumDaysByLeaveType(@Param("year") int year);
+
+    @Query("SELECT COALESCE(SUM(r.requests), 0) FROM LeaveUsageRollup r")
+    long sumRequests();
+
+    @Query("SELECT COALESCE(SUM(r.requests), 0) FROM LeaveUsageRollup r WHERE r.id.status = :status")
+    long sumRequestsByStatus(@Param("status") Leave.LeaveStatus status);
+}
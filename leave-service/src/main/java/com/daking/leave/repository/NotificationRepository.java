@@ -2,10 +2,24 @@ package com.daking.leave.repository;
 
 import com.daking.leave.model.Notification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     List<Notification> findByUserIdOrderByCreatedAtDesc(Long userId);
+
+    /**
+     * Marks every unread notification of the user as read in one statement.
+     *
+     * @return the number of notifications marked
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Notification n SET n.read = true WHERE n.userId = :userId AND n.read = false")
+    int markAllAsRead(@Param("userId") Long userId);
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package com.daking.leave.repository;
+
+/**
+ * Sum of leave days for one month or quarter of a year, built from
+ * {@link LeaveUsageRollupRepository#sumDaysByMonth}.
+ */
+public record PeriodTotalRow(Integer period, Double totalDays) {
+}
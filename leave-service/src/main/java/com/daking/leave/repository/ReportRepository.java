@@ -2,6 +2,8 @@ package com.daking.leave.repository;
 
 import com.daking.leave.model.Report;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
@@ -9,5 +11,9 @@ import java.util.List;
 
 @Repository
 public interface ReportRepository extends JpaRepository<Report, Long> {
-    List<Report> findByStartDateGreaterThanEqualAndEndDateLessThanEqual(LocalDateTime start, LocalDateTime end);
+    /**
+     * Reports whose period shares any instant with {@code [start, end]}.
+     */
+    @Query("SELECT r FROM Report r WHERE r.startDate <= :end AND r.endDate >= :start")
+    List<Report> findOverlapping(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 }
\ No newline at end of file
@@ -1,9 +1,17 @@
 package com.daking.leave.repository;
 
 import com.daking.leave.model.Settings;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
+
 @Repository
 public interface SettingsRepository extends JpaRepository<Settings, Long> {
-}
\ No newline at end of file
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Settings> findAll();
+}
@@ -0,0 +1,9 @@
+package com.daking.leave.repository;
+
+/**
+ * Balance day sums of one user over all leave types, as returned by the
+ * analytics queries in {@link LeaveBalanceRepository}.
+ */
+public record UserBalanceTotalsRow(Long userId, Double totalDays, Double usedDays, Double remainingDays,
+        Double carriedOverDays) {
+}
@@ -0,0 +1,8 @@
+package com.daking.leave.repository;
+
+/**
+ * Lowest and highest user id among the balances of a year, both
+ * {@code null} when there are none.
+ */
+public record UserIdRangeRow(Long minUserId, Long maxUserId) {
+}
@@ -3,21 +3,25 @@ package com.daking.leave.security;
 import com.daking.auth.api.dto.UserResponseDTO;
 import com.daking.leave.model.Document;
 import com.daking.leave.repository.DocumentRepository;
+import com.daking.leave.client.UserDirectory;
 import com.daking.leave.client.UserInfoClient;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
-
 @Component
 public class DocumentSecurity {
     private final DocumentRepository documentRepository;
     private final UserInfoClient userInfoClient;
+    private final UserDirectory userDirectory;
+    private final ManagerScopeService managerScopeService;
 
     @Autowired
-    public DocumentSecurity(DocumentRepository documentRepository, UserInfoClient userInfoClient) {
+    public DocumentSecurity(DocumentRepository documentRepository, UserInfoClient userInfoClient,
+            UserDirectory userDirectory, ManagerScopeService managerScopeService) {
         this.documentRepository = documentRepository;
         this.userInfoClient = userInfoClient;
+        this.userDirectory = userDirectory;
+        this.managerScopeService = managerScopeService;
     }
 
     /**
@@ -61,11 +65,10 @@ public class DocumentSecurity {
         }
 
         if ("MANAGER".equals(role)) {
-            List<Long> managedDepts = userInfoClient.getDepartmentsManaged(currentUserId);
-            UserResponseDTO owner = userInfoClient.getUserById(doc.getUserId());
+            UserResponseDTO owner = userDirectory.getUserById(doc.getUserId());
 
-            if (owner != null && owner.getDepartmentId() != null && managedDepts != null) {
-                return managedDepts.contains(owner.getDepartmentId());
+            if (owner != null && owner.getDepartmentId() != null) {
+                return managerScopeService.manages(currentUserId, owner.getDepartmentId());
             }
         }
 
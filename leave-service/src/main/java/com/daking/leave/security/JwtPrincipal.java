@@ -0,0 +1,88 @@
+package com.daking.leave.security;
+
+import com.daking.auth.api.model.Role;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Authenticated caller as described by the claims of its JWT.
+ * <p>
+ * {@link #getUsername()} is the user id as a string, which is what the
+ * controllers have always received as principal. Tokens issued before the
+ * directory claims were added carry no {@code directoryVersion}; their claims
+ * must not be used for authorization decisions.
+ */
+@Getter
+public class JwtPrincipal implements UserDetails {
+
+    private final Long userId;
+    private final Role role;
+    private final Long departmentId;
+    private final ManagedDepartments managedDepartments;
+    private final Long directoryVersion;
+    private final Instant issuedAt;
+    private final List<? extends GrantedAuthority> authorities;
+
+    public JwtPrincipal(Long userId, Role role, Long departmentId, ManagedDepartments managedDepartments,
+            Long directoryVersion, Instant issuedAt, List<? extends GrantedAuthority> authorities) {
+        this.userId = userId;
+        this.role = role;
+        this.departmentId = departmentId;
+        this.managedDepartments = managedDepartments != null ? managedDepartments : ManagedDepartments.none();
+        this.directoryVersion = directoryVersion;
+        this.issuedAt = issuedAt;
+        this.authorities = List.copyOf(authorities);
+    }
+
+    /**
+     * Whether the token carries the directory claims at all.
+     */
+    public boolean hasDirectoryClaims() {
+        return directoryVersion != null && issuedAt != null && role != null;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return null;
+    }
+
+    @Override
+    public String getUsername() {
+        return String.valueOf(userId);
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return getUsername();
+    }
+}
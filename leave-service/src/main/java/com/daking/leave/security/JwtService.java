@@ -1,12 +1,15 @@
 package com.daking.leave.security;
 
+import com.daking.auth.api.model.Role;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Service;
 
 import java.security.Key;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -55,6 +58,38 @@ public class JwtService {
         }
     }
 
+    /**
+     * Parses and verifies the token once and builds the principal from its
+     * claims, or returns {@code null} when the token is invalid or carries no
+     * user id.
+     */
+    public JwtPrincipal parsePrincipal(String token) {
+        final Claims claims;
+        try {
+            claims = Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token).getBody();
+        } catch (io.jsonwebtoken.JwtException | IllegalArgumentException e) {
+            return null;
+        }
+        Long userId = toLong(claims.get("userId"));
+        if (userId == null) {
+            return null;
+        }
+        List<SimpleGrantedAuthority> authorities = toList(claims.get("roles")).stream()
+                .map(role -> new SimpleGrantedAuthority(String.valueOf(role)))
+                .collect(Collectors.toList());
+        List<Long> managedDepartmentIds = toList(claims.get("mdep")).stream()
+                .map(JwtService::toLong)
+                .collect(Collectors.toList());
+        return new JwtPrincipal(
+                userId,
+                toRole(claims.get("role", String.class)),
+                toLong(claims.get("departmentId")),
+                ManagedDepartments.of(managedDepartmentIds),
+                toLong(claims.get("dv")),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                authorities);
+    }
+
     public Date extractExpiration(String token) {
         try {
             Claims claims = Jwts.parserBuilder().setSigningKey(getSigningKey()).build().parseClaimsJws(token).getBody();
@@ -64,6 +99,23 @@ public class JwtService {
         }
     }
 
+    // Numeric claims come back as Integer or Long depending on their size
+    private static Long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    private static List<?> toList(Object value) {
+        return value instanceof List<?> list ? list : Collections.emptyList();
+    }
+
+    private static Role toRole(String role) {
+        try {
+            return role != null ? Role.valueOf(role) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
     private Key getSigningKey() {
         // For HS256, key should be at least 256 bits (32 bytes)
         return Keys.hmacShaKeyFor(jwtSecret.getBytes());
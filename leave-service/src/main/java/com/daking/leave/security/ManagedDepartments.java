@@ -0,0 +1,67 @@
+package com.daking.leave.security;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Immutable set of department ids managed by one manager, stored as a sorted
+ * primitive array.
+ */
+public final class ManagedDepartments {
+
+    private static final ManagedDepartments NONE = new ManagedDepartments(new long[0]);
+
+    private final long[] departmentIds;
+
+    private ManagedDepartments(long[] departmentIds) {
+        this.departmentIds = departmentIds;
+    }
+
+    public static ManagedDepartments none() {
+        return NONE;
+    }
+
+    public static ManagedDepartments of(Collection<Long> departmentIds) {
+        if (departmentIds == null || departmentIds.isEmpty()) {
+            return NONE;
+        }
+        long[] ids = departmentIds.stream()
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .sorted()
+                .distinct()
+                .toArray();
+        return ids.length == 0 ? NONE : new ManagedDepartments(ids);
+    }
+
+    public boolean contains(Long departmentId) {
+        return departmentId != null && Arrays.binarySearch(departmentIds, departmentId) >= 0;
+    }
+
+    public boolean isEmpty() {
+        return departmentIds.length == 0;
+    }
+
+    public int size() {
+        return departmentIds.length;
+    }
+
+    /**
+     * Returns the ids as a new list, e.g. for repository IN queries.
+     */
+    public List<Long> toList() {
+        List<Long> ids = new ArrayList<>(departmentIds.length);
+        for (long id : departmentIds) {
+            ids.add(id);
+        }
+        return ids;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(departmentIds);
+    }
+}
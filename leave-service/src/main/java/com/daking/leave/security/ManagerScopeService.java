@@ -0,0 +1,87 @@
+package com.daking.leave.security;
+
+import com.daking.leave.client.DepartmentManagerChangedEvent;
+import com.daking.leave.client.UserDirectoryReplica;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Caches the set of departments each manager is responsible for, so that
+ * manager authorization checks are in-memory lookups.
+ * <p>
+ * Entries are dropped when the directory replica sees a department change
+ * manager (see {@code DepartmentServiceImpl.updateDepartmentManager} in
+ * auth-service). That event only arrives while the replica keeps syncing, so
+ * entries also expire after {@code app.manager-scope.expire-after-write},
+ * capped at the replica's {@code max-staleness}. While the replica is not
+ * synced, scopes are read from auth-service and not cached, since no event
+ * would invalidate them.
+ */
+@Service
+@Slf4j
+public class ManagerScopeService {
+
+    private final UserDirectoryReplica userDirectoryReplica;
+
+    private final LoadingCache<Long, ManagedDepartments> scopes;
+
+    public ManagerScopeService(UserDirectoryReplica userDirectoryReplica, MeterRegistry meterRegistry,
+            @Value("${app.manager-scope.maximum-size:10000}") long maximumSize,
+            @Value("${app.manager-scope.expire-after-write:PT10M}") Duration expireAfterWrite,
+            @Value("${app.user-directory.replica.max-staleness:PT2M}") Duration replicaMaxStaleness) {
+        this.userDirectoryReplica = userDirectoryReplica;
+        this.scopes = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(min(expireAfterWrite, replicaMaxStaleness))
+                .recordStats()
+                .build(managerId -> ManagedDepartments.of(userDirectoryReplica.getDepartmentsManaged(managerId)));
+        CaffeineCacheMetrics.monitor(meterRegistry, scopes, "managerScope");
+    }
+
+    /**
+     * Departments managed by the given user; empty for non-managers.
+     */
+    public ManagedDepartments getManagedDepartments(Long managerId) {
+        if (managerId == null) {
+            return ManagedDepartments.none();
+        }
+        if (!userDirectoryReplica.isSynced()) {
+            return ManagedDepartments.of(userDirectoryReplica.getDepartmentsManaged(managerId));
+        }
+        return scopes.get(managerId);
+    }
+
+    public boolean manages(Long managerId, Long departmentId) {
+        return departmentId != null && getManagedDepartments(managerId).contains(departmentId);
+    }
+
+    @EventListener
+    public void onDepartmentManagerChanged(DepartmentManagerChangedEvent event) {
+        log.debug("Manager of department {} changed from {} to {}", event.departmentId(),
+                event.previousManagerId(), event.managerId());
+        invalidate(event.previousManagerId());
+        invalidate(event.managerId());
+    }
+
+    public void invalidate(Long managerId) {
+        if (managerId != null) {
+            scopes.invalidate(managerId);
+        }
+    }
+
+    public void invalidateAll() {
+        scopes.invalidateAll();
+    }
+
+    private static Duration min(Duration a, Duration b) {
+        return a.compareTo(b) <= 0 ? a : b;
+    }
+}
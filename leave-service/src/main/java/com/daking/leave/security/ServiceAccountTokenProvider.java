@@ -2,44 +2,144 @@ package com.daking.leave.security;
 
 import com.daking.auth.api.dto.LoginRequest;
 import com.daking.leave.client.AuthClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 import java.util.Map;
+import java.util.function.Function;
 
+/**
+ * Supplies the service-account access token attached to every auth-service
+ * request.
+ * <p>
+ * Reads are lock-free: the current token lives in a volatile immutable
+ * holder. A background task logs in again once {@code refresh-fraction} of
+ * the token lifetime has passed, retrying with exponential backoff on
+ * failure, so callers normally never wait for a login. Only when there is no
+ * unexpired token at all does a caller log in itself, and concurrent callers
+ * then share that single login.
+ * <p>
+ * Metrics: {@code serviceAccountToken.age}, {@code serviceAccountToken.ttl},
+ * {@code serviceAccountToken.refreshes} and
+ * {@code serviceAccountToken.refresh.failures}.
+ */
 @Service
+@Slf4j
 public class ServiceAccountTokenProvider {
 
     private final String serviceAccountEmail;
     private final String serviceAccountPassword;
     private final AuthClient authClient;
     private final JwtService jwtService;
+    private final double refreshFraction;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Counter refreshes;
+    private final Counter refreshFailures;
+    private final Object loginLock = new Object();
 
-    private String cachedToken;
-    private Date tokenExpiry;
+    private volatile Token current;
+    private volatile Instant nextAttempt = Instant.EPOCH;
+    private volatile Duration backoff;
 
     public ServiceAccountTokenProvider(
             @Value("${service.account.email}") String serviceAccountEmail,
             @Value("${service.account.password}") String serviceAccountPassword,
             AuthClient authClient,
-            JwtService jwtService) {
+            JwtService jwtService,
+            MeterRegistry meterRegistry,
+            @Value("${service.account.token.refresh-fraction:0.75}") double refreshFraction,
+            @Value("${service.account.token.initial-backoff:PT1S}") Duration initialBackoff,
+            @Value("${service.account.token.max-backoff:PT1M}") Duration maxBackoff) {
+        if (refreshFraction <= 0 || refreshFraction >= 1) {
+            throw new IllegalArgumentException("service.account.token.refresh-fraction must be between 0 and 1");
+        }
         this.serviceAccountEmail = serviceAccountEmail;
         this.serviceAccountPassword = serviceAccountPassword;
         this.authClient = authClient;
         this.jwtService = jwtService;
+        this.refreshFraction = refreshFraction;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.backoff = initialBackoff;
+        this.refreshes = meterRegistry.counter("serviceAccountToken.refreshes");
+        this.refreshFailures = meterRegistry.counter("serviceAccountToken.refresh.failures");
+        Gauge.builder("serviceAccountToken.age", this,
+                provider -> provider.secondsSince(Token::obtainedAt))
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("serviceAccountToken.ttl", this,
+                provider -> -provider.secondsSince(Token::expiresAt))
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    public String getToken() {
+        Token token = current;
+        if (token != null && token.isValid(Instant.now())) {
+            return token.value();
+        }
+        synchronized (loginLock) {
+            token = current;
+            if (token != null && token.isValid(Instant.now())) {
+                return token.value();
+            }
+            return login().value();
+        }
+    }
+
+    /**
+     * Logs in again ahead of expiry. Failures are retried with exponential
+     * backoff while the current token, if any, keeps being served.
+     */
+    @Scheduled(initialDelayString = "${service.account.token.check-interval:PT1S}",
+            fixedDelayString = "${service.account.token.check-interval:PT1S}")
+    public void refreshIfDue() {
+        Instant now = Instant.now();
+        Token token = current;
+        if ((token != null && now.isBefore(token.refreshAt())) || now.isBefore(nextAttempt)) {
+            return;
+        }
+        synchronized (loginLock) {
+            if (current != token) {
+                return;
+            }
+            try {
+                login();
+            } catch (Exception e) {
+                nextAttempt = Instant.now().plus(backoff);
+                log.warn("Service account token refresh failed, retrying in {}: {}", backoff, e.getMessage());
+                Duration doubled = backoff.multipliedBy(2);
+                backoff = doubled.compareTo(maxBackoff) > 0 ? maxBackoff : doubled;
+            }
+        }
     }
 
-    public synchronized String getToken() {
-        if (cachedToken == null || new Date().after(tokenExpiry)) {
-            fetchAndCacheToken();
+    private Token login() {
+        try {
+            Token token = fetchToken();
+            current = token;
+            backoff = initialBackoff;
+            nextAttempt = Instant.EPOCH;
+            refreshes.increment();
+            return token;
+        } catch (RuntimeException e) {
+            refreshFailures.increment();
+            throw e;
         }
-        return cachedToken;
     }
 
-    private void fetchAndCacheToken() {
+    private Token fetchToken() {
         LoginRequest loginRequest = new LoginRequest();
         loginRequest.setEmail(serviceAccountEmail);
         loginRequest.setPassword(serviceAccountPassword);
@@ -51,17 +151,35 @@ public class ServiceAccountTokenProvider {
             if (newAccessToken == null) {
                 throw new RuntimeException("accessToken not found in login response");
             }
-            this.cachedToken = newAccessToken; // Cache the raw token
 
             // Extract expiry date from the new token using the dedicated service method
-            this.tokenExpiry = jwtService.extractExpiration(newAccessToken);
-            if (this.tokenExpiry == null) {
+            Date tokenExpiry = jwtService.extractExpiration(newAccessToken);
+            if (tokenExpiry == null) {
                 throw new RuntimeException("Could not extract expiration from service account token");
             }
-
+            Instant obtainedAt = Instant.now();
+            Instant expiresAt = tokenExpiry.toInstant();
+            long lifetimeMillis = Math.max(0, expiresAt.toEpochMilli() - obtainedAt.toEpochMilli());
+            Instant refreshAt = obtainedAt.plusMillis((long) (lifetimeMillis * refreshFraction));
+            return new Token(newAccessToken, obtainedAt, refreshAt, expiresAt);
         } else {
             throw new RuntimeException(
                     "Failed to fetch service account token. Status: " + response.getStatusCode());
         }
     }
-}
\ No newline at end of file
+
+    private double secondsSince(Function<Token, Instant> instant) {
+        Token token = current;
+        if (token == null) {
+            return Double.NaN;
+        }
+        return (System.currentTimeMillis() - instant.apply(token).toEpochMilli()) / 1000.0;
+    }
+
+    private record Token(String value, Instant obtainedAt, Instant refreshAt, Instant expiresAt) {
+
+        boolean isValid(Instant now) {
+            return now.isBefore(expiresAt);
+        }
+    }
+}
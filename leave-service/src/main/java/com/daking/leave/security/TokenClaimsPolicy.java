@@ -0,0 +1,43 @@
+package com.daking.leave.security;
+
+import com.daking.leave.client.UserDirectoryReplica;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Decides whether the directory claims of a token (role, department and
+ * managed departments) can stand in for a directory lookup.
+ * <p>
+ * Claims are trusted when the token is younger than
+ * {@code app.jwt.trusted-claims-max-age} and the synced directory replica
+ * shows no change to the user or the departments involved since the
+ * directory version the token was issued at, nor any applied after the token
+ * was issued. Otherwise callers fall back to the directory.
+ */
+@Component
+public class TokenClaimsPolicy {
+
+    private final UserDirectoryReplica userDirectoryReplica;
+    private final Duration maxAge;
+
+    public TokenClaimsPolicy(UserDirectoryReplica userDirectoryReplica,
+            @Value("${app.jwt.trusted-claims-max-age:PT15M}") Duration maxAge) {
+        this.userDirectoryReplica = userDirectoryReplica;
+        this.maxAge = maxAge;
+    }
+
+    public boolean isFresh(JwtPrincipal principal) {
+        if (principal == null || !principal.hasDirectoryClaims()) {
+            return false;
+        }
+        if (principal.getIssuedAt().plus(maxAge).isBefore(Instant.now())) {
+            return false;
+        }
+        return userDirectoryReplica.isUnchangedSince(principal.getUserId(),
+                principal.getManagedDepartments().toList(), principal.getDirectoryVersion(),
+                principal.getIssuedAt());
+    }
+}
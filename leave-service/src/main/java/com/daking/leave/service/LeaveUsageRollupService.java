@@ -0,0 +1,103 @@
+package com.daking.leave.service;
+
+import com.daking.leave.model.Leave;
+import com.daking.leave.repository.LeaveUsageRollupRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Keeps {@code leave_usage_rollup} in step with {@code leaves}.
+ * <p>
+ * Every leave write that creates a leave or changes its status calls this
+ * service inside the same transaction, so a bucket never drifts from the
+ * leaves it summarizes. A leave spanning several months adds to each month
+ * the share of its days that falls in that month, and counts as one request
+ * in the month it starts. {@link #rebuild()} recomputes all buckets from
+ * scratch with the same split.
+ * <p>
+ * Metrics: {@code leaveUsageRollup.rebuild}.
+ */
+@Service
+@Slf4j
+public class LeaveUsageRollupService {
+
+    private final LeaveUsageRollupRepository rollupRepository;
+    private final Timer rebuildTimer;
+
+    public LeaveUsageRollupService(LeaveUsageRollupRepository rollupRepository, MeterRegistry meterRegistry) {
+        this.rollupRepository = rollupRepository;
+        this.rebuildTimer = meterRegistry.timer("leaveUsageRollup.rebuild");
+    }
+
+    @Transactional
+    public void recordCreated(Leave leave) {
+        add(leave, leave.getStatus(), 1);
+    }
+
+    /**
+     * Moves a leave from the bucket of {@code previousStatus} to the bucket of
+     * its current status.
+     */
+    @Transactional
+    public void recordStatusChange(Leave leave, Leave.LeaveStatus previousStatus) {
+        if (previousStatus == leave.getStatus()) {
+            return;
+        }
+        add(leave, previousStatus, -1);
+        add(leave, leave.getStatus(), 1);
+    }
+
+    /**
+     * Replaces every bucket with one computed from the current leaves. Leave
+     * writes that touch the rollup wait until the rebuild commits.
+     *
+     * @return the number of buckets written
+     */
+    @Transactional
+    public int rebuild() {
+        return rebuildTimer.record(() -> {
+            rollupRepository.lockForRebuild();
+            rollupRepository.deleteAllBuckets();
+            int buckets = rollupRepository.insertBucketsFromLeaves();
+            log.info("Rebuilt leave usage rollup with {} buckets", buckets);
+            return buckets;
+        });
+    }
+
+    /**
+     * Optional periodic rebuild, disabled unless
+     * {@code app.leave-usage-rollup.rebuild-cron} is set.
+     */
+    @Scheduled(cron = "${app.leave-usage-rollup.rebuild-cron:-}")
+    public void scheduledRebuild() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("Scheduled leave usage rollup rebuild failed", e);
+        }
+    }
+
+    private void add(Leave leave, Leave.LeaveStatus status, int sign) {
+        LocalDate start = leave.getStartDate();
+        LocalDate end = leave.getEndDate();
+        double totalDays = leave.getTotalDays() != null ? leave.getTotalDays() : 0.0;
+        long spanDays = ChronoUnit.DAYS.between(start, end) + 1;
+        YearMonth last = YearMonth.from(end);
+        for (YearMonth month = YearMonth.from(start); !month.isAfter(last); month = month.plusMonths(1)) {
+            LocalDate from = start.isAfter(month.atDay(1)) ? start : month.atDay(1);
+            LocalDate to = end.isBefore(month.atEndOfMonth()) ? end : month.atEndOfMonth();
+            double days = totalDays * (ChronoUnit.DAYS.between(from, to) + 1) / spanDays;
+            long requests = month.equals(YearMonth.from(start)) ? 1 : 0;
+            rollupRepository.addToBucket(month.getYear(), month.getMonthValue(), leave.getDepartmentId(),
+                    leave.getLeaveType().getId(), status.name(), sign * days, sign * requests);
+        }
+    }
+}
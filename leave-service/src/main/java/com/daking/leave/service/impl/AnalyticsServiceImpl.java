@@ -0,0 +1,146 @@
+package com.daking.leave.service.impl;
+
+import com.daking.auth.api.dto.UserResponseDTO;
+import com.daking.leave.client.UserDirectoryReplica;
+import com.daking.leave.client.UserEnrichment;
+import com.daking.leave.repository.BalanceAlertRow;
+import com.daking.leave.repository.IdBatches;
+import com.daking.leave.repository.LeaveBalanceRepository;
+import com.daking.leave.repository.LeaveTypeTotalRow;
+import com.daking.leave.repository.LeaveUsageRollupRepository;
+import com.daking.leave.repository.PeriodTotalRow;
+import com.daking.leave.repository.UserBalanceTotalsRow;
+import com.daking.leave.service.interfaces.AnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Month;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class AnalyticsServiceImpl implements AnalyticsService {
+
+    private static final double LOW_BALANCE_THRESHOLD = 3;
+
+    private final LeaveUsageRollupRepository leaveUsageRollupRepository;
+    private final LeaveBalanceRepository leaveBalanceRepository;
+    private final UserDirectoryReplica userDirectoryReplica;
+    private final UserEnrichment userEnrichment;
+    private final IdBatches idBatches;
+
+    @Override
+    public Map<String, Object> getDepartmentDistribution(Integer year, Long departmentId) {
+        List<UserResponseDTO> users = userDirectoryReplica.getUsersByRole("STAFF");
+        Map<String, Object> result = new HashMap<>();
+        if (users == null || users.isEmpty()) {
+            return result;
+        }
+        List<UserResponseDTO> selected = users.stream()
+                .filter(user -> departmentId == null || departmentId.equals(user.getDepartmentId()))
+                .collect(Collectors.toList());
+        List<Long> userIds = selected.stream().map(UserResponseDTO::getId).collect(Collectors.toList());
+        Map<Long, UserBalanceTotalsRow> totals = idBatches.query(userIds,
+                chunk -> year == null ? leaveBalanceRepository.sumByUser(chunk)
+                        : leaveBalanceRepository.sumByUserForYear(chunk, year))
+                .stream()
+                .collect(Collectors.toMap(UserBalanceTotalsRow::userId, Function.identity()));
+
+        for (UserResponseDTO user : selected) {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> stats = (Map<String, Object>) result.computeIfAbsent(departmentName(user),
+                    name -> new HashMap<String, Object>(Map.of("usedDays", 0.0, "totalDays", 0.0,
+                            "remainingDays", 0.0)));
+            UserBalanceTotalsRow row = totals.get(user.getId());
+            if (row != null) {
+                stats.merge("usedDays", row.usedDays(), (a, b) -> (double) a + (double) b);
+                stats.merge("totalDays", row.totalDays(), (a, b) -> (double) a + (double) b);
+                stats.merge("remainingDays", row.remainingDays(), (a, b) -> (double) a + (double) b);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Object> getUsageTrends(int year, String interval) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        Map<Integer, Double> months = toMap(leaveUsageRollupRepository.sumDaysByMonth(year));
+        if ("MONTHLY".equalsIgnoreCase(interval)) {
+            for (int m = 1; m <= 12; m++) {
+                result.put(Month.of(m).name().substring(0, 3), months.getOrDefault(m, 0.0));
+            }
+        } else if ("QUARTERLY".equalsIgnoreCase(interval)) {
+            for (int q = 1; q <= 4; q++) {
+                double sum = 0.0;
+                for (int m = 3 * q - 2; m <= 3 * q; m++) {
+                    sum += months.getOrDefault(m, 0.0);
+                }
+                result.put("Q" + q, sum);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public List<Map<String, Object>> getBalanceAlerts(Long departmentId) {
+        List<BalanceAlertRow> rows;
+        if (departmentId == null) {
+            rows = leaveBalanceRepository.findLowBalances(LOW_BALANCE_THRESHOLD);
+        } else {
+            List<Long> memberIds = userDirectoryReplica.getTeamMembers(departmentId).stream()
+                    .map(UserResponseDTO::getId)
+                    .collect(Collectors.toList());
+            rows = idBatches.query(memberIds, chunk -> leaveBalanceRepository.findLowBalances(LOW_BALANCE_THRESHOLD, chunk));
+        }
+        Map<Long, UserResponseDTO> users = userEnrichment.resolve(rows, BalanceAlertRow::userId);
+
+        List<Map<String, Object>> alerts = new ArrayList<>(rows.size());
+        for (BalanceAlertRow row : rows) {
+            UserResponseDTO user = users.get(row.userId());
+            Map<String, Object> alert = new HashMap<>();
+            alert.put("userName", user != null ? user.getFullName() : "Unknown");
+            alert.put("department", departmentName(user));
+            alert.put("leaveType", row.leaveTypeName());
+            alert.put("remainingDays", row.remainingDays());
+            alerts.add(alert);
+        }
+        return alerts;
+    }
+
+    @Override
+    public Map<String, Object> getYtdConsumption(int year) {
+        Map<String, Object> result = new HashMap<>();
+        for (LeaveTypeTotalRow row : leaveUsageRollupRepository.sumDaysByLeaveType(year)) {
+            result.put(row.leaveTypeName(), row.totalDays());
+        }
+        return result;
+    }
+
+    @Override
+    public Map<String, Object> getCarryoverStats(int year) {
+        List<UserBalanceTotalsRow> rows = leaveBalanceRepository.sumByUserForYear(year);
+        Map<Long, UserResponseDTO> users = userEnrichment.resolve(rows, UserBalanceTotalsRow::userId);
+        Map<String, Object> result = new HashMap<>();
+        for (UserBalanceTotalsRow row : rows) {
+            result.merge(departmentName(users.get(row.userId())), row.carriedOverDays(),
+                    (a, b) -> (double) a + (double) b);
+        }
+        return result;
+    }
+
+    private static String departmentName(UserResponseDTO user) {
+        return user != null && user.getDepartmentId() != null ? "Department " + user.getDepartmentId() : "Unknown";
+    }
+
+    private static Map<Integer, Double> toMap(List<PeriodTotalRow> rows) {
+        return rows.stream().collect(Collectors.toMap(PeriodTotalRow::period, PeriodTotalRow::totalDays));
+    }
+}
@@ -8,23 +8,30 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.transaction.annotation.Transactional;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.UUID;
 import org.springframework.beans.factory.annotation.Value;
 import java.io.File;
 import java.io.IOException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.daking.leave.repository.IdBatches;
 import com.daking.leave.repository.LeaveRepository;
-import com.daking.leave.client.UserInfoClient;
+import com.daking.leave.client.UserDirectory;
+import com.daking.leave.client.UserEnrichment;
 import com.daking.auth.api.dto.UserResponseDTO;
-import com.daking.leave.model.Leave;
+import com.daking.leave.repository.DocumentLeaveTypeRow;
 
 @Service
 public class DocumentServiceImpl implements DocumentService {
     private final DocumentRepository documentRepository;
     private final LeaveRepository leaveRepository;
-    private final UserInfoClient userInfoClient;
+    private final UserDirectory userDirectory;
+    private final UserEnrichment userEnrichment;
+    private final IdBatches idBatches;
     private static final Logger logger = LoggerFactory.getLogger(DocumentServiceImpl.class);
 
     @Value("${app.document.upload.dir:./uploads/documents}")
@@ -32,10 +39,12 @@ public class DocumentServiceImpl implements DocumentService {
 
     @Autowired
     public DocumentServiceImpl(DocumentRepository documentRepository, LeaveRepository leaveRepository,
-            UserInfoClient userInfoClient) {
+            UserDirectory userDirectory, UserEnrichment userEnrichment, IdBatches idBatches) {
         this.documentRepository = documentRepository;
         this.leaveRepository = leaveRepository;
-        this.userInfoClient = userInfoClient;
+        this.userDirectory = userDirectory;
+        this.userEnrichment = userEnrichment;
+        this.idBatches = idBatches;
     }
 
     @Override
@@ -85,10 +94,7 @@ public class DocumentServiceImpl implements DocumentService {
 
     @Override
     public List<DocumentResponse> getDocumentsByUser(Long userId) {
-        return documentRepository.findByUserId(userId)
-                .stream()
-                .map(this::toResponse)
-                .toList();
+        return toResponses(documentRepository.findByUserId(userId));
     }
 
     @Override
@@ -113,6 +119,32 @@ public class DocumentServiceImpl implements DocumentService {
 
     @Override
     public DocumentResponse toResponse(Document doc) {
+        UserResponseDTO user;
+        try {
+            user = userDirectory.getUserById(doc.getUserId());
+        } catch (Exception e) {
+            logger.warn("Could not enrich document {} with user name: {}", doc.getId(), e.getMessage());
+            DocumentResponse dto = toResponse(doc, null);
+            dto.setEmployeeName("N/A");
+            return dto;
+        }
+        return toResponse(doc, user);
+    }
+
+    @Override
+    public List<DocumentResponse> toResponses(List<Document> documents) {
+        Map<Long, String> leaveTypeNames = leaveTypeNamesOf(documents);
+        return userEnrichment.enrich(documents, Document::getUserId,
+                (doc, user) -> toResponse(doc, user, leaveTypeNames.getOrDefault(doc.getId(), "")));
+    }
+
+    @Override
+    public DocumentResponse toResponse(Document doc, UserResponseDTO user) {
+        return toResponse(doc, user, leaveTypeNamesOf(List.of(doc)).getOrDefault(doc.getId(), ""));
+    }
+
+    @Override
+    public DocumentResponse toResponse(Document doc, UserResponseDTO user, String leaveTypeName) {
         DocumentResponse dto = new DocumentResponse();
         dto.setId(doc.getId());
         dto.setUserId(doc.getUserId());
@@ -123,27 +155,25 @@ public class DocumentServiceImpl implements DocumentService {
         dto.setCreatedAt(doc.getCreatedAt());
         dto.setStatus(doc.getStatus());
         // Enrich with employee name
-        try {
-            UserResponseDTO user = userInfoClient.getUserById(doc.getUserId());
-            if (user != null) {
-                dto.setEmployeeName(user.getFirstName() + " " + user.getLastName());
-            }
-        } catch (Exception e) {
-            logger.warn("Could not enrich document {} with user name: {}", doc.getId(), e.getMessage());
-            dto.setEmployeeName("N/A");
+        if (user != null) {
+            dto.setEmployeeName(user.getFirstName() + " " + user.getLastName());
         }
-        // Enrich with leave type name
+        dto.setLeaveTypeName(leaveTypeName != null ? leaveTypeName : "");
+        return dto;
+    }
+
+    // Leave type name per document id, from the earliest leave it is attached to
+    private Map<Long, String> leaveTypeNamesOf(List<Document> documents) {
+        List<Long> ids = documents.stream().map(Document::getId).filter(Objects::nonNull).distinct().toList();
+        Map<Long, String> names = new HashMap<>();
         try {
-            List<Leave> leaves = leaveRepository.findByDocumentId(doc.getId());
-            if (leaves != null && !leaves.isEmpty() && leaves.get(0).getLeaveType() != null) {
-                dto.setLeaveTypeName(leaves.get(0).getLeaveType().getName());
-            } else {
-                dto.setLeaveTypeName("");
+            for (DocumentLeaveTypeRow row : idBatches.query(ids, leaveRepository::findLeaveTypeNamesByDocumentIds)) {
+                names.putIfAbsent(row.documentId(), row.leaveTypeName());
             }
         } catch (Exception e) {
-            dto.setLeaveTypeName("");
+            logger.warn("Could not resolve leave type names for {} documents: {}", ids.size(), e.getMessage());
         }
-        return dto;
+        return names;
     }
 
     @Override
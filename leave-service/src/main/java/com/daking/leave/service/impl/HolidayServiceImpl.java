@@ -6,13 +6,17 @@ import com.daking.leave.repository.HolidayRepository;
 import com.daking.leave.service.interfaces.HolidayService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.RestClientException;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -22,6 +26,9 @@ public class HolidayServiceImpl implements HolidayService {
     private final HolidayRepository holidayRepository;
     private final RestTemplate restTemplate;
 
+    @Value("${app.holidays.public-holidays-url:https://date.nager.at/api/v3/PublicHolidays}")
+    private String publicHolidaysUrl;
+
     @Override
     public List<HolidayResponse> getAllHolidays() {
         List<Holiday> holidays = holidayRepository.findAll();
@@ -90,7 +97,7 @@ public class HolidayServiceImpl implements HolidayService {
             throw new IllegalArgumentException("Year must be between 1900 and 2100");
         }
 
-        String url = "https://date.nager.at/api/v3/PublicHolidays/" + year + "/US";
+        String url = publicHolidaysUrl + "/" + year + "/US";
 
         try {
             PublicHolidayDTO[] holidays = restTemplate.getForObject(url, PublicHolidayDTO[].class);
@@ -102,24 +109,26 @@ public class HolidayServiceImpl implements HolidayService {
 
             log.info("Fetched {} holidays from Nager.Date API for year {}", holidays.length, year);
 
-            int saved = 0;
+            // Existing holidays of the year in one query instead of one lookup per fetched holiday
+            Set<String> existing = holidayRepository
+                    .findByDateBetween(LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31)).stream()
+                    .map(holiday -> holiday.getName() + "|" + holiday.getDate())
+                    .collect(Collectors.toCollection(HashSet::new));
+            List<Holiday> imported = new ArrayList<>();
             int skipped = 0;
 
             for (PublicHolidayDTO dto : holidays) {
                 try {
                     LocalDate holidayDate = LocalDate.parse(dto.getDate());
 
-                    // Check if holiday already exists
-                    if (!holidayRepository.existsByNameAndDate(dto.getLocalName(), holidayDate)) {
+                    if (existing.add(dto.getLocalName() + "|" + holidayDate)) {
                         Holiday holiday = new Holiday();
                         holiday.setName(dto.getLocalName());
                         holiday.setDate(holidayDate);
                         holiday.setDescription(dto.getName());
                         holiday.setPublic(true);
-
-                        holidayRepository.save(holiday);
-                        saved++;
-                        log.debug("Saved holiday: {} on {}", dto.getLocalName(), holidayDate);
+                        imported.add(holiday);
+                        log.debug("Importing holiday: {} on {}", dto.getLocalName(), holidayDate);
                     } else {
                         skipped++;
                         log.debug("Skipped duplicate holiday: {} on {}", dto.getLocalName(), holidayDate);
@@ -129,7 +138,9 @@ public class HolidayServiceImpl implements HolidayService {
                 }
             }
 
-            log.info("Import completed. Saved: {}, Skipped: {}", saved, skipped);
+            holidayRepository.saveAll(imported);
+
+            log.info("Import completed. Saved: {}, Skipped: {}", imported.size(), skipped);
 
         } catch (RestClientException e) {
             log.error("Failed to fetch holidays from API for year {}: {}", year, e.getMessage(), e);
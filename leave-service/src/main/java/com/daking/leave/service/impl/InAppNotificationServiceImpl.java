@@ -104,6 +104,16 @@ public class InAppNotificationServiceImpl implements InAppNotificationService {
         }
     }
 
+    @Override
+    public int markAllAsRead(Long userId) {
+        if (userId == null || userId <= 0) {
+            throw new ValidationException("User ID must be a positive number");
+        }
+        int marked = notificationRepository.markAllAsRead(userId);
+        log.debug("Marked {} notifications of user {} as read", marked, userId);
+        return marked;
+    }
+
     private NotificationResponse toResponse(Notification notification) {
         if (notification == null) {
             return null;
@@ -1,12 +1,18 @@
 package com.daking.leave.service.impl;
 
+import com.daking.leave.batch.BatchJobResult;
+import com.daking.leave.batch.BatchJobRunner;
 import com.daking.leave.dto.request.LeaveBalanceAdjustmentRequest;
 import com.daking.leave.dto.response.LeaveBalanceResponse;
 import com.daking.leave.model.LeaveBalance;
 import com.daking.leave.model.LeaveType;
+import com.daking.leave.repository.IdBatches;
 import com.daking.leave.repository.LeaveBalanceRepository;
 import com.daking.leave.repository.LeaveTypeRepository;
+import com.daking.leave.repository.UserIdRangeRow;
 import com.daking.leave.service.interfaces.LeaveBalanceService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -14,24 +20,40 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.daking.leave.service.SettingsService;
 import com.daking.leave.service.interfaces.NotificationService;
+import com.daking.leave.client.UserDirectoryReplica;
 import com.daking.leave.client.UserInfoClient;
 import com.daking.auth.api.dto.UserResponseDTO;
 import com.daking.auth.api.model.Role;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class LeaveBalanceServiceImpl implements LeaveBalanceService {
+    private static final String ACCRUAL_JOB = "monthlyAccrual";
+    private static final String CARRY_OVER_JOB = "carryOver";
+
     private final LeaveBalanceRepository leaveBalanceRepository;
     private final LeaveTypeRepository leaveTypeRepository;
     private final SettingsService settingsService;
     private final NotificationService notificationService;
     private final UserInfoClient userInfoClient;
+    private final UserDirectoryReplica userDirectoryReplica;
+    private final MeterRegistry meterRegistry;
+    private final BatchJobRunner batchJobRunner;
+    private final IdBatches idBatches;
 
     @Override
     public List<LeaveBalanceResponse> getLeaveBalancesByUser(Long userId) {
@@ -68,17 +90,7 @@ public class LeaveBalanceServiceImpl implements LeaveBalanceService {
         int year = LocalDate.now().getYear();
         LeaveBalance balance = leaveBalanceRepository
                 .findByUserIdAndLeaveTypeAndYear(request.getUserId(), leaveType, year)
-                .orElseGet(() -> {
-                    LeaveBalance b = new LeaveBalance();
-                    b.setUserId(request.getUserId());
-                    b.setLeaveType(leaveType);
-                    b.setYear(year);
-                    b.setTotalDays(leaveType.getDefaultDays());
-                    b.setUsedDays(0.0);
-                    b.setRemainingDays(leaveType.getDefaultDays());
-                    b.setCarriedOverDays(0.0);
-                    return b;
-                });
+                .orElseGet(() -> newBalance(request.getUserId(), leaveType, year));
         // Adjust balance
         balance.setTotalDays(balance.getTotalDays() + request.getAdjustmentDays());
         balance.setRemainingDays(balance.getRemainingDays() + request.getAdjustmentDays());
@@ -87,11 +99,17 @@ public class LeaveBalanceServiceImpl implements LeaveBalanceService {
     }
 
     @Override
-    public List<LeaveBalanceResponse> getBulkLeaveBalances(List<Long> userIds) {
-        return leaveBalanceRepository.findAll().stream()
-                .filter(b -> userIds.contains(b.getUserId()))
-                .map(this::toResponse)
-                .collect(Collectors.toList());
+    public Map<Long, List<LeaveBalanceResponse>> getBulkLeaveBalances(List<Long> userIds) {
+        Set<Long> adminIds = new HashSet<>(adminIds());
+        Map<Long, List<LeaveBalanceResponse>> result = new LinkedHashMap<>();
+        userIds.forEach(userId -> result.put(userId, new ArrayList<>()));
+        List<Long> staffIds = result.keySet().stream().filter(userId -> !adminIds.contains(userId)).toList();
+        if (!staffIds.isEmpty()) {
+            for (LeaveBalance balance : idBatches.query(staffIds, leaveBalanceRepository::findByUserIdInWithType)) {
+                result.get(balance.getUserId()).add(toResponse(balance));
+            }
+        }
+        return result;
     }
 
     @Override
@@ -104,15 +122,46 @@ public class LeaveBalanceServiceImpl implements LeaveBalanceService {
     }
 
     @Override
+    @Transactional
     public void bulkAdjustLeaveBalances(List<Long> userIds, Long leaveTypeId, int adjustmentDays, String reason) {
-        for (Long userId : userIds) {
-            LeaveBalanceAdjustmentRequest req = new LeaveBalanceAdjustmentRequest();
-            req.setUserId(userId);
-            req.setLeaveTypeId(leaveTypeId);
-            req.setAdjustmentDays((double) adjustmentDays);
-            req.setReason(reason);
-            adjustLeaveBalance(req);
+        LeaveType leaveType = leaveTypeRepository.findById(leaveTypeId)
+                .orElseThrow(() -> new IllegalArgumentException("Leave type not found"));
+        int year = LocalDate.now().getYear();
+        Set<Long> adminIds = new HashSet<>(adminIds());
+        Set<Long> staffIds = userIds.stream()
+                .filter(userId -> !adminIds.contains(userId))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        if (staffIds.size() < userIds.size()) {
+            log.warn("Skipping leave balance adjustment for admin users among {}", userIds);
+        }
+        if (staffIds.isEmpty()) {
+            return;
+        }
+        Map<Long, LeaveBalance> balances = idBatches.query(List.copyOf(staffIds),
+                chunk -> leaveBalanceRepository.findByUserIdInAndLeaveTypeAndYear(chunk, leaveType, year)).stream()
+                .collect(Collectors.toMap(LeaveBalance::getUserId, b -> b));
+        List<LeaveBalance> adjusted = new ArrayList<>();
+        for (Long userId : staffIds) {
+            LeaveBalance balance = balances.computeIfAbsent(userId, id -> newBalance(id, leaveType, year));
+            balance.setTotalDays(balance.getTotalDays() + adjustmentDays);
+            balance.setRemainingDays(balance.getRemainingDays() + adjustmentDays);
+            adjusted.add(balance);
         }
+        leaveBalanceRepository.saveAll(adjusted);
+        log.info("Adjusted {} {} balances by {} days: {}", adjusted.size(), leaveType.getName(), adjustmentDays,
+                reason);
+    }
+
+    private static LeaveBalance newBalance(Long userId, LeaveType leaveType, int year) {
+        LeaveBalance balance = new LeaveBalance();
+        balance.setUserId(userId);
+        balance.setLeaveType(leaveType);
+        balance.setYear(year);
+        balance.setTotalDays(leaveType.getDefaultDays());
+        balance.setUsedDays(0.0);
+        balance.setRemainingDays(leaveType.getDefaultDays());
+        balance.setCarriedOverDays(0.0);
+        return balance;
     }
 
     private LeaveBalanceResponse toResponse(LeaveBalance balance) {
@@ -135,38 +184,12 @@ public class LeaveBalanceServiceImpl implements LeaveBalanceService {
     }
 
     /**
-     * Scheduled job to accrue leave monthly for all users and leave types.
-     * Runs at midnight on the 1st of every month.
+     * Scheduled job to accrue leave monthly for all non-admin users and leave
+     * types. Runs at midnight on the 1st of every month.
      */
     @Scheduled(cron = "0 0 0 1 * ?")
-    @Transactional
     public void accrueMonthlyLeave() {
-        log.info("Starting scheduled monthly leave accrual job");
-        double accrualRate = settingsService.getSettings().getAccrualRate();
-        int year = LocalDate.now().getYear();
-        List<LeaveBalance> balances = leaveBalanceRepository.findAll();
-        int updated = 0;
-        for (LeaveBalance balance : balances) {
-            // Skip admins
-            try {
-                String role = userInfoClient.getUserRole(balance.getUserId());
-                if (Role.ADMIN.name().equals(role)) {
-                    continue;
-                }
-            } catch (Exception e) {
-                log.warn("Could not verify user role for userId {}: {}", balance.getUserId(), e.getMessage());
-                continue;
-            }
-
-            if (balance.getYear() == year) {
-                balance.setTotalDays(balance.getTotalDays() + accrualRate);
-                balance.setRemainingDays(balance.getRemainingDays() + accrualRate);
-                updated++;
-            }
-        }
-        leaveBalanceRepository.saveAll(balances);
-        log.info("Monthly leave accrual job completed. Updated {} balances.", updated);
-        notifyAdmins("Monthly leave accrual completed. " + updated + " balances updated.");
+        runMonthlyAccrual();
     }
 
     /**
@@ -174,29 +197,79 @@ public class LeaveBalanceServiceImpl implements LeaveBalanceService {
      * Runs at midnight on January 31st every year.
      */
     @Scheduled(cron = "0 0 0 31 1 ?")
-    @Transactional
     public void carryOverUnusedLeave() {
-        log.info("Starting scheduled annual carry-over job");
+        runCarryOver();
+    }
+
+    /**
+     * Adds the accrual rate to the current year's balances in bulk updates
+     * per user-id chunk. Chunks already accrued this month are skipped.
+     */
+    @Override
+    public BatchJobResult runMonthlyAccrual() {
+        log.info("Starting monthly leave accrual job");
+        double accrualRate = settingsService.getSettings().getAccrualRate();
+        int year = LocalDate.now().getYear();
+        String jobKey = YearMonth.now().toString();
+        UserIdRangeRow users = leaveBalanceRepository.findUserIdRange(year);
+        if (users.minUserId() == null) {
+            log.info("No leave balances for {}, nothing to accrue", year);
+            return BatchJobResult.empty(ACCRUAL_JOB, jobKey);
+        }
+        List<Long> adminIds = adminIds();
+
+        BatchJobResult result = batchJobRunner.run(ACCRUAL_JOB, jobKey,
+                users.minUserId(), users.maxUserId(),
+                (fromUserId, toUserId) -> adminIds.isEmpty()
+                        ? leaveBalanceRepository.accrue(year, accrualRate, fromUserId, toUserId)
+                        : leaveBalanceRepository.accrue(year, accrualRate, fromUserId, toUserId, adminIds));
+        meterRegistry.counter("leaveBalances.accrued").increment(result.items());
+        notifyAdmins(result.isSuccessful()
+                ? "Monthly leave accrual completed. " + result.items() + " balances updated in "
+                        + result.duration().toMillis() + " ms."
+                : "Monthly leave accrual incomplete: " + result);
+        return result;
+    }
+
+    /**
+     * Carries the unused days of last year's balances, up to the configured
+     * maximum, into this year's, per user-id chunk. Chunks already carried
+     * over this year are skipped.
+     */
+    @Override
+    public BatchJobResult runCarryOver() {
+        log.info("Starting annual carry-over job");
         int maxCarryover = settingsService.getSettings().getMaxCarryover();
         int prevYear = LocalDate.now().getYear() - 1;
-        List<LeaveBalance> lastYearBalances = leaveBalanceRepository.findByYear(prevYear);
-        int updated = 0;
-        for (LeaveBalance balance : lastYearBalances) {
-            // Skip admins
-            try {
-                String role = userInfoClient.getUserRole(balance.getUserId());
-                if (Role.ADMIN.name().equals(role)) {
-                    continue;
-                }
-            } catch (Exception e) {
-                log.warn("Could not verify user role for userId {}: {}", balance.getUserId(), e.getMessage());
+        String jobKey = String.valueOf(prevYear + 1);
+        UserIdRangeRow users = leaveBalanceRepository.findUserIdRange(prevYear);
+        if (users.minUserId() == null) {
+            log.info("No leave balances for {}, nothing to carry over", prevYear);
+            return BatchJobResult.empty(CARRY_OVER_JOB, jobKey);
+        }
+        Set<Long> adminIds = new HashSet<>(adminIds());
+
+        BatchJobResult result = batchJobRunner.run(CARRY_OVER_JOB, jobKey,
+                users.minUserId(), users.maxUserId(),
+                (fromUserId, toUserId) -> carryOver(prevYear, maxCarryover, adminIds, fromUserId, toUserId));
+        notifyAdmins(result.isSuccessful()
+                ? "Annual carry-over completed. " + result.items() + " balances updated."
+                : "Annual carry-over incomplete: " + result);
+        return result;
+    }
+
+    private int carryOver(int prevYear, int maxCarryover, Set<Long> adminIds, long fromUserId, long toUserId) {
+        Map<String, LeaveBalance> thisYearBalances = leaveBalanceRepository
+                .findByYearAndUserIdRange(prevYear + 1, fromUserId, toUserId).stream()
+                .collect(Collectors.toMap(b -> b.getUserId() + ":" + b.getLeaveType().getId(), b -> b));
+        List<LeaveBalance> updated = new ArrayList<>();
+        for (LeaveBalance balance : leaveBalanceRepository.findByYearAndUserIdRange(prevYear, fromUserId, toUserId)) {
+            if (adminIds.contains(balance.getUserId())) {
                 continue;
             }
-
             double carry = Math.min(balance.getRemainingDays(), maxCarryover);
-            LeaveBalance thisYear = leaveBalanceRepository
-                    .findByUserIdAndLeaveTypeAndYear(balance.getUserId(), balance.getLeaveType(), prevYear + 1)
-                    .orElseGet(() -> {
+            LeaveBalance thisYear = thisYearBalances.computeIfAbsent(
+                    balance.getUserId() + ":" + balance.getLeaveType().getId(), k -> {
                         LeaveBalance b = new LeaveBalance();
                         b.setUserId(balance.getUserId());
                         b.setLeaveType(balance.getLeaveType());
@@ -210,17 +283,22 @@ public class LeaveBalanceServiceImpl implements LeaveBalanceService {
             thisYear.setCarriedOverDays(carry);
             thisYear.setTotalDays(thisYear.getTotalDays() + carry);
             thisYear.setRemainingDays(thisYear.getRemainingDays() + carry);
-            leaveBalanceRepository.save(thisYear);
-            updated++;
+            updated.add(thisYear);
         }
-        log.info("Annual carry-over job completed. Updated {} balances.", updated);
-        notifyAdmins("Annual carry-over completed. " + updated + " balances updated.");
+        leaveBalanceRepository.saveAll(updated);
+        return updated.size();
+    }
+
+    private List<Long> adminIds() {
+        return userDirectoryReplica.getUsersByRole(Role.ADMIN.name()).stream()
+                .map(UserResponseDTO::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
     private void notifyAdmins(String message) {
         try {
-            // Fetch all admin users from auth-service using Feign interceptor
-            List<UserResponseDTO> admins = userInfoClient.getUsersByRole("ADMIN");
+            List<UserResponseDTO> admins = userDirectoryReplica.getUsersByRole("ADMIN");
             for (UserResponseDTO admin : admins) {
                 if (admin.getId() != null) {
                     notificationService.sendInAppNotification(admin.getId(), message, "ADMIN_ALERT", null, null);
@@ -242,38 +320,25 @@ public class LeaveBalanceServiceImpl implements LeaveBalanceService {
 
         try {
             // Get all staff and managers (exclude admins)
-            List<UserResponseDTO> users = userInfoClient.getUsersByRole("STAFF");
-            users.addAll(userInfoClient.getUsersByRole("MANAGER"));
-
-            List<LeaveType> leaveTypes = leaveTypeRepository.findAll().stream()
-                    .filter(LeaveType::getIsActive)
-                    .collect(Collectors.toList());
-
-            int created = 0;
-            for (UserResponseDTO user : users) {
-                for (LeaveType leaveType : leaveTypes) {
-                    boolean exists = leaveBalanceRepository
-                            .findByUserIdAndLeaveTypeAndYear(user.getId(), leaveType, year)
-                            .isPresent();
-                    if (!exists) {
-                        LeaveBalance b = new LeaveBalance();
-                        b.setUserId(user.getId());
-                        b.setLeaveType(leaveType);
-                        b.setYear(year);
-                        b.setTotalDays(leaveType.getDefaultDays());
-                        b.setUsedDays(0.0);
-                        b.setRemainingDays(leaveType.getDefaultDays());
-                        b.setCarriedOverDays(0.0);
-                        leaveBalanceRepository.save(b);
-                        created++;
-                    }
-                }
+            Long[] userIds = userDirectoryReplica.getUsersByRoles(List.of("STAFF", "MANAGER")).stream()
+                    .map(UserResponseDTO::getId)
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .toArray(Long[]::new);
+            if (userIds.length == 0) {
+                return 0;
             }
-            log.info("Initialized {} missing leave balances for year {}", created, year);
+
+            // One INSERT ... SELECT for all users and active leave types, skipping existing balances
+            Timer.Sample sample = Timer.start(meterRegistry);
+            int created = leaveBalanceRepository.insertMissing(userIds, year);
+            long durationMs = sample.stop(meterRegistry.timer("leaveBalances.initialize")) / 1_000_000;
+            meterRegistry.counter("leaveBalances.initialized").increment(created);
+            log.info("Initialized {} missing leave balances for year {} in {} ms", created, year, durationMs);
             return created;
         } catch (Exception e) {
             log.error("Failed to initialize missing leave balances: {}", e.getMessage(), e);
             return 0;
         }
     }
-}
\ No newline at end of file
+}
@@ -1,74 +1,134 @@
 package com.daking.leave.service.impl;
 
+import com.daking.auth.api.dto.RequestContextDTO;
 import com.daking.auth.api.dto.UserResponseDTO;
 import com.daking.auth.api.model.Role;
-import com.daking.leave.client.UserInfoClient;
+import com.daking.leave.client.UserDirectory;
+import com.daking.leave.client.UserDirectoryReplica;
+import com.daking.leave.client.UserEnrichment;
 import com.daking.leave.dto.request.LeaveApplicationRequest;
 import com.daking.leave.dto.request.LeaveApprovalRequest;
+import com.daking.leave.dto.request.LeaveQueryRequest;
+import com.daking.leave.dto.response.LeavePageResponse;
 import com.daking.leave.dto.response.LeaveResponse;
 import com.daking.leave.model.*;
+import com.daking.leave.repository.IdBatches;
 import com.daking.leave.repository.LeaveBalanceRepository;
+import com.daking.leave.repository.LeaveDocumentRow;
 import com.daking.leave.repository.LeaveRepository;
+import com.daking.leave.repository.LeaveRow;
+import com.daking.leave.repository.LeaveSpecifications;
 import com.daking.leave.repository.LeaveTypeRepository;
+import com.daking.leave.repository.LeaveUsageRollupRepository;
+import com.daking.leave.security.JwtPrincipal;
+import com.daking.leave.security.ManagedDepartments;
+import com.daking.leave.security.ManagerScopeService;
+import com.daking.leave.security.TokenClaimsPolicy;
+import com.daking.leave.service.LeaveUsageRollupService;
 import com.daking.leave.service.interfaces.DocumentService;
 import com.daking.leave.service.interfaces.InAppNotificationService;
 import com.daking.leave.service.interfaces.LeaveService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class LeaveServiceImpl implements LeaveService {
 
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final int STREAM_CHUNK_SIZE = 500;
+    private static final Set<String> QUERY_SORT_PROPERTIES = Set.of("createdAt", "startDate", "endDate", "status",
+            "totalDays", "id");
+
     private final LeaveRepository leaveRepository;
     private final LeaveTypeRepository leaveTypeRepository;
     private final LeaveBalanceRepository leaveBalanceRepository;
-    private final UserInfoClient userInfoClient;
+    private final LeaveUsageRollupRepository leaveUsageRollupRepository;
+    private final UserDirectory userDirectory;
+    private final UserEnrichment userEnrichment;
+    private final IdBatches idBatches;
+    private final UserDirectoryReplica userDirectoryReplica;
+    private final ManagerScopeService managerScopeService;
+    private final TokenClaimsPolicy tokenClaimsPolicy;
     private final InAppNotificationService inAppNotificationService;
     private final DocumentService documentService;
+    private final LeaveUsageRollupService leaveUsageRollupService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
 
     @Override
     @Transactional
-    public LeaveResponse applyForLeave(String userEmail, LeaveApplicationRequest request) {
-        UserResponseDTO user = userInfoClient.getUserByEmail(userEmail);
-        if (user == null) {
-            throw new IllegalArgumentException("User not found with email: " + userEmail);
+    public LeaveResponse applyForLeave(JwtPrincipal applicant, LeaveApplicationRequest request) {
+        Long userId = applicant.getUserId();
+        Long departmentId;
+        // Resolved together with the user when the token cannot be trusted
+        List<UserResponseDTO> managers = null;
+        if (tokenClaimsPolicy.isFresh(applicant)) {
+            departmentId = applicant.getDepartmentId();
+        } else {
+            RequestContextDTO context = userDirectoryReplica.getRequestContext(List.of(userId));
+            UserResponseDTO user = context.findUser(userId);
+            if (user == null) {
+                throw new IllegalArgumentException("User not found with id: " + userId);
+            }
+            departmentId = user.getDepartmentId();
+            if (context.getDepartmentManagers() != null) {
+                managers = context.getDepartmentManagers().get(departmentId);
+            }
         }
 
         LeaveType leaveType = leaveTypeRepository.findById(request.getLeaveTypeId())
                 .orElseThrow(() -> new IllegalArgumentException("Leave type not found"));
 
-        // Get current year for leave balance
-        LeaveBalance balance = leaveBalanceRepository
-                .findByUserIdAndLeaveTypeAndYear(user.getId(), leaveType, java.time.LocalDate.now().getYear())
-                .orElseThrow(() -> new IllegalArgumentException("Leave balance not found for user"));
-
-        if (balance.getRemainingDays() < java.time.temporal.ChronoUnit.DAYS.between(request.getStartDate(),
-                request.getEndDate()) + 1) {
+        // Deduct from the current year's balance up front; the update only applies if enough days remain
+        double requestedDays = java.time.temporal.ChronoUnit.DAYS.between(request.getStartDate(),
+                request.getEndDate()) + 1;
+        int year = java.time.LocalDate.now().getYear();
+        if (leaveBalanceRepository.deduct(userId, leaveType.getId(), year, requestedDays) == 0) {
+            if (!leaveBalanceRepository.existsByUserIdAndLeaveTypeIdAndYear(userId, leaveType.getId(), year)) {
+                throw new IllegalArgumentException("Leave balance not found for user");
+            }
             throw new IllegalArgumentException("Insufficient leave balance.");
         }
 
         Leave leave = new Leave();
-        leave.setUserId(user.getId());
+        leave.setUserId(userId);
         leave.setLeaveType(leaveType);
         leave.setStartDate(request.getStartDate());
         leave.setEndDate(request.getEndDate());
-        leave.setTotalDays(
-                (double) (java.time.temporal.ChronoUnit.DAYS.between(request.getStartDate(), request.getEndDate())
-                        + 1));
+        leave.setTotalDays(requestedDays);
         leave.setReason(request.getReason());
         leave.setStatus(Leave.LeaveStatus.PENDING);
-        leave.setDepartmentId(user.getDepartmentId());
+        leave.setDepartmentId(departmentId);
 
         if (request.getDocumentIds() != null && !request.getDocumentIds().isEmpty()) {
             List<Document> docs = documentService.getDocumentsByIds(request.getDocumentIds());
@@ -76,15 +136,14 @@ public class LeaveServiceImpl implements LeaveService {
         }
 
         leave = leaveRepository.save(leave);
-
-        balance.setRemainingDays(balance.getRemainingDays()
-                - (double) (java.time.temporal.ChronoUnit.DAYS.between(request.getStartDate(), request.getEndDate())
-                        + 1));
-        leaveBalanceRepository.save(balance);
+        leaveUsageRollupService.recordCreated(leave);
 
         try {
-            List<UserResponseDTO> managers = userInfoClient.getManagers(user.getDepartmentId());
+            if (managers == null) {
+                managers = userDirectoryReplica.getManagers(departmentId);
+            }
             if (managers != null && !managers.isEmpty()) {
+                UserResponseDTO user = userDirectory.getUserById(userId);
                 String applicantName = user.getFirstName() + " " + user.getLastName();
                 String message = String.format("New leave application from %s needs your review.", applicantName);
                 for (UserResponseDTO manager : managers) {
@@ -101,35 +160,25 @@ public class LeaveServiceImpl implements LeaveService {
 
     @Override
     @Transactional
-    public LeaveResponse approveLeave(Long leaveId, String approverEmail, LeaveApprovalRequest request) {
-        UserResponseDTO approver = userInfoClient.getUserByEmail(approverEmail);
-        if (approver == null) {
-            throw new IllegalArgumentException("Approver not found with email: " + approverEmail);
-        }
-
-        Leave leave = leaveRepository.findById(leaveId)
+    public LeaveResponse approveLeave(Long leaveId, JwtPrincipal approver, LeaveApprovalRequest request) {
+        Leave leave = leaveRepository.findByIdForUpdate(leaveId)
                 .orElseThrow(() -> new IllegalArgumentException("Leave application not found"));
 
         if (leave.getStatus() != Leave.LeaveStatus.PENDING) {
             throw new IllegalStateException("Leave request is not in a pending state.");
         }
 
-        UserResponseDTO applicant = userInfoClient.getUserById(leave.getUserId());
-        if (applicant == null) {
-            throw new IllegalArgumentException("Applicant not found for leave request.");
-        }
-
-        if (!isApproverAuthorized(approver, applicant.getDepartmentId())) {
-            throw new SecurityException("Approver is not authorized for this leave request.");
-        }
+        checkApproverAuthorized(approver, leave);
 
+        Leave.LeaveStatus previousStatus = leave.getStatus();
         leave.setStatus(Leave.LeaveStatus.APPROVED);
-        leave.setApproverId(approver.getId());
+        leave.setApproverId(approver.getUserId());
         leave.setComments(request.getComments());
         leave = leaveRepository.save(leave);
+        leaveUsageRollupService.recordStatusChange(leave, previousStatus);
 
         String message = String.format("Your leave request for %s has been approved.", leave.getLeaveType().getName());
-        inAppNotificationService.sendNotification(applicant.getId(), message, "LEAVE_STATUS", leave.getId(),
+        inAppNotificationService.sendNotification(leave.getUserId(), message, "LEAVE_STATUS", leave.getId(),
                 "/leave/history");
 
         return toLeaveResponse(leave);
@@ -137,42 +186,27 @@ public class LeaveServiceImpl implements LeaveService {
 
     @Override
     @Transactional
-    public LeaveResponse rejectLeave(Long leaveId, String approverEmail, LeaveApprovalRequest request) {
-        UserResponseDTO approver = userInfoClient.getUserByEmail(approverEmail);
-        if (approver == null) {
-            throw new IllegalArgumentException("Approver not found with email: " + approverEmail);
-        }
-
-        Leave leave = leaveRepository.findById(leaveId)
+    public LeaveResponse rejectLeave(Long leaveId, JwtPrincipal approver, LeaveApprovalRequest request) {
+        Leave leave = leaveRepository.findByIdForUpdate(leaveId)
                 .orElseThrow(() -> new IllegalArgumentException("Leave application not found"));
 
         if (leave.getStatus() != Leave.LeaveStatus.PENDING) {
             throw new IllegalStateException("Leave request is not in a pending state.");
         }
 
-        UserResponseDTO applicant = userInfoClient.getUserById(leave.getUserId());
-        if (applicant == null) {
-            throw new IllegalArgumentException("Applicant not found for leave request.");
-        }
-
-        if (!isApproverAuthorized(approver, applicant.getDepartmentId())) {
-            throw new SecurityException("Approver is not authorized for this leave request.");
-        }
+        checkApproverAuthorized(approver, leave);
 
+        Leave.LeaveStatus previousStatus = leave.getStatus();
         leave.setStatus(Leave.LeaveStatus.REJECTED);
-        leave.setApproverId(approver.getId());
+        leave.setApproverId(approver.getUserId());
         leave.setComments(request.getComments());
         leave = leaveRepository.save(leave);
+        leaveUsageRollupService.recordStatusChange(leave, previousStatus);
 
-        LeaveBalance balance = leaveBalanceRepository
-                .findByUserIdAndLeaveTypeAndYear(leave.getUserId(), leave.getLeaveType(),
-                        java.time.LocalDate.now().getYear())
-                .orElseThrow(() -> new IllegalStateException("Could not find leave balance to refund."));
-        balance.setRemainingDays(balance.getRemainingDays() + leave.getTotalDays());
-        leaveBalanceRepository.save(balance);
+        refundBalance(leave);
 
         String message = String.format("Your leave request for %s has been rejected.", leave.getLeaveType().getName());
-        inAppNotificationService.sendNotification(applicant.getId(), message, "LEAVE_STATUS", leave.getId(),
+        inAppNotificationService.sendNotification(leave.getUserId(), message, "LEAVE_STATUS", leave.getId(),
                 "/leave/history");
 
         return toLeaveResponse(leave);
@@ -180,16 +214,11 @@ public class LeaveServiceImpl implements LeaveService {
 
     @Override
     @Transactional
-    public LeaveResponse cancelLeave(Long leaveId, String userEmail) {
-        UserResponseDTO user = userInfoClient.getUserByEmail(userEmail);
-        if (user == null) {
-            throw new IllegalArgumentException("User not found with email: " + userEmail);
-        }
-
-        Leave leave = leaveRepository.findById(leaveId)
+    public LeaveResponse cancelLeave(Long leaveId, JwtPrincipal caller) {
+        Leave leave = leaveRepository.findByIdForUpdate(leaveId)
                 .orElseThrow(() -> new IllegalArgumentException("Leave application not found"));
 
-        if (!leave.getUserId().equals(user.getId())) {
+        if (!leave.getUserId().equals(caller.getUserId())) {
             throw new SecurityException("User is not authorized to cancel this leave application.");
         }
 
@@ -197,74 +226,64 @@ public class LeaveServiceImpl implements LeaveService {
             throw new IllegalStateException("Only pending leave requests can be cancelled.");
         }
 
+        Leave.LeaveStatus previousStatus = leave.getStatus();
         leave.setStatus(Leave.LeaveStatus.CANCELLED);
         leaveRepository.save(leave);
+        leaveUsageRollupService.recordStatusChange(leave, previousStatus);
 
-        LeaveBalance balance = leaveBalanceRepository
-                .findByUserIdAndLeaveTypeAndYear(leave.getUserId(), leave.getLeaveType(),
-                        java.time.LocalDate.now().getYear())
-                .orElseThrow(() -> new IllegalStateException("Could not find leave balance to refund."));
-        balance.setRemainingDays(balance.getRemainingDays() + leave.getTotalDays());
-        leaveBalanceRepository.save(balance);
+        refundBalance(leave);
 
         return toLeaveResponse(leave);
     }
 
     @Override
+    @Transactional(readOnly = true)
     public LeaveResponse getLeaveById(Long leaveId) {
         Leave leave = leaveRepository.findById(leaveId).orElseThrow(() -> new RuntimeException("Leave not found"));
         return toLeaveResponse(leave);
     }
 
     @Override
-    public List<LeaveResponse> getLeavesByUser(String userEmail) {
-        UserResponseDTO user = userInfoClient.getUserByEmail(userEmail);
+    @Transactional(readOnly = true)
+    public List<LeaveResponse> getLeavesByUser(JwtPrincipal caller, String userEmail) {
+        UserResponseDTO user = userDirectory.getUserByEmail(userEmail);
         if (user == null) {
             throw new IllegalArgumentException("User not found with email: " + userEmail);
         }
-        return leaveRepository.findByUserId(user.getId()).stream()
-                .map(this::toLeaveResponse)
-                .collect(Collectors.toList());
+        if (caller.getRole() != Role.ADMIN && caller.getRole() != Role.MANAGER
+                && !user.getId().equals(caller.getUserId())) {
+            throw new SecurityException("User is not authorized to view these leave applications.");
+        }
+        return toRowResponses(leaveRepository.findRowsByUserId(user.getId()));
     }
 
     @Override
-    public List<LeaveResponse> getPendingLeaves(String managerEmail) {
-        UserResponseDTO manager = userInfoClient.getUserByEmail(managerEmail);
-        if (manager == null) {
-            throw new IllegalArgumentException("Manager not found");
-        }
-
-        if (manager.getRole() == Role.ADMIN) {
-            return leaveRepository.findByStatus(Leave.LeaveStatus.PENDING)
-                    .stream()
-                    .map(this::toLeaveResponse)
-                    .collect(Collectors.toList());
-        } else if (manager.getRole() == Role.MANAGER) {
-            List<Long> managedDepartmentIds = userInfoClient.getDepartmentsManaged(manager.getId());
-            if (managedDepartmentIds == null || managedDepartmentIds.isEmpty()) {
+    @Transactional(readOnly = true)
+    public List<LeaveResponse> getPendingLeaves(JwtPrincipal caller) {
+        if (caller.getRole() == Role.ADMIN) {
+            return toRowResponses(leaveRepository.findRowsByStatus(Leave.LeaveStatus.PENDING));
+        } else if (caller.getRole() == Role.MANAGER) {
+            ManagedDepartments managedDepartments = managedDepartmentsOf(caller);
+            if (managedDepartments.isEmpty()) {
                 return Collections.emptyList();
             }
-            return leaveRepository.findByDepartmentIdInAndStatus(managedDepartmentIds, Leave.LeaveStatus.PENDING)
-                    .stream()
-                    .map(this::toLeaveResponse)
-                    .collect(Collectors.toList());
+            List<Long> managedDepartmentIds = managedDepartments.toList();
+            return toRowResponses(
+                    leaveRepository.findRowsByDepartmentIdInAndStatus(managedDepartmentIds, Leave.LeaveStatus.PENDING));
         } else {
             return Collections.emptyList();
         }
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<LeaveResponse> getTeamCalendar(Long departmentId, String month) {
         try {
             YearMonth yearMonth = YearMonth.parse(month, DateTimeFormatter.ofPattern("yyyy-MM"));
             LocalDate startDate = yearMonth.atDay(1);
             LocalDate endDate = yearMonth.atEndOfMonth();
 
-            return leaveRepository.findByDepartmentIdAndStartDateGreaterThanEqualAndEndDateLessThanEqualWithType(
-                    departmentId, startDate, endDate)
-                    .stream()
-                    .map(this::toLeaveResponse)
-                    .collect(Collectors.toList());
+            return toRowResponses(leaveRepository.findRowsByDepartmentIdOverlapping(departmentId, startDate, endDate));
         } catch (Exception e) {
             log.error("Error parsing month format: {}", month, e);
             return Collections.emptyList();
@@ -272,44 +291,34 @@ public class LeaveServiceImpl implements LeaveService {
     }
 
     @Override
-    public List<LeaveResponse> getTeamCalendarForManager(String managerEmail, String month) {
-        UserResponseDTO manager = userInfoClient.getUserByEmail(managerEmail);
-        if (manager == null) {
-            throw new IllegalArgumentException("Manager not found");
-        }
-
-        if (manager.getRole() == Role.ADMIN) {
+    @Transactional(readOnly = true)
+    public List<LeaveResponse> getTeamCalendarForManager(JwtPrincipal caller, String month) {
+        if (caller.getRole() == Role.ADMIN) {
             // Admin sees all departments
             try {
                 YearMonth yearMonth = YearMonth.parse(month, DateTimeFormatter.ofPattern("yyyy-MM"));
                 LocalDate startDate = yearMonth.atDay(1);
                 LocalDate endDate = yearMonth.atEndOfMonth();
 
-                return leaveRepository
-                        .findByStartDateGreaterThanEqualAndEndDateLessThanEqualWithType(startDate, endDate)
-                        .stream()
-                        .map(this::toLeaveResponse)
-                        .collect(Collectors.toList());
+                return toRowResponses(leaveRepository.findRowsOverlapping(startDate, endDate));
             } catch (Exception e) {
                 log.error("Error parsing month format: {}", month, e);
                 return Collections.emptyList();
             }
-        } else if (manager.getRole() == Role.MANAGER) {
-            List<Long> managedDepartmentIds = userInfoClient.getDepartmentsManaged(manager.getId());
-            if (managedDepartmentIds == null || managedDepartmentIds.isEmpty()) {
+        } else if (caller.getRole() == Role.MANAGER) {
+            ManagedDepartments managedDepartments = managedDepartmentsOf(caller);
+            if (managedDepartments.isEmpty()) {
                 return Collections.emptyList();
             }
+            List<Long> managedDepartmentIds = managedDepartments.toList();
 
             try {
                 YearMonth yearMonth = YearMonth.parse(month, DateTimeFormatter.ofPattern("yyyy-MM"));
                 LocalDate startDate = yearMonth.atDay(1);
                 LocalDate endDate = yearMonth.atEndOfMonth();
 
-                return leaveRepository.findByDepartmentIdInAndStartDateGreaterThanEqualAndEndDateLessThanEqualWithType(
-                        managedDepartmentIds, startDate, endDate)
-                        .stream()
-                        .map(this::toLeaveResponse)
-                        .collect(Collectors.toList());
+                return toRowResponses(
+                        leaveRepository.findRowsByDepartmentIdInOverlapping(managedDepartmentIds, startDate, endDate));
             } catch (Exception e) {
                 log.error("Error parsing month format: {}", month, e);
                 return Collections.emptyList();
@@ -320,8 +329,12 @@ public class LeaveServiceImpl implements LeaveService {
     }
 
     @Override
-    public List<LeaveResponse> getStaffTeamCalendar(Long userId, String month) {
-        UserResponseDTO user = userInfoClient.getUserById(userId);
+    @Transactional(readOnly = true)
+    public List<LeaveResponse> getStaffTeamCalendar(JwtPrincipal caller, String month) {
+        if (tokenClaimsPolicy.isFresh(caller)) {
+            return getTeamCalendar(caller.getDepartmentId(), month);
+        }
+        UserResponseDTO user = userDirectory.getUserById(caller.getUserId());
         if (user == null) {
             throw new IllegalArgumentException("User not found");
         }
@@ -330,47 +343,96 @@ public class LeaveServiceImpl implements LeaveService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<LeaveResponse> searchLeaves(String query) {
-        // This is a simplified search implementation
-        // In a real application, you might want to use a more sophisticated search
-        // engine
-        return leaveRepository.findAll().stream()
-                .filter(leave -> {
-                    try {
-                        UserResponseDTO user = userInfoClient.getUserById(leave.getUserId());
-                        String userName = user != null ? (user.getFirstName() + " " + user.getLastName()) : "";
-                        String leaveTypeName = leave.getLeaveType() != null ? leave.getLeaveType().getName() : "";
-                        String reason = leave.getReason() != null ? leave.getReason() : "";
-
-                        return userName.toLowerCase().contains(query.toLowerCase()) ||
-                                leaveTypeName.toLowerCase().contains(query.toLowerCase()) ||
-                                reason.toLowerCase().contains(query.toLowerCase());
-                    } catch (Exception e) {
-                        log.warn("Error searching leave with ID {}: {}", leave.getId(), e.getMessage());
-                        return false;
-                    }
-                })
-                .map(this::toLeaveResponse)
-                .collect(Collectors.toList());
+        if (query == null || query.isBlank()) {
+            return Collections.emptyList();
+        }
+        // Names live in auth-service; match them against the directory and push the ids down
+        List<Long> userIds = userDirectoryReplica.findUserIdsByName(query);
+        List<Leave> matches = leaveRepository.findAll(LeaveSpecifications.matchesText(query, userIds),
+                Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id")));
+        return toLeaveResponses(matches);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public Page<LeaveResponse> queryLeaves(JwtPrincipal caller, LeaveQueryRequest filter, Pageable pageable) {
+        Specification<Leave> spec = Specification.where(LeaveSpecifications.hasStatusIn(filter.getStatus()))
+                .and(LeaveSpecifications.hasUser(filter.getUserId()))
+                .and(LeaveSpecifications.inDepartments(visibleDepartments(caller, filter.getDepartmentIds())))
+                .and(LeaveSpecifications.hasLeaveType(filter.getLeaveTypeId()))
+                .and(LeaveSpecifications.overlaps(filter.getFrom(), filter.getTo()))
+                .and(LeaveSpecifications.createdAfter(filter.getCreatedAfter()));
+        if (caller.getRole() != Role.ADMIN && caller.getRole() != Role.MANAGER) {
+            spec = spec.and(LeaveSpecifications.hasUser(caller.getUserId()));
+        }
+        Page<Leave> page = leaveRepository.findAll(spec, toQueryPage(pageable));
+        List<LeaveResponse> items = toLeaveResponses(page.getContent());
+        return new PageImpl<>(items, page.getPageable(), page.getTotalElements());
+    }
+
+    /**
+     * Departments the query is limited to: the requested ones for admins, the
+     * requested ones the caller manages (or all of them) for managers, and
+     * {@code null} (no restriction) otherwise.
+     */
+    private List<Long> visibleDepartments(JwtPrincipal caller, List<Long> requested) {
+        if (caller.getRole() != Role.MANAGER) {
+            return requested == null || requested.isEmpty() ? null : requested;
+        }
+        ManagedDepartments managed = managedDepartmentsOf(caller);
+        if (requested == null || requested.isEmpty()) {
+            return managed.toList();
+        }
+        return requested.stream().filter(managed::contains).distinct().collect(Collectors.toList());
+    }
+
+    // From the token claims while they are fresh, otherwise from the manager scope cache
+    private ManagedDepartments managedDepartmentsOf(JwtPrincipal caller) {
+        return tokenClaimsPolicy.isFresh(caller) ? caller.getManagedDepartments()
+                : managerScopeService.getManagedDepartments(caller.getUserId());
+    }
+
+    // Caps the page size, whitelists sort properties and adds id as tie-breaker for a stable order
+    private static Pageable toQueryPage(Pageable pageable) {
+        List<Sort.Order> orders = new ArrayList<>();
+        for (Sort.Order order : pageable.getSort()) {
+            if (!QUERY_SORT_PROPERTIES.contains(order.getProperty())) {
+                throw new IllegalArgumentException("Cannot sort leaves by: " + order.getProperty());
+            }
+            orders.add(order);
+        }
+        if (orders.isEmpty()) {
+            orders.add(Sort.Order.desc("createdAt"));
+        }
+        if (orders.stream().noneMatch(order -> order.getProperty().equals("id"))) {
+            orders.add(Sort.Order.desc("id"));
+        }
+        int size = Math.max(1, Math.min(pageable.isPaged() ? pageable.getPageSize() : MAX_PAGE_SIZE, MAX_PAGE_SIZE));
+        int page = pageable.isPaged() ? pageable.getPageNumber() : 0;
+        return PageRequest.of(page, size, Sort.by(orders));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<LeaveResponse> getRecentLeaves() {
-        return leaveRepository.findAll().stream()
-                .limit(10) // Default limit of 10 recent leaves
-                .map(this::toLeaveResponse)
-                .collect(Collectors.toList());
+        // Default limit of 10 recent leaves
+        return toLeaveResponses(leaveRepository.findLatestWithType(PageRequest.of(0, 10)));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public int countAllLeaves() {
-        return (int) leaveRepository.count();
+        return (int) leaveUsageRollupRepository.sumRequests();
     }
 
     @Override
+    @Transactional(readOnly = true)
     public int countLeavesByStatus(String status) {
         try {
-            return (int) leaveRepository.countByStatus(Leave.LeaveStatus.valueOf(status.toUpperCase()));
+            return (int) leaveUsageRollupRepository.sumRequestsByStatus(
+                    Leave.LeaveStatus.valueOf(status.toUpperCase()));
         } catch (IllegalArgumentException e) {
             log.warn("Attempted to count leaves with invalid status: {}", status);
             return 0;
@@ -378,70 +440,196 @@ public class LeaveServiceImpl implements LeaveService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<LeaveResponse> getLeavesByUserId(Long userId) {
-        return leaveRepository.findByUserId(userId).stream()
-                .map(this::toLeaveResponse)
-                .collect(Collectors.toList());
+        return toRowResponses(leaveRepository.findRowsByUserId(userId));
     }
 
     @Override
-    public List<LeaveResponse> getAllLeaves() {
-        return leaveRepository.findAll().stream()
-                .map(this::toLeaveResponse)
-                .collect(Collectors.toList());
+    @Transactional(readOnly = true)
+    public LeavePageResponse getLeavesPage(String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        // One extra row tells whether another page follows
+        PageRequest firstRows = PageRequest.of(0, pageSize + 1);
+        List<Leave> leaves;
+        if (cursor == null || cursor.isBlank()) {
+            leaves = leaveRepository.findLatestWithType(firstRows);
+        } else {
+            CursorPosition position = decodeCursor(cursor);
+            leaves = leaveRepository.findOlderThanWithType(position.createdAt(), position.id(), firstRows);
+        }
+        boolean hasMore = leaves.size() > pageSize;
+        if (hasMore) {
+            leaves = leaves.subList(0, pageSize);
+        }
+        String nextCursor = hasMore ? encodeCursor(leaves.get(leaves.size() - 1)) : null;
+        return new LeavePageResponse(toLeaveResponses(leaves), nextCursor, hasMore);
     }
 
     @Override
+    @Transactional(readOnly = true)
+    public void streamAllLeaves(Consumer<LeaveResponse> sink) {
+        try (Stream<Leave> leaves = leaveRepository.streamAllWithType()) {
+            Iterator<Leave> rows = leaves.iterator();
+            List<Leave> chunk = new ArrayList<>(STREAM_CHUNK_SIZE);
+            while (rows.hasNext()) {
+                chunk.add(rows.next());
+                if (chunk.size() == STREAM_CHUNK_SIZE || !rows.hasNext()) {
+                    toLeaveResponses(chunk).forEach(sink);
+                    chunk.clear();
+                    // Written rows are not needed any more; keep the persistence context small
+                    entityManager.clear();
+                }
+            }
+        }
+    }
+
+    // Cursor is the (createdAt, id) of the last row of the previous page
+    private static String encodeCursor(Leave leave) {
+        String position = leave.getCreatedAt() + "," + leave.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static CursorPosition decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int comma = position.lastIndexOf(',');
+            return new CursorPosition(LocalDateTime.parse(position.substring(0, comma)),
+                    Long.parseLong(position.substring(comma + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    private record CursorPosition(LocalDateTime createdAt, Long id) {
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<LeaveResponse> getLeavesByUserIds(List<Long> userIds) {
-        return leaveRepository.findByUserIdsWithType(userIds).stream()
-                .map(this::toLeaveResponse)
-                .collect(Collectors.toList());
+        return toRowResponses(leaveRepository.findRowsByUserIdIn(userIds));
     }
 
     private LeaveResponse toLeaveResponse(Leave leave) {
+        return toLeaveResponses(List.of(leave)).get(0);
+    }
+
+    private void refundBalance(Leave leave) {
+        if (leaveBalanceRepository.refund(leave.getUserId(), leave.getLeaveType().getId(),
+                java.time.LocalDate.now().getYear(), leave.getTotalDays()) == 0) {
+            throw new IllegalStateException("Could not find leave balance to refund.");
+        }
+    }
+
+    private List<LeaveResponse> toLeaveResponses(List<Leave> leaves) {
+        return toRowResponses(leaves.stream().map(LeaveRow::of).collect(Collectors.toList()));
+    }
+
+    /**
+     * Maps leave rows to responses. The documents of all rows are loaded in
+     * batched queries and the applicants and document owners are resolved in
+     * bulk before mapping, so a list costs a constant number of queries.
+     */
+    private List<LeaveResponse> toRowResponses(List<LeaveRow> rows) {
+        Map<Long, List<Document>> documents = documentsByLeave(rows);
+        List<Long> userIds = new ArrayList<>();
+        for (LeaveRow row : rows) {
+            userIds.add(row.userId());
+        }
+        documents.values().forEach(docs -> docs.forEach(doc -> userIds.add(doc.getUserId())));
+        Map<Long, UserResponseDTO> users = userEnrichment.resolveIds(userIds);
+        return rows.stream()
+                .map(row -> toLeaveResponse(row, documents.getOrDefault(row.id(), List.of()), users))
+                .collect(Collectors.toList());
+    }
+
+    private Map<Long, List<Document>> documentsByLeave(List<LeaveRow> rows) {
+        List<Long> leaveIds = rows.stream().map(LeaveRow::id).distinct().collect(Collectors.toList());
+        Map<Long, List<Document>> documents = new HashMap<>();
+        for (LeaveDocumentRow row : idBatches.query(leaveIds, leaveRepository::findDocumentsByLeaveIds)) {
+            documents.computeIfAbsent(row.leaveId(), id -> new ArrayList<>()).add(row.document());
+        }
+        return documents;
+    }
+
+    private LeaveResponse toLeaveResponse(LeaveRow row, List<Document> documents, Map<Long, UserResponseDTO> users) {
         LeaveResponse dto = new LeaveResponse();
-        dto.setId(leave.getId());
-        dto.setUserId(leave.getUserId());
-        dto.setLeaveTypeId(leave.getLeaveType().getId());
-        dto.setLeaveTypeName(leave.getLeaveType().getName());
-        dto.setStartDate(leave.getStartDate());
-        dto.setEndDate(leave.getEndDate());
-        dto.setReason(leave.getReason());
-        dto.setStatus(leave.getStatus().name());
-        dto.setComments(leave.getComments());
-        dto.setApproverId(leave.getApproverId());
-        dto.setCreatedAt(leave.getCreatedAt());
-        dto.setUpdatedAt(leave.getUpdatedAt());
-
-        if (leave.getDocuments() != null && !leave.getDocuments().isEmpty()) {
-            dto.setDocumentIds(leave.getDocuments().stream().map(Document::getId)
+        dto.setId(row.id());
+        dto.setUserId(row.userId());
+        dto.setLeaveTypeId(row.leaveTypeId());
+        dto.setLeaveTypeName(row.leaveTypeName());
+        dto.setStartDate(row.startDate());
+        dto.setEndDate(row.endDate());
+        dto.setTotalDays(row.totalDays());
+        dto.setReason(row.reason());
+        dto.setStatus(row.status().name());
+        dto.setComments(row.comments());
+        dto.setApproverId(row.approverId());
+        dto.setCreatedAt(row.createdAt());
+        dto.setUpdatedAt(row.updatedAt());
+
+        if (!documents.isEmpty()) {
+            dto.setDocumentIds(documents.stream().map(Document::getId)
                     .collect(Collectors.toList()));
-            dto.setDocuments(leave.getDocuments().stream()
-                    .map(documentService::toResponse)
+            dto.setDocuments(documents.stream()
+                    .map(doc -> documentService.toResponse(doc, users.get(doc.getUserId()), row.leaveTypeName()))
                     .collect(Collectors.toList()));
         }
 
-        try {
-            UserResponseDTO user = userInfoClient.getUserById(leave.getUserId());
-            if (user != null) {
-                dto.setEmployeeName(user.getFirstName() + " " + user.getLastName());
-            }
-        } catch (Exception e) {
-            log.warn("Could not enrich leave response with user/approver details for leaveId {}: {}", leave.getId(),
-                    e.getMessage());
+        UserResponseDTO user = users.get(row.userId());
+        if (user != null) {
+            dto.setEmployeeName(user.getFirstName() + " " + user.getLastName());
         }
 
         return dto;
     }
 
-    private boolean isApproverAuthorized(UserResponseDTO approver, Long departmentId) {
-        if (approver.getRole() == Role.ADMIN) {
-            return true;
+    /**
+     * Authorizes from the token claims while they are fresh. Otherwise the
+     * approver, and the applicant for rows without a department, are resolved
+     * in one request context lookup.
+     */
+    private void checkApproverAuthorized(JwtPrincipal approver, Leave leave) {
+        boolean authorized;
+        if (tokenClaimsPolicy.isFresh(approver)) {
+            authorized = isApproverAuthorized(approver.getRole(), approver.getManagedDepartments(),
+                    departmentOf(leave, null));
+        } else {
+            List<Long> userIds = leave.getDepartmentId() != null ? List.of(approver.getUserId())
+                    : List.of(approver.getUserId(), leave.getUserId());
+            RequestContextDTO context = userDirectoryReplica.getRequestContext(userIds);
+            UserResponseDTO user = context.findUser(approver.getUserId());
+            if (user == null) {
+                throw new IllegalArgumentException("Approver not found with id: " + approver.getUserId());
+            }
+            List<Long> managed = context.getManagedDepartmentIds() != null
+                    ? context.getManagedDepartmentIds().get(user.getId())
+                    : null;
+            authorized = isApproverAuthorized(user.getRole(), ManagedDepartments.of(managed),
+                    departmentOf(leave, context));
+        }
+        if (!authorized) {
+            throw new SecurityException("Approver is not authorized for this leave request.");
+        }
+    }
+
+    // Department recorded when the leave was applied for; older rows fall back to the applicant's
+    private Long departmentOf(Leave leave, RequestContextDTO context) {
+        if (leave.getDepartmentId() != null) {
+            return leave.getDepartmentId();
         }
-        if (approver.getRole() == Role.MANAGER) {
-            List<Long> managedDepts = userInfoClient.getDepartmentsManaged(approver.getId());
-            return managedDepts != null && managedDepts.contains(departmentId);
+        UserResponseDTO applicant = context != null ? context.findUser(leave.getUserId())
+                : userDirectory.getUserById(leave.getUserId());
+        if (applicant == null) {
+            throw new IllegalArgumentException("Applicant not found for leave request.");
+        }
+        return applicant.getDepartmentId();
+    }
+
+    private static boolean isApproverAuthorized(Role role, ManagedDepartments managedDepartments, Long departmentId) {
+        if (role == Role.ADMIN) {
+            return true;
         }
-        return false;
+        return role == Role.MANAGER && managedDepartments.contains(departmentId);
     }
 }
\ No newline at end of file
@@ -128,9 +128,7 @@ public class LeaveTypeServiceImpl implements LeaveTypeService {
 
     private void validateLeaveTypeDeletion(LeaveType leaveType) {
         // Check if there are any active leaves using this leave type
-        long activeLeavesCount = leaveRepository.findAll().stream()
-                .filter(leave -> leave.getLeaveType().getId().equals(leaveType.getId()))
-                .count();
+        long activeLeavesCount = leaveRepository.countByLeaveTypeId(leaveType.getId());
 
         if (activeLeavesCount > 0) {
             throw new IllegalStateException("Cannot delete leave type '" + leaveType.getName() +
@@ -138,9 +136,7 @@ public class LeaveTypeServiceImpl implements LeaveTypeService {
         }
 
         // Check if there are any leave balances using this leave type
-        long leaveBalancesCount = leaveBalanceRepository.findAll().stream()
-                .filter(balance -> balance.getLeaveType().getId().equals(leaveType.getId()))
-                .count();
+        long leaveBalancesCount = leaveBalanceRepository.countByLeaveTypeId(leaveType.getId());
 
         if (leaveBalancesCount > 0) {
             throw new IllegalStateException("Cannot delete leave type '" + leaveType.getName() +
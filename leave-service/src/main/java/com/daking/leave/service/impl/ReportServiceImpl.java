@@ -10,7 +10,10 @@ import com.daking.leave.repository.LeaveRepository;
 import com.daking.leave.repository.ReportRepository;
 import com.daking.leave.service.interfaces.ReportService;
 import com.daking.auth.api.dto.UserResponseDTO;
-import com.daking.leave.client.UserInfoClient;
+import com.daking.leave.client.UserDirectoryReplica;
+import com.daking.leave.client.UserEnrichment;
+import com.daking.leave.security.ManagedDepartments;
+import com.daking.leave.security.ManagerScopeService;
 import com.opencsv.CSVWriter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,6 +30,7 @@ import java.nio.file.Paths;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -35,7 +39,9 @@ import java.util.stream.Collectors;
 public class ReportServiceImpl implements ReportService {
     private final ReportRepository reportRepository;
     private final LeaveRepository leaveRepository;
-    private final UserInfoClient userInfoClient;
+    private final UserEnrichment userEnrichment;
+    private final UserDirectoryReplica userDirectoryReplica;
+    private final ManagerScopeService managerScopeService;
 
     @Value("${app.reports.directory:./reports}")
     private String reportsDir;
@@ -48,7 +54,7 @@ public class ReportServiceImpl implements ReportService {
 
         try {
             List<ReportResponse> reports = reportRepository
-                    .findByStartDateGreaterThanEqualAndEndDateLessThanEqual(start, end)
+                    .findOverlapping(start, end)
                     .stream()
                     .map(this::toResponse)
                     .collect(Collectors.toList());
@@ -76,9 +82,8 @@ public class ReportServiceImpl implements ReportService {
         try {
             ensureReportsDirectory();
 
-            List<Leave> leaves = leaveRepository
-                    .findByUserIdAndStartDateGreaterThanEqualAndEndDateLessThanEqualWithType(
-                            userId, start.toLocalDate(), end.toLocalDate());
+            List<Leave> leaves = leaveRepository.findByUserIdInOverlappingWithType(
+                    List.of(userId), start.toLocalDate(), end.toLocalDate());
 
             generateReportFile(filePath, fileType, leaves, "employee");
 
@@ -108,15 +113,12 @@ public class ReportServiceImpl implements ReportService {
             ensureReportsDirectory();
 
             // Fetch user IDs for department via Feign client
-            List<UserResponseDTO> users = userInfoClient.getTeamMembers(departmentId);
+            List<UserResponseDTO> users = userDirectoryReplica.getTeamMembers(departmentId);
             List<Long> userIds = users.stream().map(UserResponseDTO::getId).toList();
 
-            List<Leave> leaves = userIds.stream()
-                    .flatMap(uid -> leaveRepository
-                            .findByUserIdAndStartDateGreaterThanEqualAndEndDateLessThanEqualWithType(
-                                    uid, start.toLocalDate(), end.toLocalDate())
-                            .stream())
-                    .collect(Collectors.toList());
+            List<Leave> leaves = userIds.isEmpty() ? List.of()
+                    : leaveRepository.findByUserIdInOverlappingWithType(userIds, start.toLocalDate(),
+                            end.toLocalDate());
 
             generateReportFile(filePath, fileType, leaves, "department");
 
@@ -144,7 +146,7 @@ public class ReportServiceImpl implements ReportService {
         try {
             ensureReportsDirectory();
 
-            List<Leave> leaves = leaveRepository.findByLeaveTypeIdAndStartDateGreaterThanEqualAndEndDateLessThanEqual(
+            List<Leave> leaves = leaveRepository.findByLeaveTypeIdOverlappingWithType(
                     leaveTypeId, start.toLocalDate(), end.toLocalDate());
 
             generateReportFile(filePath, fileType, leaves, "leaveType");
@@ -174,18 +176,16 @@ public class ReportServiceImpl implements ReportService {
             ensureReportsDirectory();
 
             // Get manager's departments
-            List<Long> departmentIds = userInfoClient.getDepartmentsManaged(managerId);
-            if (departmentIds == null || departmentIds.isEmpty()) {
+            ManagedDepartments managedDepartments = managerScopeService.getManagedDepartments(managerId);
+            if (managedDepartments.isEmpty()) {
                 throw new ValidationException("Manager does not manage any departments");
             }
+            List<Long> departmentIds = managedDepartments.toList();
 
             // Aggregate leaves for all departments
-            List<Leave> leaves = departmentIds.stream()
-                    .flatMap(deptId -> leaveRepository
-                            .findByDepartmentIdAndStartDateGreaterThanEqualAndEndDateLessThanEqualWithType(
-                                    deptId, start.toLocalDate(), end.toLocalDate())
-                            .stream())
-                    .collect(Collectors.toList());
+            List<Leave> leaves = departmentIds.isEmpty() ? List.of()
+                    : leaveRepository.findByDepartmentIdInOverlappingWithType(departmentIds, start.toLocalDate(),
+                            end.toLocalDate());
 
             generateTeamReportFile(filePath, fileType, leaves);
 
@@ -214,7 +214,7 @@ public class ReportServiceImpl implements ReportService {
             ensureReportsDirectory();
 
             // Get all leaves that need manager's approval in the date range
-            List<Leave> leaves = leaveRepository.findByApproverIdAndStartDateGreaterThanEqualAndEndDateLessThanEqual(
+            List<Leave> leaves = leaveRepository.findByApproverIdOverlappingWithType(
                     managerId, start.toLocalDate(), end.toLocalDate());
 
             generateApprovalStatsFile(filePath, fileType, leaves);
@@ -244,23 +244,21 @@ public class ReportServiceImpl implements ReportService {
             ensureReportsDirectory();
 
             // Get manager's departments
-            List<Long> departmentIds = userInfoClient.getDepartmentsManaged(managerId);
-            if (departmentIds == null || departmentIds.isEmpty()) {
+            ManagedDepartments managedDepartments = managerScopeService.getManagedDepartments(managerId);
+            if (managedDepartments.isEmpty()) {
                 throw new ValidationException("Manager does not manage any departments");
             }
+            List<Long> departmentIds = managedDepartments.toList();
 
-            // Aggregate team members for all departments
-            List<UserResponseDTO> teamMembers = departmentIds.stream()
-                    .flatMap(deptId -> userInfoClient.getTeamMembers(deptId).stream())
+            // Aggregate team members for all departments, fetched concurrently
+            List<UserResponseDTO> teamMembers = userDirectoryReplica.getTeamMembers(departmentIds).values().stream()
+                    .flatMap(List::stream)
                     .collect(Collectors.toList());
 
             // Aggregate leaves for all departments
-            List<Leave> leaves = departmentIds.stream()
-                    .flatMap(deptId -> leaveRepository
-                            .findByDepartmentIdAndStartDateGreaterThanEqualAndEndDateLessThanEqualWithType(
-                                    deptId, start.toLocalDate(), end.toLocalDate())
-                            .stream())
-                    .collect(Collectors.toList());
+            List<Leave> leaves = departmentIds.isEmpty() ? List.of()
+                    : leaveRepository.findByDepartmentIdInOverlappingWithType(departmentIds, start.toLocalDate(),
+                            end.toLocalDate());
 
             generateTeamCoverageFile(filePath, fileType, teamMembers, leaves, start, end);
 
@@ -469,14 +467,16 @@ public class ReportServiceImpl implements ReportService {
     }
 
     private void generateTeamReportFile(String filePath, String fileType, List<Leave> leaves) throws IOException {
+        Map<Long, UserResponseDTO> employees = userEnrichment.resolve(leaves, Leave::getUserId);
         if (fileType.equalsIgnoreCase("excel")) {
-            generateTeamExcelReport(filePath, leaves);
+            generateTeamExcelReport(filePath, leaves, employees);
         } else {
-            generateTeamCsvReport(filePath, leaves);
+            generateTeamCsvReport(filePath, leaves, employees);
         }
     }
 
-    private void generateTeamExcelReport(String filePath, List<Leave> leaves) throws IOException {
+    private void generateTeamExcelReport(String filePath, List<Leave> leaves,
+            Map<Long, UserResponseDTO> employees) throws IOException {
         try (Workbook workbook = new XSSFWorkbook()) {
             Sheet sheet = workbook.createSheet("Team Leave Report");
 
@@ -491,7 +491,7 @@ public class ReportServiceImpl implements ReportService {
 
             int rowNum = 1;
             for (Leave leave : leaves) {
-                UserResponseDTO employee = userInfoClient.getUserById(leave.getUserId());
+                UserResponseDTO employee = employees.get(leave.getUserId());
                 Row row = sheet.createRow(rowNum++);
                 row.createCell(0).setCellValue(leave.getUserId());
                 row.createCell(1).setCellValue(
@@ -513,13 +513,14 @@ public class ReportServiceImpl implements ReportService {
         }
     }
 
-    private void generateTeamCsvReport(String filePath, List<Leave> leaves) throws IOException {
+    private void generateTeamCsvReport(String filePath, List<Leave> leaves,
+            Map<Long, UserResponseDTO> employees) throws IOException {
         try (CSVWriter writer = new CSVWriter(new FileWriter(filePath))) {
             writer.writeNext(new String[] {
                     "Employee ID", "Employee Name", "Leave Type", "Start Date", "End Date", "Status", "Days"
             });
             for (Leave leave : leaves) {
-                UserResponseDTO employee = userInfoClient.getUserById(leave.getUserId());
+                UserResponseDTO employee = employees.get(leave.getUserId());
                 writer.writeNext(new String[] {
                         String.valueOf(leave.getUserId()),
                         employee != null ? employee.getFirstName() + " " + employee.getLastName() : "Unknown",
@@ -534,14 +535,16 @@ public class ReportServiceImpl implements ReportService {
     }
 
     private void generateApprovalStatsFile(String filePath, String fileType, List<Leave> leaves) throws IOException {
+        Map<Long, UserResponseDTO> employees = userEnrichment.resolve(leaves, Leave::getUserId);
         if (fileType.equalsIgnoreCase("excel")) {
-            generateApprovalStatsExcel(filePath, leaves);
+            generateApprovalStatsExcel(filePath, leaves, employees);
         } else {
-            generateApprovalStatsCsv(filePath, leaves);
+            generateApprovalStatsCsv(filePath, leaves, employees);
         }
     }
 
-    private void generateApprovalStatsExcel(String filePath, List<Leave> leaves) throws IOException {
+    private void generateApprovalStatsExcel(String filePath, List<Leave> leaves,
+            Map<Long, UserResponseDTO> employees) throws IOException {
         try (Workbook workbook = new XSSFWorkbook()) {
             // Summary sheet
             Sheet summarySheet = workbook.createSheet("Summary");
@@ -580,7 +583,7 @@ public class ReportServiceImpl implements ReportService {
 
             rowNum = 1;
             for (Leave leave : leaves) {
-                UserResponseDTO employee = userInfoClient.getUserById(leave.getUserId());
+                UserResponseDTO employee = employees.get(leave.getUserId());
                 Row row = detailsSheet.createRow(rowNum++);
                 row.createCell(0).setCellValue(
                         employee != null ? employee.getFirstName() + " " + employee.getLastName() : "Unknown");
@@ -603,7 +606,8 @@ public class ReportServiceImpl implements ReportService {
         }
     }
 
-    private void generateApprovalStatsCsv(String filePath, List<Leave> leaves) throws IOException {
+    private void generateApprovalStatsCsv(String filePath, List<Leave> leaves,
+            Map<Long, UserResponseDTO> employees) throws IOException {
         try (CSVWriter writer = new CSVWriter(new FileWriter(filePath))) {
             long totalApplications = leaves.size();
             long approvedCount = leaves.stream().filter(l -> l.getStatus() == Leave.LeaveStatus.APPROVED).count();
@@ -623,7 +627,7 @@ public class ReportServiceImpl implements ReportService {
                     "Employee", "Leave Type", "Start Date", "End Date", "Status", "Applied On", "Processed On"
             });
             for (Leave leave : leaves) {
-                UserResponseDTO employee = userInfoClient.getUserById(leave.getUserId());
+                UserResponseDTO employee = employees.get(leave.getUserId());
                 writer.writeNext(new String[] {
                         employee != null ? employee.getFirstName() + " " + employee.getLastName() : "Unknown",
                         leave.getLeaveType().getName(),
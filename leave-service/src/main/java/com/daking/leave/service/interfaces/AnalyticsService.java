@@ -0,0 +1,20 @@
+package com.daking.leave.service.interfaces;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Aggregates behind {@code /api/leave-analytics}. All sums are computed by
+ * the database; only one row per group is read.
+ */
+public interface AnalyticsService {
+    Map<String, Object> getDepartmentDistribution(Integer year, Long departmentId);
+
+    Map<String, Object> getUsageTrends(int year, String interval);
+
+    List<Map<String, Object>> getBalanceAlerts(Long departmentId);
+
+    Map<String, Object> getYtdConsumption(int year);
+
+    Map<String, Object> getCarryoverStats(int year);
+}
@@ -1,5 +1,6 @@
 package com.daking.leave.service.interfaces;
 
+import com.daking.auth.api.dto.UserResponseDTO;
 import com.daking.leave.dto.response.DocumentResponse;
 import com.daking.leave.model.Document;
 import org.springframework.web.multipart.MultipartFile;
@@ -20,5 +21,22 @@ public interface DocumentService {
 
     DocumentResponse toResponse(Document document);
 
+    /**
+     * Maps a document whose owner has already been resolved by the caller.
+     */
+    DocumentResponse toResponse(Document document, UserResponseDTO owner);
+
+    /**
+     * Maps a document whose owner and leave type name have both already been
+     * resolved by the caller, without any further lookup.
+     */
+    DocumentResponse toResponse(Document document, UserResponseDTO owner, String leaveTypeName);
+
+    /**
+     * Maps a list of documents, resolving all owners with one bulk lookup and
+     * all leave type names with one query.
+     */
+    List<DocumentResponse> toResponses(List<Document> documents);
+
     Document getDocumentByFileName(String filename);
 }
\ No newline at end of file
@@ -9,4 +9,6 @@ public interface InAppNotificationService {
     List<NotificationResponse> getNotifications(Long userId);
 
     void markAsRead(Long notificationId);
+
+    int markAllAsRead(Long userId);
 }
\ No newline at end of file
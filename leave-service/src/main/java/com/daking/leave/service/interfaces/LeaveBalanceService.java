@@ -1,19 +1,43 @@
 package com.daking.leave.service.interfaces;
 
+import com.daking.leave.batch.BatchJobResult;
 import com.daking.leave.dto.request.LeaveBalanceAdjustmentRequest;
 import com.daking.leave.dto.response.LeaveBalanceResponse;
 import java.util.List;
+import java.util.Map;
 
 public interface LeaveBalanceService {
     List<LeaveBalanceResponse> getLeaveBalancesByUser(Long userId);
 
     LeaveBalanceResponse adjustLeaveBalance(LeaveBalanceAdjustmentRequest request);
 
-    List<LeaveBalanceResponse> getBulkLeaveBalances(List<Long> userIds);
+    /**
+     * Balances of several users in one query, keyed by user id. Every
+     * requested user has an entry; admins have no balances.
+     */
+    Map<Long, List<LeaveBalanceResponse>> getBulkLeaveBalances(List<Long> userIds);
 
     LeaveBalanceResponse getLeaveBalance(Long userId, Long leaveTypeId, Integer year);
 
+    /**
+     * Adjusts the current year's balance of the given leave type for several
+     * users in one transaction, creating missing balances. Admins are skipped.
+     */
     void bulkAdjustLeaveBalances(List<Long> userIds, Long leaveTypeId, int adjustmentDays, String reason);
 
     int initializeMissingLeaveBalances();
+
+    /**
+     * Runs, or resumes, this month's leave accrual.
+     *
+     * @return the run summary, with no chunks if there are no balances
+     */
+    BatchJobResult runMonthlyAccrual();
+
+    /**
+     * Runs, or resumes, this year's carry-over of last year's unused leave.
+     *
+     * @return the run summary, with no chunks if there are no balances
+     */
+    BatchJobResult runCarryOver();
 }
\ No newline at end of file
@@ -2,32 +2,44 @@ package com.daking.leave.service.interfaces;
 
 import com.daking.leave.dto.request.LeaveApplicationRequest;
 import com.daking.leave.dto.request.LeaveApprovalRequest;
+import com.daking.leave.dto.request.LeaveQueryRequest;
+import com.daking.leave.dto.response.LeavePageResponse;
 import com.daking.leave.dto.response.LeaveResponse;
+import com.daking.leave.security.JwtPrincipal;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface LeaveService {
-    LeaveResponse applyForLeave(String userEmail, LeaveApplicationRequest request);
+    LeaveResponse applyForLeave(JwtPrincipal applicant, LeaveApplicationRequest request);
 
-    LeaveResponse approveLeave(Long leaveId, String approverEmail, LeaveApprovalRequest request);
+    LeaveResponse approveLeave(Long leaveId, JwtPrincipal approver, LeaveApprovalRequest request);
 
-    LeaveResponse rejectLeave(Long leaveId, String approverEmail, LeaveApprovalRequest request);
+    LeaveResponse rejectLeave(Long leaveId, JwtPrincipal approver, LeaveApprovalRequest request);
 
-    LeaveResponse cancelLeave(Long leaveId, String userEmail);
+    LeaveResponse cancelLeave(Long leaveId, JwtPrincipal caller);
 
     LeaveResponse getLeaveById(Long leaveId);
 
-    List<LeaveResponse> getLeavesByUser(String userEmail);
+    List<LeaveResponse> getLeavesByUser(JwtPrincipal caller, String userEmail);
 
-    List<LeaveResponse> getPendingLeaves(String managerEmail);
+    List<LeaveResponse> getPendingLeaves(JwtPrincipal caller);
 
     List<LeaveResponse> getTeamCalendar(Long departmentId, String month);
 
-    List<LeaveResponse> getTeamCalendarForManager(String managerEmail, String month);
+    List<LeaveResponse> getTeamCalendarForManager(JwtPrincipal caller, String month);
 
-    List<LeaveResponse> getStaffTeamCalendar(Long userId, String month);
+    List<LeaveResponse> getStaffTeamCalendar(JwtPrincipal caller, String month);
 
     List<LeaveResponse> searchLeaves(String query);
 
+    /**
+     * One page of the leaves matching {@code filter}, limited to the
+     * departments the caller may see, in a single database query.
+     */
+    Page<LeaveResponse> queryLeaves(JwtPrincipal caller, LeaveQueryRequest filter, Pageable pageable);
+
     List<LeaveResponse> getRecentLeaves();
 
     int countAllLeaves();
@@ -36,7 +48,17 @@ public interface LeaveService {
 
     List<LeaveResponse> getLeavesByUserId(Long userId);
 
-    List<LeaveResponse> getAllLeaves();
+    /**
+     * Keyset page of all leaves, newest first, starting after {@code cursor}
+     * (or at the newest leave when it is {@code null}).
+     */
+    LeavePageResponse getLeavesPage(String cursor, int limit);
+
+    /**
+     * Feeds every leave, newest first, to {@code sink} while reading it from
+     * the database, so memory use does not grow with the number of leaves.
+     */
+    void streamAllLeaves(Consumer<LeaveResponse> sink);
 
     List<LeaveResponse> getLeavesByUserIds(List<Long> userIds);
 }
\ No newline at end of file
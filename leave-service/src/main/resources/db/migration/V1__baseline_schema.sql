@@ -0,0 +1,117 @@
+-- Baseline leave-service schema, matching the JPA entities.
+-- Databases created earlier by ddl-auto are baselined at this version
+-- (spring.flyway.baseline-on-migrate), so every statement is idempotent.
+
+CREATE TABLE IF NOT EXISTS leave_types (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL UNIQUE,
+    description VARCHAR(255),
+    default_days DOUBLE PRECISION NOT NULL,
+    is_active BOOLEAN NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL,
+    accrual_rate DOUBLE PRECISION,
+    can_carry_over BOOLEAN,
+    max_carry_over_days INTEGER,
+    requires_approval BOOLEAN,
+    requires_documentation BOOLEAN,
+    is_paid BOOLEAN
+);
+
+CREATE TABLE IF NOT EXISTS documents (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    file_name VARCHAR(255) NOT NULL,
+    file_type VARCHAR(255) NOT NULL,
+    file_size BIGINT NOT NULL,
+    url VARCHAR(255) NOT NULL,
+    status VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS leaves (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    department_id BIGINT NOT NULL,
+    leave_type_id BIGINT NOT NULL REFERENCES leave_types (id),
+    start_date DATE NOT NULL,
+    end_date DATE NOT NULL,
+    total_days DOUBLE PRECISION NOT NULL,
+    status VARCHAR(255) NOT NULL CHECK (status IN ('PENDING', 'APPROVED', 'REJECTED', 'CANCELLED')),
+    reason VARCHAR(255),
+    comments VARCHAR(255),
+    approver_id BIGINT,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS leave_documents (
+    leave_id BIGINT NOT NULL REFERENCES leaves (id),
+    document_id BIGINT NOT NULL REFERENCES documents (id)
+);
+
+CREATE TABLE IF NOT EXISTS leave_balances (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    leave_type_id BIGINT NOT NULL REFERENCES leave_types (id),
+    year INTEGER NOT NULL,
+    total_days DOUBLE PRECISION NOT NULL,
+    used_days DOUBLE PRECISION NOT NULL,
+    remaining_days DOUBLE PRECISION NOT NULL,
+    carried_over_days DOUBLE PRECISION NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    updated_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS holidays (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    date DATE NOT NULL,
+    description VARCHAR(255),
+    is_public BOOLEAN NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS notifications (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id BIGINT NOT NULL,
+    message VARCHAR(255) NOT NULL,
+    read BOOLEAN NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    type VARCHAR(255) NOT NULL,
+    related_id BIGINT,
+    link VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS reports (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    type VARCHAR(255) NOT NULL,
+    start_date TIMESTAMP(6) NOT NULL,
+    end_date TIMESTAMP(6) NOT NULL,
+    generated_by VARCHAR(255) NOT NULL,
+    generated_at TIMESTAMP(6) NOT NULL,
+    file_type VARCHAR(255) NOT NULL,
+    file_path VARCHAR(255) NOT NULL,
+    manager_id BIGINT
+);
+
+CREATE TABLE IF NOT EXISTS settings (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    accrual_rate DOUBLE PRECISION NOT NULL,
+    max_carryover INTEGER NOT NULL,
+    carryover_expiry_date DATE,
+    approval_workflow VARCHAR(255),
+    holiday_calendar_source VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS settings_document_required_leavetypes (
+    settings_id BIGINT NOT NULL REFERENCES settings (id),
+    leavetype_id BIGINT NOT NULL REFERENCES leave_types (id),
+    PRIMARY KEY (settings_id, leavetype_id)
+);
+
+CREATE TABLE IF NOT EXISTS settings_notification_preferences (
+    settings_id BIGINT NOT NULL REFERENCES settings (id),
+    notification_type VARCHAR(255)
+        CHECK (notification_type IN ('LEAVE_APPLICATION', 'LEAVE_STATUS', 'ANNOUNCEMENT', 'SYSTEM_ALERT'))
+);
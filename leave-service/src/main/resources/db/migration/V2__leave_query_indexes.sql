@@ -0,0 +1,31 @@
+-- Secondary indexes for the leave list, calendar and report queries.
+
+-- Lets the GiST index below combine a scalar department_id with the date range
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+-- Pending approvals per department
+CREATE INDEX IF NOT EXISTS idx_leaves_department_status ON leaves (department_id, status);
+
+-- A user's leave history, newest first
+CREATE INDEX IF NOT EXISTS idx_leaves_user_created ON leaves (user_id, created_at);
+
+-- Leaves decided by an approver within a period
+CREATE INDEX IF NOT EXISTS idx_leaves_approver_start ON leaves (approver_id, start_date);
+
+-- Keyset pagination over all leaves (LeaveRepository.findOlderThanWithType)
+CREATE INDEX IF NOT EXISTS idx_leaves_created_id ON leaves (created_at DESC, id DESC);
+
+-- Interval overlap. The expression must match the date_overlaps HQL function
+-- (see LeaveSqlFunctions), which renders
+-- daterange(start_date, end_date, '[]') && daterange(:from, :to, '[]').
+CREATE INDEX IF NOT EXISTS idx_leaves_department_period
+    ON leaves USING gist (department_id, daterange(start_date, end_date, '[]'));
+CREATE INDEX IF NOT EXISTS idx_leaves_period
+    ON leaves USING gist (daterange(start_date, end_date, '[]'));
+
+-- Documents of a page of leaves, and leaves of a document
+CREATE INDEX IF NOT EXISTS idx_leave_documents_leave ON leave_documents (leave_id, document_id);
+CREATE INDEX IF NOT EXISTS idx_leave_documents_document ON leave_documents (document_id);
+
+CREATE INDEX IF NOT EXISTS idx_leave_balances_user_type_year ON leave_balances (user_id, leave_type_id, year);
+CREATE INDEX IF NOT EXISTS idx_notifications_user_created ON notifications (user_id, created_at);
@@ -0,0 +1,18 @@
+-- Moves leaves, leave_balances, notifications and holidays from IDENTITY ids
+-- to pooled sequences (allocationSize 50 in the entities), so Hibernate can
+-- batch their inserts. Each sequence starts one full block above the current
+-- maximum id; the column default keeps plain SQL inserts working.
+
+DO $$
+DECLARE
+    t TEXT;
+BEGIN
+    FOREACH t IN ARRAY ARRAY['leaves', 'leave_balances', 'notifications', 'holidays'] LOOP
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I INCREMENT BY 50', t || '_seq');
+        EXECUTE format('SELECT setval(%L, (SELECT COALESCE(MAX(id), 0) + 50 FROM %I))', t || '_seq', t);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY IF EXISTS', t);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L)', t, t || '_seq');
+        EXECUTE format('ALTER SEQUENCE %I OWNED BY %I.id', t || '_seq', t);
+    END LOOP;
+END
+$$;
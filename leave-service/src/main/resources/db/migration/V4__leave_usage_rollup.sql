@@ -0,0 +1,26 @@
+-- Leave days and request counts per month, department, leave type and status,
+-- kept up to date by LeaveUsageRollupService as leaves change state.
+-- A leave spanning several months adds a share of its days to each month in
+-- proportion to its calendar days there; it counts as one request in the
+-- month it starts.
+
+CREATE TABLE IF NOT EXISTS leave_usage_rollup (
+    year INTEGER NOT NULL,
+    month INTEGER NOT NULL,
+    department_id BIGINT NOT NULL,
+    leave_type_id BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    days DOUBLE PRECISION NOT NULL,
+    requests BIGINT NOT NULL,
+    PRIMARY KEY (year, month, department_id, leave_type_id, status)
+);
+
+INSERT INTO leave_usage_rollup (year, month, department_id, leave_type_id, status, days, requests)
+SELECT EXTRACT(YEAR FROM m)::int, EXTRACT(MONTH FROM m)::int, l.department_id, l.leave_type_id, l.status,
+       SUM(l.total_days * (LEAST(l.end_date, (m + INTERVAL '1 month - 1 day')::date)
+           - GREATEST(l.start_date, m::date) + 1) / (l.end_date - l.start_date + 1)),
+       SUM(CASE WHEN m = date_trunc('month', l.start_date::timestamp) THEN 1 ELSE 0 END)
+FROM leaves l
+CROSS JOIN LATERAL generate_series(date_trunc('month', l.start_date::timestamp),
+                                   date_trunc('month', l.end_date::timestamp), INTERVAL '1 month') AS m
+GROUP BY 1, 2, 3, 4, 5;
@@ -0,0 +1,6 @@
+-- Optimistic locking for leave balances. The conditional deduct/refund
+-- statements in LeaveBalanceRepository bump the version as well, so an
+-- entity update based on a stale read fails instead of overwriting them.
+
+ALTER TABLE leave_balances ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
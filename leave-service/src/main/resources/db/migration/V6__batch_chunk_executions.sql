@@ -0,0 +1,18 @@
+-- Checkpoints of the chunked balance jobs (com.daking.leave.batch). A chunk
+-- is recorded as COMPLETED in the same transaction as its changes, so a
+-- completed row means the changes are committed. The primary key and the
+-- version column stop two instances from applying the same chunk twice.
+
+CREATE TABLE IF NOT EXISTS batch_chunk_executions (
+    job_name VARCHAR(100) NOT NULL,
+    job_key VARCHAR(100) NOT NULL,
+    range_start BIGINT NOT NULL,
+    range_end BIGINT NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    items INTEGER NOT NULL,
+    attempts INTEGER NOT NULL,
+    error VARCHAR(1000),
+    finished_at TIMESTAMP(6) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (job_name, job_key, range_start)
+);
@@ -0,0 +1,16 @@
+-- One balance per user, leave type and year. Concurrent runs of
+-- LeaveBalanceRepository.insertMissing could both pass its NOT EXISTS check
+-- and insert the same balance twice; the unique index makes the second insert
+-- a no-op (ON CONFLICT DO NOTHING).
+
+-- Keep the most consumed copy of each duplicated balance (the lowest id on ties)
+DELETE FROM leave_balances b
+USING (
+    SELECT id, row_number() OVER (PARTITION BY user_id, leave_type_id, year
+                                  ORDER BY remaining_days, id) AS copy
+    FROM leave_balances
+) ranked
+WHERE b.id = ranked.id AND ranked.copy > 1;
+
+DROP INDEX IF EXISTS idx_leave_balances_user_type_year;
+CREATE UNIQUE INDEX IF NOT EXISTS uq_leave_balances_user_type_year ON leave_balances (user_id, leave_type_id, year);
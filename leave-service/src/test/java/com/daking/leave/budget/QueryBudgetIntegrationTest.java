@@ -0,0 +1,293 @@
+package com.daking.leave.budget;
+
+import com.daking.auth.api.dto.UserResponseDTO;
+import com.daking.leave.support.AbstractIntegrationTest;
+import com.daking.leave.support.LeaveFixture;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.ServletContext;
+import jakarta.servlet.http.HttpServletRequest;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Checks every {@link QueryBudget} against a real request.
+ * <p>
+ * Each endpoint is called once with the second-level cache and the
+ * near-caches empty and the user directory replica synced. SQL statements
+ * are counted by Hibernate statistics, remote calls by the auth-service stub;
+ * both must stay within the budget declared on the handler. Streamed bodies
+ * are awaited, so the statements they run count too.
+ * <p>
+ * Every handler of the service must declare a budget and be called here.
+ */
+class QueryBudgetIntegrationTest extends AbstractIntegrationTest {
+
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    @Qualifier("requestMappingHandlerMapping")
+    private RequestMappingHandlerMapping handlerMapping;
+
+    @Autowired
+    private ServletContext servletContext;
+
+    @BeforeAll
+    static void writeFixtureFiles() throws IOException {
+        // Files referenced by the document and report rows of the fixture
+        Path document = Path.of("target/test-uploads/documents/fixture-sick-note.pdf");
+        Files.createDirectories(document.getParent());
+        Files.writeString(document, "%PDF");
+        Path report = Path.of("target/test-reports/fixture-report.csv");
+        Files.createDirectories(report.getParent());
+        Files.writeString(report, "user,days\n");
+    }
+
+    static Stream<Arguments> budgetedRequests() {
+        YearMonth currentMonth = YearMonth.now();
+        String month = currentMonth.toString();
+        int year = Year.now().getValue();
+        String startDate = currentMonth.atDay(1).toString();
+        String endDate = currentMonth.atEndOfMonth().toString();
+        UserResponseDTO admin = LeaveFixture.ADMIN;
+        UserResponseDTO manager = LeaveFixture.ENGINEERING_MANAGER;
+        UserResponseDTO staff = LeaveFixture.ENGINEER;
+        // Owner of the fixture document
+        UserResponseDTO owner = LeaveFixture.SECOND_ENGINEER;
+        return Stream.of(
+                // Leaves
+                request(staff, post("/api/leaves").contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("leaveTypeId", LeaveFixture.ANNUAL_LEAVE,
+                                "startDate", currentMonth.atDay(21).toString(),
+                                "endDate", currentMonth.atDay(22).toString(),
+                                "reason", "Budget check")))),
+                request(manager, post("/api/leaves/{leaveId}/approve", LeaveFixture.PENDING_LEAVE_ID)
+                        .contentType(MediaType.APPLICATION_JSON).content(json(Map.of("comments", "Enjoy")))),
+                request(manager, post("/api/leaves/{leaveId}/reject", LeaveFixture.PENDING_LEAVE_ID)
+                        .contentType(MediaType.APPLICATION_JSON).content(json(Map.of("comments", "Busy week")))),
+                request(staff, post("/api/leaves/{leaveId}/cancel", LeaveFixture.PENDING_LEAVE_ID)),
+                request(staff, get("/api/leaves/{leaveId}", LeaveFixture.PENDING_LEAVE_ID)),
+                request(manager, get("/api/leaves/user/email/{email}", LeaveFixture.ENGINEER.getEmail())),
+                request(staff, get("/api/leaves/me")),
+                request(manager, get("/api/leaves/pending")),
+                request(admin, get("/api/leaves/pending")),
+                request(manager, get("/api/leaves/team-calendar/{departmentId}", LeaveFixture.ENGINEERING)
+                        .param("month", month)),
+                request(manager, get("/api/leaves/team-calendar").param("month", month)),
+                request(admin, get("/api/leaves/team-calendar").param("month", month)),
+                request(staff, get("/api/leaves/team-calendar/staff").param("month", month)),
+                request(admin, get("/api/leaves/search").param("query", "staff")),
+                request(manager, get("/api/leaves/query").param("status", "PENDING")),
+                request(admin, get("/api/leaves/recent")),
+                request(admin, get("/api/leaves/system-stats")),
+                request(manager, get("/api/leaves").param("userId", "" + LeaveFixture.ENGINEER.getId())),
+                request(admin, get("/api/leaves")),
+                request(admin, get("/api/leaves").accept(NDJSON)),
+                request(admin, get("/api/leaves/page").param("limit", "2")),
+                request(admin, get("/api/leaves/stream").accept(NDJSON)),
+                request(admin, get("/api/dashboard-stats")),
+                // Leave analytics
+                request(admin, get("/api/leave-analytics/department-distribution").param("year", "" + year)),
+                request(manager, get("/api/leave-analytics/usage-trends").param("year", "" + year)
+                        .param("interval", "MONTHLY")),
+                request(admin, get("/api/leave-analytics/balance-alerts")),
+                request(manager, get("/api/leave-analytics/balance-alerts")
+                        .param("departmentId", "" + LeaveFixture.ENGINEERING)),
+                request(admin, get("/api/leave-analytics/ytd-consumption").param("year", "" + year)),
+                request(admin, get("/api/leave-analytics/carryover-stats").param("year", "" + year)),
+                request(admin, post("/api/leave-analytics/rollup/rebuild")),
+                // Leave balances
+                request(manager, get("/api/leave-balances/user/{userId}", staff.getId())),
+                request(staff, get("/api/leave-balances/me")),
+                request(manager, post("/api/leave-balances/adjust").contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("userId", staff.getId(), "leaveTypeId", LeaveFixture.ANNUAL_LEAVE,
+                                "adjustmentDays", 1.5, "reason", "Overtime")))),
+                request(staff, get("/api/leave-balances/user/{userId}/type/{leaveTypeId}/year/{year}",
+                        staff.getId(), LeaveFixture.ANNUAL_LEAVE, year)),
+                request(admin, post("/api/leave-balances/bulk-adjust").contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("userIds", List.of(admin.getId(), staff.getId(), owner.getId()),
+                                "leaveTypeId", LeaveFixture.SICK_LEAVE, "adjustmentDays", 2,
+                                "reason", "Wellness days")))),
+                request(manager, get("/api/leave-balances/bulk")
+                        .param("userIds", staff.getId() + "," + owner.getId())),
+                request(admin, post("/api/leave-balances/initialize")),
+                request(admin, post("/api/leave-balances/jobs/monthly-accrual")),
+                request(admin, post("/api/leave-balances/jobs/carry-over")),
+                // Leave types
+                request(admin, post("/api/leave-types").contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("name", "Parental", "defaultDays", 10.0)))),
+                request(admin, put("/api/leave-types/{id}", LeaveFixture.SICK_LEAVE)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("name", "Sick", "defaultDays", 12.0)))),
+                request(admin, delete("/api/leave-types/{id}", LeaveFixture.UNUSED_LEAVE_TYPE)),
+                request(staff, get("/api/leave-types")),
+                request(staff, get("/api/leave-types/active")),
+                request(staff, get("/api/leave-types/{id}", LeaveFixture.ANNUAL_LEAVE)),
+                // Documents
+                request(staff, multipart("/api/documents/upload").file(new MockMultipartFile("file",
+                        "doctor-note.pdf", MediaType.APPLICATION_PDF_VALUE, "%PDF".getBytes()))),
+                request(owner, get("/api/documents/{id}", LeaveFixture.DOCUMENT_ID)),
+                request(owner, get("/api/documents/user/{userId}", owner.getId())),
+                request(owner, get("/api/documents/download/{filename}", "fixture-sick-note.pdf")),
+                request(manager, post("/api/documents/{id}/approve", LeaveFixture.DOCUMENT_ID)),
+                request(manager, post("/api/documents/{id}/reject", LeaveFixture.DOCUMENT_ID)),
+                request(manager, get("/api/documents/my-documents").param("userId", "" + owner.getId())),
+                request(owner, get("/api/documents/leave/{id}", LeaveFixture.DOCUMENT_ID)),
+                // Holidays
+                request(staff, get("/api/holidays")),
+                request(staff, get("/api/holidays/range").param("start", startDate).param("end", endDate)),
+                request(admin, post("/api/holidays").contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("name", "Company Picnic",
+                                "date", currentMonth.atDay(25).toString(), "description", "Offsite")))),
+                request(admin, delete("/api/holidays/{id}", LeaveFixture.COMPANY_HOLIDAY_ID)),
+                request(admin, post("/api/holidays/import-public-holidays").param("year", "" + year)),
+                // Notifications
+                request(staff, get("/api/notifications")),
+                request(staff, get("/api/notifications/unread-count")),
+                request(staff, get("/api/notifications/recent")),
+                request(staff, post("/api/notifications/mark-all-read")),
+                request(staff, put("/api/notifications/mark-read/{id}", LeaveFixture.NOTIFICATION_ID)),
+                // Reports
+                request(admin, get("/api/reports/date-range").param("startDate", startDate)
+                        .param("endDate", endDate)),
+                request(admin, post("/api/reports/employee/{userId}", staff.getId())
+                        .params(reportPeriod(startDate, endDate))),
+                request(admin, post("/api/reports/department/{departmentId}", LeaveFixture.ENGINEERING)
+                        .params(reportPeriod(startDate, endDate))),
+                request(admin, post("/api/reports/leave-type/{leaveTypeId}", LeaveFixture.ANNUAL_LEAVE)
+                        .params(reportPeriod(startDate, endDate))),
+                request(manager, post("/api/reports/manager/team-leave").params(reportPeriod(startDate, endDate))),
+                request(manager, post("/api/reports/manager/approval-stats")
+                        .params(reportPeriod(startDate, endDate))),
+                request(manager, post("/api/reports/manager/team-coverage")
+                        .params(reportPeriod(startDate, endDate))),
+                request(admin, get("/api/reports/{reportId}/download", LeaveFixture.REPORT_ID)),
+                // Settings and users
+                request(staff, get("/api/settings")),
+                request(admin, put("/api/settings").contentType(MediaType.APPLICATION_JSON)
+                        .content(json(Map.of("accrualRate", 1.75, "maxCarryover", 6,
+                                "documentRequiredFor", List.of(Map.of("id", LeaveFixture.SICK_LEAVE)),
+                                "notificationPreferences", List.of("LEAVE_APPLICATION"),
+                                "approvalWorkflow", "single", "holidayCalendarSource", "internal")))),
+                request(staff, get("/api/users/profile")));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("budgetedRequests")
+    void staysWithinItsBudget(String name, UserResponseDTO caller, MockHttpServletRequestBuilder request)
+            throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        AUTH_SERVICE.clearRequests();
+
+        MvcResult result = mockMvc.perform(request.header(HttpHeaders.AUTHORIZATION, bearer(caller))).andReturn();
+        HandlerMethod handler = (HandlerMethod) result.getHandler();
+        if (result.getRequest().isAsyncStarted()) {
+            // Streamed bodies are written after the handler returns and count against its budget
+            result = mockMvc.perform(asyncDispatch(result)).andReturn();
+        }
+        status().is2xxSuccessful().match(result);
+
+        QueryBudget budget = handler.getMethodAnnotation(QueryBudget.class);
+        assertThat(budget).as("@QueryBudget on the handler of %s", name).isNotNull();
+        assertThat(statistics.getPrepareStatementCount())
+                .as("SQL statements of %s", name)
+                .isLessThanOrEqualTo(budget.statements());
+        assertThat(AUTH_SERVICE.userInfoRequests())
+                .as("auth-service calls of %s", name)
+                .hasSizeLessThanOrEqualTo(budget.remoteCalls());
+    }
+
+    @Test
+    void everyHandlerIsBudgetedAndMeasured() throws Exception {
+        Set<Method> measured = new HashSet<>();
+        for (Arguments arguments : budgetedRequests().toList()) {
+            MockHttpServletRequestBuilder request = (MockHttpServletRequestBuilder) arguments.get()[2];
+            HttpServletRequest servletRequest = request.buildRequest(servletContext);
+            ServletRequestPathUtils.parseAndCache(servletRequest);
+            HandlerExecutionChain chain = handlerMapping.getHandler(servletRequest);
+            assertThat(chain).as("handler of %s", arguments.get()[0]).isNotNull();
+            measured.add(((HandlerMethod) chain.getHandler()).getMethod());
+        }
+
+        List<HandlerMethod> handlers = handlerMapping.getHandlerMethods().values().stream()
+                .filter(method -> method.getBeanType().getPackageName().startsWith("com.daking.leave"))
+                .toList();
+        assertThat(handlers).isNotEmpty();
+        assertThat(handlers)
+                .as("handlers without @QueryBudget")
+                .allMatch(method -> method.hasMethodAnnotation(QueryBudget.class));
+        assertThat(measured)
+                .as("handlers measured by staysWithinItsBudget")
+                .containsAll(handlers.stream().map(HandlerMethod::getMethod).collect(Collectors.toSet()));
+    }
+
+    private static MultiValueMap<String, String> reportPeriod(String startDate, String endDate) {
+        MultiValueMap<String, String> params = new LinkedMultiValueMap<>();
+        params.add("startDate", startDate);
+        params.add("endDate", endDate);
+        params.add("fileType", "csv");
+        return params;
+    }
+
+    private static String json(Map<String, ?> body) {
+        try {
+            return JSON.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Arguments request(UserResponseDTO caller, MockHttpServletRequestBuilder request) {
+        String uri = request.buildRequest(new MockServletContext()).getRequestURI();
+        String method = request.buildRequest(new MockServletContext()).getMethod();
+        return Arguments.of(method + " " + uri + " as " + caller.getRole(), caller, request);
+    }
+}
@@ -0,0 +1,129 @@
+package com.daking.leave.repository;
+
+import com.daking.leave.dto.request.LeaveBalanceAdjustmentRequest;
+import com.daking.leave.support.AbstractIntegrationTest;
+import com.daking.leave.support.LeaveFixture;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Concurrent writes to the annual leave balance of {@link LeaveFixture#ENGINEER},
+ * which starts the year with 20 days.
+ */
+class LeaveBalanceConcurrencyTest extends AbstractIntegrationTest {
+
+    private static final double INITIAL_DAYS = 20.0;
+
+    @SpyBean
+    private LeaveBalanceRepository leaveBalanceRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void concurrentDeductionsAreNeitherLostNorOverdrawn() throws Exception {
+        int threads = 16;
+        double days = 3.0;
+        int year = Year.now().getValue();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> deductions = new ArrayList<>();
+        int successes = 0;
+        try {
+            for (int i = 0; i < threads; i++) {
+                deductions.add(executor.submit(() -> {
+                    start.await();
+                    return leaveBalanceRepository.deduct(LeaveFixture.ENGINEER.getId(), LeaveFixture.ANNUAL_LEAVE,
+                            year, days);
+                }));
+            }
+            start.countDown();
+            for (Future<Integer> deduction : deductions) {
+                successes += deduction.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(successes).isEqualTo((int) Math.floor(INITIAL_DAYS / days));
+        assertThat(remainingDays(year))
+                .isEqualTo(INITIAL_DAYS - successes * days)
+                .isGreaterThanOrEqualTo(0.0);
+        assertThat(version(year)).isEqualTo((long) successes);
+    }
+
+    @Test
+    void adjustmentRacingADeductionGetsConflict() throws Exception {
+        int year = Year.now().getValue();
+        // Commit a deduction from another thread after the adjustment has read the balance
+        doAnswer(invocation -> {
+            Object balance = invocation.callRealMethod();
+            int deducted = CompletableFuture.supplyAsync(() -> leaveBalanceRepository.deduct(
+                            LeaveFixture.ENGINEER.getId(), LeaveFixture.ANNUAL_LEAVE, year, 2.0))
+                    .get(30, TimeUnit.SECONDS);
+            assertThat(deducted).isEqualTo(1);
+            return balance;
+        }).when(leaveBalanceRepository).findByUserIdAndLeaveTypeAndYear(eq(LeaveFixture.ENGINEER.getId()), any(),
+                eq(year));
+
+        LeaveBalanceAdjustmentRequest adjustment = new LeaveBalanceAdjustmentRequest();
+        adjustment.setUserId(LeaveFixture.ENGINEER.getId());
+        adjustment.setLeaveTypeId(LeaveFixture.ANNUAL_LEAVE);
+        adjustment.setAdjustmentDays(5.0);
+        adjustment.setReason("Correction");
+
+        mockMvc.perform(post("/api/leave-balances/adjust")
+                        .header(HttpHeaders.AUTHORIZATION, bearer(LeaveFixture.ADMIN))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(adjustment)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.status").value(409))
+                .andExpect(jsonPath("$.error").value("Conflict"));
+
+        // The deduction stands and the stale adjustment was rolled back
+        assertThat(remainingDays(year)).isEqualTo(INITIAL_DAYS - 2.0);
+        assertThat(version(year)).isEqualTo(1L);
+    }
+
+    private Double remainingDays(int year) {
+        return jdbcTemplate.queryForObject("SELECT remaining_days FROM leave_balances "
+                        + "WHERE user_id = ? AND leave_type_id = ? AND year = ?", Double.class,
+                LeaveFixture.ENGINEER.getId(), LeaveFixture.ANNUAL_LEAVE, year);
+    }
+
+    private Long version(int year) {
+        return jdbcTemplate.queryForObject("SELECT version FROM leave_balances "
+                        + "WHERE user_id = ? AND leave_type_id = ? AND year = ?", Long.class,
+                LeaveFixture.ENGINEER.getId(), LeaveFixture.ANNUAL_LEAVE, year);
+    }
+}
@@ -0,0 +1,155 @@
+package com.daking.leave.repository;
+
+import com.daking.leave.model.LeaveBalance;
+import com.daking.leave.model.LeaveType;
+import com.daking.leave.support.AbstractIntegrationTest;
+import com.daking.leave.support.LeaveFixture;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Bulk balance creation with IDENTITY ids against pooled sequence ids and
+ * JDBC batching, reported in rows per second.
+ * <p>
+ * The IDENTITY side inserts into a copy of {@code leave_balances} that keeps
+ * the V1 identity column, one {@code INSERT} per row with its generated key
+ * read back, which is what Hibernate does for IDENTITY entities. The batched
+ * side saves {@link LeaveBalance} entities through the repository with the
+ * application's sequence and batch settings. Each side is warmed up once
+ * before it is timed.
+ */
+@Slf4j
+class LeaveBalanceInsertBenchmarkTest extends AbstractIntegrationTest {
+
+    private static final int ROWS = 5_000;
+    private static final int WARM_UP_ROWS = 500;
+
+    private static final String IDENTITY_INSERT = "INSERT INTO leave_balances_identity (user_id, leave_type_id, "
+            + "year, total_days, used_days, remaining_days, carried_over_days, created_at, updated_at, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    @Autowired
+    private LeaveBalanceRepository leaveBalanceRepository;
+
+    @Autowired
+    private LeaveTypeRepository leaveTypeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void createIdentityTable() {
+        jdbcTemplate.execute("CREATE TABLE leave_balances_identity (LIKE leave_balances INCLUDING ALL)");
+        jdbcTemplate.execute("ALTER TABLE leave_balances_identity ALTER COLUMN id DROP DEFAULT");
+        jdbcTemplate.execute("ALTER TABLE leave_balances_identity ALTER COLUMN id ADD GENERATED BY DEFAULT AS IDENTITY");
+        jdbcTemplate.execute("ALTER TABLE leave_balances_identity ADD FOREIGN KEY (leave_type_id) "
+                + "REFERENCES leave_types (id)");
+    }
+
+    @AfterEach
+    void dropIdentityTable() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS leave_balances_identity");
+    }
+
+    @Test
+    void pooledBatchedInsertsOutpaceIdentityInserts() {
+        int year = Year.now().getValue() + 1;
+        insertWithIdentity(100_000L, WARM_UP_ROWS, year);
+        insertBatched(100_000L, WARM_UP_ROWS, year);
+
+        long identityNanos = insertWithIdentity(200_000L, ROWS, year);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        long batchedNanos = insertBatched(200_000L, ROWS, year);
+
+        double identityRate = rowsPerSecond(identityNanos);
+        double batchedRate = rowsPerSecond(batchedNanos);
+        log.info("Inserted {} leave balances: IDENTITY {} rows/s, pooled + batched {} rows/s ({}x)", ROWS,
+                Math.round(identityRate), Math.round(batchedRate), String.format("%.1f", batchedRate / identityRate));
+
+        assertThat(count("leave_balances_identity", year)).isEqualTo(WARM_UP_ROWS + ROWS);
+        assertThat(count("leave_balances", year)).isEqualTo(WARM_UP_ROWS + ROWS);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(ROWS);
+        // One statement per batch of 50 and one sequence call per 50 ids, far below one per row
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(ROWS / 10);
+        assertThat(batchedRate).isGreaterThan(identityRate);
+    }
+
+    private long insertWithIdentity(long firstUserId, int rows, int year) {
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            for (int i = 0; i < rows; i++) {
+                long userId = firstUserId + i;
+                GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+                jdbcTemplate.update(connection -> {
+                    PreparedStatement insert = connection.prepareStatement(IDENTITY_INSERT,
+                            Statement.RETURN_GENERATED_KEYS);
+                    insert.setLong(1, userId);
+                    insert.setLong(2, LeaveFixture.ANNUAL_LEAVE);
+                    insert.setInt(3, year);
+                    insert.setDouble(4, 20.0);
+                    insert.setDouble(5, 0.0);
+                    insert.setDouble(6, 20.0);
+                    insert.setDouble(7, 0.0);
+                    insert.setTimestamp(8, now);
+                    insert.setTimestamp(9, now);
+                    return insert;
+                }, keyHolder);
+                assertThat(keyHolder.getKeyList()).hasSize(1);
+            }
+        });
+        return System.nanoTime() - start;
+    }
+
+    private long insertBatched(long firstUserId, int rows, int year) {
+        long start = System.nanoTime();
+        transactionTemplate.executeWithoutResult(status -> {
+            LeaveType annual = leaveTypeRepository.getReferenceById(LeaveFixture.ANNUAL_LEAVE);
+            List<LeaveBalance> balances = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                LeaveBalance balance = new LeaveBalance();
+                balance.setUserId(firstUserId + i);
+                balance.setLeaveType(annual);
+                balance.setYear(year);
+                balance.setTotalDays(20.0);
+                balance.setUsedDays(0.0);
+                balance.setRemainingDays(20.0);
+                balance.setCarriedOverDays(0.0);
+                balances.add(balance);
+            }
+            leaveBalanceRepository.saveAll(balances);
+        });
+        return System.nanoTime() - start;
+    }
+
+    private int count(String table, int year) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM " + table + " WHERE year = ?", Integer.class, year);
+    }
+
+    private static double rowsPerSecond(long nanos) {
+        return ROWS * 1_000_000_000.0 / nanos;
+    }
+}
@@ -0,0 +1,99 @@
+package com.daking.leave.support;
+
+import com.daking.auth.api.dto.UserResponseDTO;
+import com.daking.leave.client.UserDirectory;
+import com.daking.leave.client.UserDirectoryReplica;
+import com.daking.leave.security.ManagerScopeService;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.testcontainers.containers.PostgreSQLContainer;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Base class of the integration tests: the whole application against a
+ * PostgreSQL container migrated by Flyway, the {@link AuthServiceStub} and the
+ * {@link PublicHolidayStub}.
+ * <p>
+ * The container and the stubs are started once per JVM and shared by every
+ * test class, like the cached application context. Before each test
+ * {@code fixtures/leave-fixture.sql} resets the leave data, the caches are
+ * emptied and the user directory replica is synced from the stub.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@Sql("/fixtures/leave-fixture.sql")
+public abstract class AbstractIntegrationTest {
+
+    protected static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    protected static final AuthServiceStub AUTH_SERVICE = AuthServiceStub.start();
+
+    protected static final PublicHolidayStub PUBLIC_HOLIDAYS = PublicHolidayStub.start();
+
+    private static final Set<UserDirectoryReplica> SETTLED_REPLICAS = ConcurrentHashMap.newKeySet();
+
+    static {
+        POSTGRES.start();
+    }
+
+    @Autowired
+    protected EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private UserDirectory userDirectory;
+
+    @Autowired
+    private UserDirectoryReplica userDirectoryReplica;
+
+    @Autowired
+    private ManagerScopeService managerScopeService;
+
+    @DynamicPropertySource
+    static void integrationProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("auth.service.url", AUTH_SERVICE::url);
+        registry.add("spring.cloud.discovery.client.simple.instances.auth-service[0].uri", AUTH_SERVICE::url);
+        registry.add("jwt.secret", () -> TestTokens.SECRET);
+        registry.add("app.holidays.public-holidays-url", PUBLIC_HOLIDAYS::url);
+    }
+
+    @BeforeEach
+    void resetState() throws InterruptedException {
+        userDirectoryReplica.fullResync();
+        assertThat(userDirectoryReplica.isSynced()).as("user directory replica synced from the stub").isTrue();
+        if (SETTLED_REPLICAS.add(userDirectoryReplica)) {
+            // Token iat has whole seconds; claims are only trusted for tokens issued after the initial sync
+            Thread.sleep(1000);
+        }
+        clearCaches();
+        AUTH_SERVICE.clearRequests();
+    }
+
+    /**
+     * Empties the second-level cache and the user and manager scope
+     * near-caches, leaving the synced replica in place.
+     */
+    protected void clearCaches() {
+        entityManagerFactory.getCache().evictAll();
+        userDirectory.invalidateAll();
+        managerScopeService.invalidateAll();
+    }
+
+    protected static String bearer(UserResponseDTO user) {
+        return "Bearer " + TestTokens.forUser(user);
+    }
+}
@@ -0,0 +1,233 @@
+package com.daking.leave.support;
+
+import com.daking.auth.api.dto.DepartmentDTO;
+import com.daking.auth.api.dto.DirectoryChangesDTO;
+import com.daking.auth.api.dto.RequestContextDTO;
+import com.daking.auth.api.dto.UserResponseDTO;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.HttpUrl;
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+/**
+ * Stand-in for auth-service in the integration tests.
+ * <p>
+ * Serves the service-account login and the {@code UserInfoApi} endpoints from
+ * the {@link LeaveFixture} directory, and records every directory request so
+ * tests can count the remote calls a request made. Logins are not recorded.
+ */
+public final class AuthServiceStub extends Dispatcher {
+
+    private static final String USERS = "/api/auth/users/";
+
+    private final MockWebServer server = new MockWebServer();
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final List<UserResponseDTO> users = LeaveFixture.users();
+    private final List<DepartmentDTO> departments = LeaveFixture.departments();
+    private final List<String> userInfoRequests = new CopyOnWriteArrayList<>();
+
+    private AuthServiceStub() {
+    }
+
+    public static AuthServiceStub start() {
+        AuthServiceStub stub = new AuthServiceStub();
+        stub.server.setDispatcher(stub);
+        try {
+            stub.server.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return stub;
+    }
+
+    public String url() {
+        String url = server.url("/").toString();
+        return url.substring(0, url.length() - 1);
+    }
+
+    /**
+     * Directory requests received since the last {@link #clearRequests()},
+     * as {@code METHOD path}.
+     */
+    public List<String> userInfoRequests() {
+        return List.copyOf(userInfoRequests);
+    }
+
+    public void clearRequests() {
+        userInfoRequests.clear();
+    }
+
+    @Override
+    public MockResponse dispatch(RecordedRequest request) {
+        HttpUrl url = request.getRequestUrl();
+        String path = url.encodedPath();
+        if (path.equals("/api/auth/login")) {
+            return json(Map.of("accessToken", TestTokens.serviceAccount()));
+        }
+        userInfoRequests.add(request.getMethod() + " " + path);
+
+        if (path.equals("/api/auth/users/changes")) {
+            return json(changesSince(Long.parseLong(url.queryParameter("sinceVersion")),
+                    Integer.parseInt(url.queryParameter("limit"))));
+        }
+        if (path.equals("/api/auth/users/context")) {
+            return json(requestContext(longs(url.queryParameterValues("userIds"))));
+        }
+        if (path.equals("/api/auth/users/by-ids")) {
+            List<Long> ids = read(request, new TypeReference<List<Long>>() {
+            });
+            return json(users.stream().filter(user -> ids.contains(user.getId())).toList());
+        }
+        if (path.equals("/api/auth/departments")) {
+            return json(departments);
+        }
+        if (path.startsWith(USERS + "email/")) {
+            String email = url.pathSegments().get(url.pathSize() - 1);
+            return users.stream().filter(user -> user.getEmail().equalsIgnoreCase(email)).findFirst()
+                    .map(this::json).orElseGet(AuthServiceStub::notFound);
+        }
+        if (path.startsWith(USERS + "team/")) {
+            return json(membersOf(Long.valueOf(lastSegment(path))));
+        }
+        if (path.startsWith(USERS + "managers/")) {
+            return json(membersOf(Long.valueOf(lastSegment(path))).stream()
+                    .filter(user -> user.getRole().name().equals("MANAGER")).toList());
+        }
+        if (path.startsWith(USERS + "role/")) {
+            String role = lastSegment(path);
+            return json(users.stream().filter(user -> user.getRole().name().equalsIgnoreCase(role)).toList());
+        }
+        if (path.startsWith(USERS) && path.endsWith("/departments-managed")) {
+            return json(managedBy(Long.valueOf(path.split("/")[4])));
+        }
+        if (path.startsWith(USERS) && path.endsWith("/role")) {
+            return findUser(Long.valueOf(path.split("/")[4]))
+                    .map(user -> new MockResponse().setBody(user.getRole().name())
+                            .setHeader("Content-Type", "text/plain"))
+                    .orElseGet(AuthServiceStub::notFound);
+        }
+        if (path.startsWith(USERS)) {
+            return findUser(Long.valueOf(lastSegment(path))).map(this::json).orElseGet(AuthServiceStub::notFound);
+        }
+        return notFound();
+    }
+
+    private DirectoryChangesDTO changesSince(long sinceVersion, int limit) {
+        List<UserResponseDTO> changedUsers = new ArrayList<>();
+        List<DepartmentDTO> changedDepartments = new ArrayList<>();
+        List<Long> versions = Stream.concat(
+                        users.stream().map(UserResponseDTO::getChangeVersion),
+                        departments.stream().map(DepartmentDTO::getChangeVersion))
+                .filter(version -> version > sinceVersion)
+                .sorted()
+                .toList();
+        long version = sinceVersion;
+        for (Long changeVersion : versions.subList(0, Math.min(limit, versions.size()))) {
+            users.stream().filter(user -> user.getChangeVersion().equals(changeVersion))
+                    .forEach(changedUsers::add);
+            departments.stream().filter(department -> department.getChangeVersion().equals(changeVersion))
+                    .forEach(changedDepartments::add);
+            version = changeVersion;
+        }
+        DirectoryChangesDTO page = new DirectoryChangesDTO();
+        page.setVersion(version);
+        page.setCurrentVersion(LeaveFixture.DIRECTORY_VERSION);
+        page.setHasMore(versions.size() > limit);
+        page.setUsers(changedUsers);
+        page.setDepartments(changedDepartments);
+        return page;
+    }
+
+    private RequestContextDTO requestContext(List<Long> userIds) {
+        RequestContextDTO context = new RequestContextDTO();
+        context.setDirectoryVersion(LeaveFixture.DIRECTORY_VERSION);
+        List<UserResponseDTO> contextUsers = users.stream().filter(user -> userIds.contains(user.getId())).toList();
+        Map<Long, List<Long>> managed = new LinkedHashMap<>();
+        Map<Long, DepartmentDTO> contextDepartments = new LinkedHashMap<>();
+        for (UserResponseDTO user : contextUsers) {
+            managed.put(user.getId(), managedBy(user.getId()));
+            departments.stream()
+                    .filter(department -> department.getId().equals(user.getDepartmentId())
+                            || Objects.equals(department.getManagerId(), user.getId()))
+                    .forEach(department -> contextDepartments.putIfAbsent(department.getId(), department));
+        }
+        Map<Long, List<UserResponseDTO>> departmentManagers = new LinkedHashMap<>();
+        for (Long departmentId : contextDepartments.keySet()) {
+            departmentManagers.put(departmentId, membersOf(departmentId).stream()
+                    .filter(user -> user.getRole().name().equals("MANAGER")).toList());
+        }
+        context.setUsers(contextUsers);
+        context.setDepartments(new ArrayList<>(contextDepartments.values()));
+        context.setManagedDepartmentIds(managed);
+        context.setDepartmentManagers(departmentManagers);
+        return context;
+    }
+
+    private Optional<UserResponseDTO> findUser(Long userId) {
+        return users.stream().filter(user -> user.getId().equals(userId)).findFirst();
+    }
+
+    private List<UserResponseDTO> membersOf(Long departmentId) {
+        return users.stream()
+                .filter(user -> departmentId.equals(user.getDepartmentId()))
+                .sorted(Comparator.comparing(UserResponseDTO::getId))
+                .toList();
+    }
+
+    private List<Long> managedBy(Long userId) {
+        return departments.stream()
+                .filter(department -> Objects.equals(department.getManagerId(), userId))
+                .map(DepartmentDTO::getId)
+                .toList();
+    }
+
+    private MockResponse json(Object body) {
+        try {
+            return new MockResponse()
+                    .setHeader("Content-Type", "application/json")
+                    .setBody(objectMapper.writeValueAsString(body));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private <T> T read(RecordedRequest request, TypeReference<T> type) {
+        try {
+            return objectMapper.readValue(request.getBody().readUtf8(), type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Repeated and comma-separated query parameters both occur, depending on the Feign collection format
+    private static List<Long> longs(List<String> values) {
+        return values.stream()
+                .filter(Objects::nonNull)
+                .flatMap(value -> Stream.of(value.split(",")))
+                .map(Long::valueOf)
+                .toList();
+    }
+
+    private static String lastSegment(String path) {
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+    private static MockResponse notFound() {
+        return new MockResponse().setResponseCode(404);
+    }
+}
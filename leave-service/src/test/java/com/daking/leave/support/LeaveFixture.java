@@ -0,0 +1,87 @@
+package com.daking.leave.support;
+
+import com.daking.auth.api.dto.DepartmentDTO;
+import com.daking.auth.api.dto.UserResponseDTO;
+import com.daking.auth.api.model.Role;
+
+import java.util.List;
+
+/**
+ * Users and departments matching {@code fixtures/leave-fixture.sql}.
+ * <p>
+ * Engineering (10) is managed by {@link #ENGINEERING_MANAGER} and has two
+ * staff members; Sales (20) is managed by {@link #SALES_MANAGER} and has one.
+ * Every user and department carries its own change version, the highest of
+ * which is {@link #DIRECTORY_VERSION}.
+ */
+public final class LeaveFixture {
+
+    public static final long ENGINEERING = 10L;
+    public static final long SALES = 20L;
+
+    public static final long ANNUAL_LEAVE = 1L;
+    public static final long SICK_LEAVE = 2L;
+    /** Inactive leave type without balances or leaves, so it can be deleted. */
+    public static final long UNUSED_LEAVE_TYPE = 3L;
+
+    /** Pending annual leave of {@link #ENGINEER} in the current month. */
+    public static final long PENDING_LEAVE_ID = 1L;
+
+    /** Pending sick note of {@link #SECOND_ENGINEER}, attached to leave 2. */
+    public static final long DOCUMENT_ID = 1L;
+
+    /** Unread notification of {@link #ENGINEER}. */
+    public static final long NOTIFICATION_ID = 1L;
+
+    /** Company holiday in the current month. */
+    public static final long COMPANY_HOLIDAY_ID = 1L;
+
+    /** CSV report whose file the tests write under {@code target/test-reports}. */
+    public static final long REPORT_ID = 1L;
+
+    public static final UserResponseDTO ADMIN = user(1L, "Ada", "Admin", Role.ADMIN, null, 3L);
+    public static final UserResponseDTO ENGINEERING_MANAGER = user(2L, "Mia", "Manager", Role.MANAGER, ENGINEERING, 4L);
+    public static final UserResponseDTO SALES_MANAGER = user(3L, "Sam", "Seller", Role.MANAGER, SALES, 5L);
+    public static final UserResponseDTO ENGINEER = user(11L, "Sara", "Staff", Role.STAFF, ENGINEERING, 6L);
+    public static final UserResponseDTO SECOND_ENGINEER = user(12L, "Tom", "Staff", Role.STAFF, ENGINEERING, 7L);
+    public static final UserResponseDTO SALES_REP = user(21L, "Lea", "Staff", Role.STAFF, SALES, 8L);
+
+    public static final long DIRECTORY_VERSION = 8L;
+
+    private LeaveFixture() {
+    }
+
+    public static List<UserResponseDTO> users() {
+        return List.of(ADMIN, ENGINEERING_MANAGER, SALES_MANAGER, ENGINEER, SECOND_ENGINEER, SALES_REP);
+    }
+
+    public static List<DepartmentDTO> departments() {
+        return List.of(department(ENGINEERING, "Engineering", ENGINEERING_MANAGER, 1L),
+                department(SALES, "Sales", SALES_MANAGER, 2L));
+    }
+
+    private static UserResponseDTO user(Long id, String firstName, String lastName, Role role, Long departmentId,
+            Long changeVersion) {
+        UserResponseDTO user = new UserResponseDTO();
+        user.setId(id);
+        user.setFirstName(firstName);
+        user.setLastName(lastName);
+        user.setEmail(firstName.toLowerCase() + "." + lastName.toLowerCase() + "@example.com");
+        user.setRole(role);
+        user.setDepartmentId(departmentId);
+        user.setIsActive(true);
+        user.setChangeVersion(changeVersion);
+        return user;
+    }
+
+    private static DepartmentDTO department(Long id, String name, UserResponseDTO manager, Long changeVersion) {
+        DepartmentDTO department = new DepartmentDTO();
+        department.setId(id);
+        department.setName(name);
+        department.setActive(true);
+        department.setManagerId(manager.getId());
+        department.setManagerName(manager.getFullName());
+        department.setChangeVersion(changeVersion);
+        return department;
+    }
+}
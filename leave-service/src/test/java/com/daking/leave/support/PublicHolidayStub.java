@@ -0,0 +1,63 @@
+package com.daking.leave.support;
+
+import okhttp3.mockwebserver.Dispatcher;
+import okhttp3.mockwebserver.MockResponse;
+import okhttp3.mockwebserver.MockWebServer;
+import okhttp3.mockwebserver.RecordedRequest;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Stand-in for the Nager.Date public holiday API used by the holiday import.
+ * Serves three US holidays for any year.
+ */
+public final class PublicHolidayStub extends Dispatcher {
+
+    private static final Pattern PUBLIC_HOLIDAYS = Pattern.compile("/PublicHolidays/(\\d{4})/US");
+
+    private final MockWebServer server = new MockWebServer();
+
+    private PublicHolidayStub() {
+    }
+
+    public static PublicHolidayStub start() {
+        PublicHolidayStub stub = new PublicHolidayStub();
+        stub.server.setDispatcher(stub);
+        try {
+            stub.server.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return stub;
+    }
+
+    /**
+     * Base URL the year and country are appended to, as for
+     * {@code app.holidays.public-holidays-url}.
+     */
+    public String url() {
+        return server.url("/PublicHolidays").toString();
+    }
+
+    @Override
+    public MockResponse dispatch(RecordedRequest request) {
+        Matcher matcher = PUBLIC_HOLIDAYS.matcher(request.getRequestUrl().encodedPath());
+        if (!matcher.matches()) {
+            return new MockResponse().setResponseCode(404);
+        }
+        String year = matcher.group(1);
+        return new MockResponse()
+                .setHeader("Content-Type", "application/json")
+                .setBody("[" + holiday(year + "-01-01", "New Year's Day")
+                        + "," + holiday(year + "-07-04", "Independence Day")
+                        + "," + holiday(year + "-12-25", "Christmas Day") + "]");
+    }
+
+    private static String holiday(String date, String name) {
+        return "{\"date\":\"" + date + "\",\"localName\":\"" + name + "\",\"name\":\"" + name
+                + "\",\"countryCode\":\"US\"}";
+    }
+}
@@ -0,0 +1,70 @@
+package com.daking.leave.support;
+
+import com.daking.auth.api.dto.DepartmentDTO;
+import com.daking.auth.api.dto.UserResponseDTO;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Issues JWTs carrying the same claims as auth-service's, signed with the
+ * secret the integration tests configure as {@code jwt.secret}.
+ */
+public final class TestTokens {
+
+    public static final String SECRET = "leave-service-integration-test-secret-0123456789";
+
+    private static final Duration LIFETIME = Duration.ofHours(1);
+
+    private TestTokens() {
+    }
+
+    /**
+     * Token for a fixture user, issued now at {@link LeaveFixture#DIRECTORY_VERSION},
+     * so its directory claims are fresh.
+     */
+    public static String forUser(UserResponseDTO user) {
+        List<Long> managedDepartmentIds = LeaveFixture.departments().stream()
+                .filter(department -> Objects.equals(department.getManagerId(), user.getId()))
+                .map(DepartmentDTO::getId)
+                .toList();
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", user.getId());
+        claims.put("role", user.getRole().name());
+        claims.put("roles", List.of("ROLE_" + user.getRole().name()));
+        claims.put("departmentId", user.getDepartmentId());
+        claims.put("dv", LeaveFixture.DIRECTORY_VERSION);
+        claims.put("mdep", managedDepartmentIds);
+        return sign(user.getEmail(), claims);
+    }
+
+    /**
+     * Token returned by the stubbed login of the leave-service account.
+     */
+    public static String serviceAccount() {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put("userId", 0L);
+        claims.put("roles", List.of("ROLE_SERVICE"));
+        return sign("leave-service@test.local", claims);
+    }
+
+    private static String sign(String subject, Map<String, Object> claims) {
+        Instant now = Instant.now();
+        return Jwts.builder()
+                .setClaims(claims)
+                .setSubject(subject)
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plus(LIFETIME)))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
@@ -0,0 +1,91 @@
+-- Leave data shared by the integration tests; the matching users and
+-- departments are served by AuthServiceStub (see LeaveFixture).
+-- Rows use explicit ids below the pooled sequences' first block, so ids
+-- generated by the application never collide with them.
+
+TRUNCATE leave_documents, documents, leaves, leave_balances, leave_usage_rollup, batch_chunk_executions,
+    notifications, reports, holidays, settings, leave_types CASCADE;
+
+-- Identity columns continue above the explicit ids used here
+ALTER TABLE leave_types ALTER COLUMN id RESTART WITH 100;
+ALTER TABLE documents ALTER COLUMN id RESTART WITH 100;
+ALTER TABLE reports ALTER COLUMN id RESTART WITH 100;
+ALTER TABLE settings ALTER COLUMN id RESTART WITH 100;
+
+INSERT INTO leave_types (id, name, description, default_days, is_active, created_at, updated_at, accrual_rate,
+                         can_carry_over, max_carry_over_days, requires_approval, requires_documentation, is_paid)
+VALUES (1, 'Annual', 'Paid annual leave', 20, TRUE, now(), now(), 1.66, TRUE, 5, TRUE, FALSE, TRUE),
+       (2, 'Sick', 'Sick leave', 10, TRUE, now(), now(), 0.83, FALSE, 0, TRUE, TRUE, TRUE),
+       (3, 'Unpaid', 'Retired unpaid leave, used nowhere', 5, FALSE, now(), now(), 0, FALSE, 0, TRUE, FALSE, FALSE);
+
+-- This year's balances for every non-admin user and leave type, ids 1-10
+INSERT INTO leave_balances (id, user_id, leave_type_id, year, total_days, used_days, remaining_days,
+                            carried_over_days, created_at, updated_at, version)
+SELECT row_number() OVER (ORDER BY u.id, t.id), u.id, t.id, EXTRACT(YEAR FROM CURRENT_DATE)::INTEGER,
+       t.default_days, 0, t.default_days, 0, now(), now(), 0
+FROM (VALUES (2), (3), (11), (12), (21)) AS u (id)
+CROSS JOIN leave_types t
+WHERE t.is_active;
+
+-- Last year's annual leave of the engineers, ids 11-12, for the carry-over
+INSERT INTO leave_balances (id, user_id, leave_type_id, year, total_days, used_days, remaining_days,
+                            carried_over_days, created_at, updated_at, version)
+VALUES (11, 11, 1, EXTRACT(YEAR FROM CURRENT_DATE)::INTEGER - 1, 20, 12, 8, 0, now(), now(), 0),
+       (12, 12, 1, EXTRACT(YEAR FROM CURRENT_DATE)::INTEGER - 1, 20, 18, 2, 0, now(), now(), 0);
+
+-- Leaves around the current month, one of them starting in the previous month
+INSERT INTO leaves (id, user_id, department_id, leave_type_id, start_date, end_date, total_days, status, reason,
+                    comments, approver_id, created_at, updated_at)
+SELECT id, user_id, department_id, leave_type_id, month_start + start_offset, month_start + end_offset,
+       end_offset - start_offset + 1, status, reason, NULL, approver_id, now(), now()
+FROM (VALUES (1, 11, 10, 1, 2, 4, 'PENDING', 'Family visit', NULL),
+             (2, 12, 10, 2, 10, 10, 'APPROVED', 'Flu', 2),
+             (3, 21, 20, 1, 5, 9, 'PENDING', 'Holiday', NULL),
+             (4, 11, 10, 1, -2, 1, 'APPROVED', 'Long weekend', 2),
+             (5, 2, 10, 1, 15, 16, 'REJECTED', 'Conference', 1))
+         AS l (id, user_id, department_id, leave_type_id, start_offset, end_offset, status, reason, approver_id)
+CROSS JOIN (SELECT date_trunc('month', CURRENT_DATE)::DATE AS month_start) m;
+
+-- Same split as V4__leave_usage_rollup.sql
+INSERT INTO leave_usage_rollup (year, month, department_id, leave_type_id, status, days, requests)
+SELECT EXTRACT(YEAR FROM m)::int, EXTRACT(MONTH FROM m)::int, l.department_id, l.leave_type_id, l.status,
+       SUM(l.total_days * (LEAST(l.end_date, (m + INTERVAL '1 month - 1 day')::date)
+           - GREATEST(l.start_date, m::date) + 1) / (l.end_date - l.start_date + 1)),
+       SUM(CASE WHEN m = date_trunc('month', l.start_date::timestamp) THEN 1 ELSE 0 END)
+FROM leaves l
+CROSS JOIN LATERAL generate_series(date_trunc('month', l.start_date::timestamp),
+                                   date_trunc('month', l.end_date::timestamp), INTERVAL '1 month') AS m
+GROUP BY 1, 2, 3, 4, 5;
+
+-- Sick note of SECOND_ENGINEER attached to leave 2; the file is written by the tests that download it
+INSERT INTO documents (id, user_id, file_name, file_type, file_size, url, status, created_at)
+VALUES (1, 12, 'fixture-sick-note.pdf', 'application/pdf', 4, '/files/fixture-sick-note.pdf', 'PENDING', now());
+
+INSERT INTO leave_documents (leave_id, document_id)
+VALUES (2, 1);
+
+INSERT INTO notifications (id, user_id, message, read, created_at, type, related_id, link)
+VALUES (1, 11, 'Your leave request for Annual has been approved.', FALSE, now(), 'LEAVE_STATUS', 4, '/leave/history'),
+       (2, 11, 'Welcome to leave management.', FALSE, now(), 'INFO', NULL, NULL);
+
+INSERT INTO holidays (id, name, date, description, is_public)
+VALUES (1, 'Founders Day', date_trunc('month', CURRENT_DATE)::DATE + 20, 'Company holiday', FALSE),
+       (2, 'New Year''s Day', make_date(EXTRACT(YEAR FROM CURRENT_DATE)::INTEGER, 1, 1), 'New Year''s Day', TRUE);
+
+-- The report file is written by the tests that download it
+INSERT INTO reports (id, name, type, start_date, end_date, generated_by, generated_at, file_type, file_path,
+                     manager_id)
+VALUES (1, 'Employee Report - User 11', 'employee', date_trunc('month', CURRENT_DATE),
+        date_trunc('month', CURRENT_DATE) + INTERVAL '1 month - 1 second', '1', now(), 'csv',
+        'target/test-reports/fixture-report.csv', NULL);
+
+INSERT INTO settings (id, accrual_rate, max_carryover, carryover_expiry_date, approval_workflow,
+                      holiday_calendar_source)
+VALUES (1, 1.66, 5, make_date(EXTRACT(YEAR FROM CURRENT_DATE)::INTEGER + 1, 1, 31), 'single', 'internal');
+
+INSERT INTO settings_document_required_leavetypes (settings_id, leavetype_id)
+VALUES (1, 2);
+
+INSERT INTO settings_notification_preferences (settings_id, notification_type)
+VALUES (1, 'LEAVE_APPLICATION'),
+       (1, 'LEAVE_STATUS');